@@ -0,0 +1,334 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.inspiresoftware.lib.dto.geda.annotations.Dto;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoCollection;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoField;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoMap;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoVirtualField;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.impl.AccessorSourceGenerator;
+
+/**
+ * Build time counterpart of method synthesizers. Scans {@link Dto} classes and generates {@code DataReader} and
+ * {@code DataWriter} sources for all properties used by {@link DtoField}, {@link DtoCollection}, {@link DtoMap} and
+ * {@link DtoVirtualField} bindings (both DTO and entity side, including nested entity paths). Generated classes have
+ * exactly the same names as the ones synthesizers would generate at runtime, hence synthesizers load them from
+ * class path instead of generating byte code.
+ *
+ * Options:
+ * <ul>
+ * <li>geda.synthesizerId - comma separated list of synthesizer ids to generate classes for (default: javassist)</li>
+ * </ul>
+ *
+ * Classes are not generated for properties declared by nested or non public classes, or classes from java.*
+ * packages - these are left for runtime generation.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+@SupportedAnnotationTypes("com.inspiresoftware.lib.dto.geda.annotations.Dto")
+@SupportedOptions(DtoAnnotationProcessor.OPTION_SYNTHESIZER_ID)
+public class DtoAnnotationProcessor extends AbstractProcessor {
+
+	/** Option that specifies comma separated synthesizer ids. */
+	public static final String OPTION_SYNTHESIZER_ID = "geda.synthesizerId";
+
+	private static final String DEFAULT_SYNTHESIZER_ID = "javassist";
+
+	private final Set<String> generated = new HashSet<String>();
+
+	private String[] synthesizerIds;
+
+	private Elements elements;
+	private Types types;
+	private Filer filer;
+	private Messager messager;
+
+	/** {@inheritDoc} */
+	@Override
+	public synchronized void init(final ProcessingEnvironment processingEnv) {
+		super.init(processingEnv);
+		elements = processingEnv.getElementUtils();
+		types = processingEnv.getTypeUtils();
+		filer = processingEnv.getFiler();
+		messager = processingEnv.getMessager();
+
+		final String option = processingEnv.getOptions().get(OPTION_SYNTHESIZER_ID);
+		final List<String> ids = new ArrayList<String>();
+		if (option != null) {
+			for (final String id : option.split(",")) {
+				if (id.trim().length() > 0) {
+					ids.add(id.trim());
+				}
+			}
+		}
+		if (ids.isEmpty()) {
+			ids.add(DEFAULT_SYNTHESIZER_ID);
+		}
+		synthesizerIds = ids.toArray(new String[ids.size()]);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+		for (final Element element : roundEnv.getElementsAnnotatedWith(Dto.class)) {
+			if (element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.INTERFACE) {
+				processDto((TypeElement) element);
+			}
+		}
+		return false;
+	}
+
+	private void processDto(final TypeElement dto) {
+
+		final List<TypeElement> entities = new ArrayList<TypeElement>();
+		for (final String entityName : dto.getAnnotation(Dto.class).value()) {
+			if (entityName.length() > 0) {
+				final TypeElement entity = elements.getTypeElement(entityName);
+				if (entity != null) {
+					entities.add(entity);
+				}
+			}
+		}
+
+		for (final VariableElement field : getDtoFields(dto)) {
+
+			final String binding;
+			if (field.getAnnotation(DtoField.class) != null) {
+				binding = field.getAnnotation(DtoField.class).value();
+			} else if (field.getAnnotation(DtoCollection.class) != null) {
+				binding = field.getAnnotation(DtoCollection.class).value();
+			} else if (field.getAnnotation(DtoMap.class) != null) {
+				binding = field.getAnnotation(DtoMap.class).value();
+			} else if (field.getAnnotation(DtoVirtualField.class) != null) {
+				binding = null; // no entity side
+			} else {
+				continue;
+			}
+
+			final String dtoFieldName = field.getSimpleName().toString();
+			generateProperty(dto, dtoFieldName, field);
+
+			if (binding != null) {
+				final String[] path = (binding.length() > 0 ? binding : dtoFieldName).split("\\.");
+				for (final TypeElement entity : entities) {
+					TypeElement owner = entity;
+					for (int i = 0; i < path.length && owner != null; i++) {
+						owner = asTypeElement(generateProperty(owner, path[i], field));
+					}
+				}
+			}
+		}
+
+	}
+
+	/*
+	 * Fields of dto and all its superclasses (same as runtime, which walks generic superclasses of DTO).
+	 */
+	private List<VariableElement> getDtoFields(final TypeElement dto) {
+		final List<VariableElement> fields = new ArrayList<VariableElement>();
+		TypeElement current = dto;
+		while (current != null && !Object.class.getName().equals(current.getQualifiedName().toString())) {
+			fields.addAll(ElementFilter.fieldsIn(current.getEnclosedElements()));
+			final TypeMirror superclass = current.getSuperclass();
+			current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+		}
+		return fields;
+	}
+
+	/*
+	 * Generates reader and writer for property and returns erased property type (or null if there is no getter).
+	 */
+	private TypeMirror generateProperty(final TypeElement owner, final String property, final Element origin) {
+
+		final List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(owner));
+
+		final ExecutableElement getter = findGetter(methods, property);
+		final TypeMirror propertyType = getter != null ? types.erasure(getter.getReturnType()) : null;
+		if (getter != null) {
+			final TypeElement declaring = (TypeElement) getter.getEnclosingElement();
+			if (isValidDeclaringClass(declaring)) {
+				final String declaringName = declaring.getQualifiedName().toString();
+				final String getterName = getter.getSimpleName().toString();
+				for (final String id : synthesizerIds) {
+					final String readerClassName = generateClassName("DataReader", declaringName, getterName, id);
+					generateSource(readerClassName, AccessorSourceGenerator.generateReaderSource(readerClassName,
+							declaringName, getterName, getTypeName(propertyType), getPrimitiveName(propertyType)),
+							origin);
+				}
+			}
+		}
+
+		final ExecutableElement setter = findSetter(methods, property, propertyType);
+		if (setter != null) {
+			final TypeElement declaring = (TypeElement) setter.getEnclosingElement();
+			if (isValidDeclaringClass(declaring)) {
+				final TypeMirror argumentType = types.erasure(setter.getParameters().get(0).asType());
+				final String declaringName = declaring.getQualifiedName().toString();
+				final String setterName = setter.getSimpleName().toString();
+				for (final String id : synthesizerIds) {
+					final String writerClassName = generateClassName("DataWriter", declaringName, setterName, id);
+					generateSource(writerClassName, AccessorSourceGenerator.generateWriterSource(writerClassName,
+							declaringName, setterName, getTypeName(argumentType), getPrimitiveName(argumentType)),
+							origin);
+				}
+			}
+		}
+
+		return propertyType;
+	}
+
+	private ExecutableElement findGetter(final List<ExecutableElement> methods, final String property) {
+		final String capitalized = capitalize(property);
+		ExecutableElement getter = null;
+		for (final ExecutableElement method : methods) {
+			if (isPublicInstanceMethod(method) && method.getParameters().isEmpty()) {
+				final String name = method.getSimpleName().toString();
+				if (("is" + capitalized).equals(name) && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+					return method; // same as Introspector: "is" wins over "get"
+				} else if (("get" + capitalized).equals(name) && method.getReturnType().getKind() != TypeKind.VOID) {
+					getter = method;
+				}
+			}
+		}
+		return getter;
+	}
+
+	private ExecutableElement findSetter(final List<ExecutableElement> methods, final String property,
+			final TypeMirror propertyType) {
+		final String name = "set" + capitalize(property);
+		ExecutableElement setter = null;
+		for (final ExecutableElement method : methods) {
+			if (isPublicInstanceMethod(method) && method.getParameters().size() == 1
+					&& name.equals(method.getSimpleName().toString())) {
+				if (propertyType == null
+						|| types.isSameType(propertyType, types.erasure(method.getParameters().get(0).asType()))) {
+					return method;
+				}
+				setter = method;
+			}
+		}
+		return propertyType == null ? setter : null;
+	}
+
+	private boolean isPublicInstanceMethod(final ExecutableElement method) {
+		return method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC);
+	}
+
+	/*
+	 * Generated classes are placed into the package of declaring class, hence it must be top level and public (same
+	 * restriction as runtime generation has) and it must not be in a java.* package.
+	 */
+	private boolean isValidDeclaringClass(final TypeElement declaring) {
+		return declaring.getNestingKind() == NestingKind.TOP_LEVEL
+				&& declaring.getModifiers().contains(Modifier.PUBLIC)
+				&& !declaring.getQualifiedName().toString().startsWith("java.")
+				&& elements.getPackageOf(declaring).getQualifiedName().length() > 0;
+	}
+
+	private TypeElement asTypeElement(final TypeMirror type) {
+		if (type != null && type.getKind() == TypeKind.DECLARED) {
+			return (TypeElement) types.asElement(type);
+		}
+		return null;
+	}
+
+	private String getTypeName(final TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		} else if (type.getKind() == TypeKind.DECLARED) {
+			return ((TypeElement) types.asElement(type)).getQualifiedName().toString();
+		}
+		return type.toString();
+	}
+
+	private String getPrimitiveName(final TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return type.toString();
+		}
+		return null;
+	}
+
+	private void generateSource(final String className, final String source, final Element origin) {
+		if (!generated.add(className) || elements.getTypeElement(className) != null) {
+			return; // already generated in this or previous compilation
+		}
+		Writer writer = null;
+		try {
+			writer = filer.createSourceFile(className, origin).openWriter();
+			writer.write("// generated by " + DtoAnnotationProcessor.class.getCanonicalName() + "\n");
+			writer.write(source);
+		} catch (IOException ioe) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "Unable to generate " + className + ": "
+					+ ioe.getMessage() + ". Class will be generated at runtime.", origin);
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException ioe) {
+					messager.printMessage(Diagnostic.Kind.WARNING, "Unable to close " + className + ": "
+							+ ioe.getMessage(), origin);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Must be in sync with AbstractMethodSynthesizer.generateClassName().
+	 */
+	private static String generateClassName(final String prefix, final String declaringClass,
+			final String methodName, final String synthesizerId) {
+		return declaringClass + prefix + "M" + methodName + "ID" + synthesizerId;
+	}
+
+	private static String capitalize(final String property) {
+		return Character.toUpperCase(property.charAt(0)) + property.substring(1);
+	}
+
+}
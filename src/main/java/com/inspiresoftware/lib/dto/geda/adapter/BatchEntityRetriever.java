@@ -0,0 +1,46 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.adapter;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Entity retriever that is able to retrieve several parent entities in one call. When assembling collection of
+ * entities (see {@link com.inspiresoftware.lib.dto.geda.assembler.Assembler#assembleEntities}), assembler collects
+ * primary keys of parents of all DTO's first and retrieves them in a single call instead of retrieving parent for
+ * every DTO.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public interface BatchEntityRetriever extends EntityRetriever {
+
+	/**
+	 * Method that allows to retrieve entities from persistence layer by providing the interface, class and primary
+	 * keys.
+	 *
+	 * @param entityInterface
+	 *            interface that is used on DTO (this maybe just class if no interface is used)
+	 * @param entityClass
+	 *            the concrete class that is used by entity object.
+	 * @param primaryKeys
+	 *            the primary key values to use (unique and not null).
+	 *
+	 * @return entities that are retrieved from persistence layer mapped by primary key (keys that were not found can
+	 *         be omitted).
+	 */
+	@SuppressWarnings("unchecked")
+	Map<Object, Object> retrieveByPrimaryKeys(final Class entityInterface, final Class entityClass,
+			final Collection primaryKeys);
+
+}
@@ -0,0 +1,30 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.adapter;
+
+/**
+ * Factory of entity tuples for bulk assembly of composite DTO's (DTO's that are assembled from several entities).
+ * Each tuple holds entities that single DTO is written to.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public interface EntityTupleFactory {
+
+	/**
+	 * @param dto
+	 *            composite DTO that tuple is created for
+	 * @return new entities for given DTO (entities of types that are not part of composite and nulls are ignored)
+	 */
+	Object[] newEntityTuple(Object dto);
+
+}
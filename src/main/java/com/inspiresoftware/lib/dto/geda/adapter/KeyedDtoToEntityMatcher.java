@@ -0,0 +1,45 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.adapter;
+
+/**
+ * Matcher that identifies DTO and Entity collection items by keys. DTO matches Entity if and only if both keys are not
+ * null and equal, so {@link #match(Object, Object)} must be consistent with the keys.
+ *
+ * Collection pipe uses the keys to index collections in hash maps instead of matching every DTO item with every
+ * Entity item, so keys must implement equals and hashCode.
+ *
+ * @param <DTO>
+ *            dto class
+ * @param <Entity>
+ *            entity class
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public interface KeyedDtoToEntityMatcher<DTO, Entity> extends DtoToEntityMatcher<DTO, Entity> {
+
+	/**
+	 * @param dto
+	 *            DTO item
+	 * @return key of DTO item (or null if item has no key, e.g. it is new)
+	 */
+	Object getDtoKey(final DTO dto);
+
+	/**
+	 * @param entity
+	 *            Entity item
+	 * @return key of Entity item (or null if item has no key)
+	 */
+	Object getEntityKey(final Entity entity);
+
+}
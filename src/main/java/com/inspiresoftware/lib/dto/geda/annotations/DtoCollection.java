@@ -134,4 +134,25 @@ public @interface DtoCollection {
 	 */
 	String dtoToEntityMatcherKey() default "";
 
+	/**
+	 * Names of DTO collection item properties that identify the item (several properties make a composite key). When
+	 * specified, DTO items are matched to Entity items by equal keys and collections are synchronized through hash
+	 * index of keys rather than by matching every DTO item with every Entity item.
+	 *
+	 * This setting has priority over the {@link #dtoToEntityMatcher()} setting. The {@link #dtoToEntityMatcherKey()}
+	 * setting has priority over this setting.
+	 *
+	 * @since 3.1.0
+	 */
+	String[] dtoItemKeyProperties() default {};
+
+	/**
+	 * Names of Entity collection item properties that identify the item, in the same order as
+	 * {@link #dtoItemKeyProperties()}. If not specified, Entity item properties are assumed to have the same names as
+	 * DTO item properties.
+	 *
+	 * @since 3.1.0
+	 */
+	String[] entityItemKeyProperties() default {};
+
 }
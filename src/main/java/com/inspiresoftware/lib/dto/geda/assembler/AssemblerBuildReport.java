@@ -0,0 +1,120 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of building assemblers for scanned DTO classes (see {@link DtoClassScanner}). Contains build time of each
+ * assembler, binding failures and DTO classes that were skipped because they do not specify auto binding.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public final class AssemblerBuildReport {
+
+	private final Map<Class<?>, Long> buildTimes = new ConcurrentHashMap<Class<?>, Long>();
+	private final Map<Class<?>, RuntimeException> failures = new ConcurrentHashMap<Class<?>, RuntimeException>();
+	private final List<Class<?>> skipped = new CopyOnWriteArrayList<Class<?>>();
+
+	/**
+	 * @param dto
+	 *            DTO class
+	 * @param nanos
+	 *            time it took to build assembler
+	 */
+	void built(final Class<?> dto, final long nanos) {
+		buildTimes.put(dto, Long.valueOf(nanos));
+	}
+
+	/**
+	 * @param dto
+	 *            DTO class
+	 * @param failure
+	 *            exception thrown when building assembler
+	 */
+	void failed(final Class<?> dto, final RuntimeException failure) {
+		failures.put(dto, failure);
+	}
+
+	/**
+	 * @param dto
+	 *            DTO class without auto binding
+	 */
+	void skipped(final Class<?> dto) {
+		skipped.add(dto);
+	}
+
+	/**
+	 * @return build time of assembler for each DTO class in nanoseconds, slowest first
+	 */
+	public Map<Class<?>, Long> getBuildTimes() {
+		final List<Map.Entry<Class<?>, Long>> entries = new ArrayList<Map.Entry<Class<?>, Long>>(buildTimes.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<Class<?>, Long>>() {
+			@Override
+			public int compare(final Map.Entry<Class<?>, Long> e1, final Map.Entry<Class<?>, Long> e2) {
+				return e2.getValue().compareTo(e1.getValue());
+			}
+		});
+		final Map<Class<?>, Long> sorted = new LinkedHashMap<Class<?>, Long>();
+		for (final Map.Entry<Class<?>, Long> entry : entries) {
+			sorted.put(entry.getKey(), entry.getValue());
+		}
+		return sorted;
+	}
+
+	/**
+	 * @return exceptions thrown when building assemblers by DTO class
+	 */
+	public Map<Class<?>, RuntimeException> getFailures() {
+		return Collections.unmodifiableMap(failures);
+	}
+
+	/**
+	 * @return DTO classes that were not built because they do not specify auto binding
+	 */
+	public List<Class<?>> getSkipped() {
+		return Collections.unmodifiableList(skipped);
+	}
+
+	/**
+	 * @return true if all assemblers were built successfully
+	 */
+	public boolean isSuccessful() {
+		return failures.isEmpty();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String toString() {
+		final StringBuilder report = new StringBuilder("Assemblers built: ").append(buildTimes.size())
+				.append(", failed: ").append(failures.size()).append(", skipped: ").append(skipped.size());
+		for (final Map.Entry<Class<?>, Long> entry : getBuildTimes().entrySet()) {
+			report.append("\n  ").append(entry.getKey().getName()).append(": ")
+					.append(TimeUnit.NANOSECONDS.toMillis(entry.getValue().longValue())).append("ms");
+		}
+		for (final Map.Entry<Class<?>, RuntimeException> entry : failures.entrySet()) {
+			report.append("\n  ").append(entry.getKey().getName()).append(" FAILED: ")
+					.append(entry.getValue().getMessage());
+		}
+		return report.toString();
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+
+import com.inspiresoftware.lib.dto.geda.dsl.Registry;
+
+/**
+ * Full key of assembler in {@link DTOAssembler} cache (DTO class, entity classes, synthesizer and registry). Unlike
+ * combined hash code two different keys never match.
+ *
+ * Keys created by constructor are meant for lookups. Keys that are put to cache are converted by {@link #weak()}, so
+ * that cache does not prevent class loader of DTO and entity classes from being garbage collected.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+final class AssemblerCacheKey {
+
+	private final Object[] parts;
+	private final int hash;
+
+	/**
+	 * @param dto
+	 *            DTO class
+	 * @param entities
+	 *            entity classes
+	 * @param synthesizer
+	 *            synthesizer (or synthesizer configuration)
+	 * @param registry
+	 *            DSL registry (or null for annotations)
+	 */
+	AssemblerCacheKey(final Class<?> dto, final Class<?>[] entities, final Object synthesizer, final Registry registry) {
+		parts = new Object[entities.length + 3];
+		parts[0] = dto;
+		System.arraycopy(entities, 0, parts, 1, entities.length);
+		parts[entities.length + 1] = synthesizer;
+		parts[entities.length + 2] = registry;
+
+		int result = 1;
+		for (final Object part : parts) {
+			result = 31 * result + (part == null ? 0 : part.hashCode());
+		}
+		hash = result;
+	}
+
+	private AssemblerCacheKey(final Object[] parts, final int hash) {
+		this.parts = parts;
+		this.hash = hash;
+	}
+
+	/**
+	 * @return equal key that only keeps weak references to its parts (strings are kept as is)
+	 */
+	AssemblerCacheKey weak() {
+		final Object[] weakParts = new Object[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			final Object part = parts[i];
+			if (part == null || part instanceof String) {
+				weakParts[i] = part;
+			} else {
+				weakParts[i] = new WeakReference<Object>(part);
+			}
+		}
+		return new AssemblerCacheKey(weakParts, hash);
+	}
+
+	private Object part(final int index) {
+		final Object part = parts[index];
+		if (part instanceof Reference) {
+			return ((Reference<?>) part).get();
+		}
+		return part;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof AssemblerCacheKey)) {
+			return false;
+		}
+		final AssemblerCacheKey other = (AssemblerCacheKey) obj;
+		if (hash != other.hash || parts.length != other.parts.length) {
+			return false;
+		}
+		for (int i = 0; i < parts.length; i++) {
+			final Object mine = part(i);
+			final Object theirs = other.part(i);
+			if (mine == null ? theirs != null : !mine.equals(theirs)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+}
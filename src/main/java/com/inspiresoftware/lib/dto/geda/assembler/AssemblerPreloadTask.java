@@ -0,0 +1,124 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveAction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
+import com.inspiresoftware.lib.dto.geda.exception.GeDAException;
+
+/**
+ * Fork/join task that creates an assembler and then, in parallel, all nested assemblers reachable through its pipes.
+ *
+ * Failure to create top level assembler is propagated to the caller. Failure to create nested assembler is only
+ * logged, since nested classes resolved without data may differ from those used during conversion (in which case
+ * the assembler is simply created lazily as before).
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+abstract class AssemblerPreloadTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 20131015L;
+
+	private static final Logger LOG = LoggerFactory.getLogger(AssemblerPreloadTask.class);
+
+	private final BeanFactory beanFactory;
+	private final Set<Assembler> visited;
+	private final boolean nested;
+
+	/**
+	 * @param beanFactory
+	 *            bean factory for resolving nested DTO and entity bean keys (can be null)
+	 * @param visited
+	 *            assemblers already visited by this preload (shared by all tasks, prevents cycles)
+	 * @param nested
+	 *            true if this task creates nested assembler
+	 */
+	AssemblerPreloadTask(final BeanFactory beanFactory, final Set<Assembler> visited, final boolean nested) {
+		this.beanFactory = beanFactory;
+		this.visited = visited;
+		this.nested = nested;
+	}
+
+	/**
+	 * @return assembler to preload (or null if there is none)
+	 *
+	 * @throws GeDAException
+	 *             if assembler cannot be created
+	 */
+	protected abstract Assembler createAssembler() throws GeDAException;
+
+	/** {@inheritDoc} */
+	@Override
+	protected void compute() {
+
+		final Assembler assembler;
+		if (nested) {
+			try {
+				assembler = createAssembler();
+			} catch (GeDAException geda) {
+				LOG.warn("Unable to preload nested assembler, it will be created on first use: {}", geda.getMessage());
+				return;
+			}
+		} else {
+			assembler = createAssembler();
+		}
+
+		if (assembler == null || !visited.add(assembler)) {
+			return;
+		}
+
+		final List<Pipe> pipes = new ArrayList<Pipe>();
+		collectPipes(assembler, pipes);
+
+		final List<AssemblerPreloadTask> tasks = new ArrayList<AssemblerPreloadTask>(pipes.size());
+		for (final Pipe pipe : pipes) {
+			tasks.add(new AssemblerPreloadTask(beanFactory, visited, true) {
+
+				private static final long serialVersionUID = 20131015L;
+
+				@Override
+				protected Assembler createAssembler() throws GeDAException {
+					return pipe.preloadAssembler(beanFactory);
+				}
+			});
+		}
+		invokeAll(tasks);
+	}
+
+	private static void collectPipes(final Assembler assembler, final List<Pipe> pipes) {
+		if (assembler instanceof DTOtoEntityAssemblerImpl) {
+			Collections.addAll(pipes, ((DTOtoEntityAssemblerImpl) assembler).getPipes());
+		} else if (assembler instanceof DTOtoEntitiesAssemblerDecoratorImpl) {
+			for (final Assembler part : ((DTOtoEntitiesAssemblerDecoratorImpl) assembler).getAssemblers()) {
+				collectPipes(part, pipes);
+			}
+		}
+	}
+
+	/**
+	 * @return new set for tracking visited assemblers (safe to share between tasks)
+	 */
+	static Set<Assembler> newVisitedSet() {
+		return Collections.newSetFromMap(new ConcurrentHashMap<Assembler, Boolean>());
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.util.Collection;
+
+import com.inspiresoftware.lib.dto.geda.exception.GeDAException;
+
+/**
+ * Assembler bound to converters and bean factory (see {@link BindableAssembler#bind(java.util.Map,
+ * com.inspiresoftware.lib.dto.geda.adapter.BeanFactory)}). Converter, retriever and matcher keys are resolved once
+ * when session is created and bean factory is resolved once, so repeated assembly calls do no string keyed look ups
+ * per field. Session is immutable and can be reused (and shared between threads as long as converters are
+ * stateless).
+ *
+ * Methods of the session behave exactly as corresponding methods of {@link Assembler} with bound converters and bean
+ * factory.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public interface AssemblySession {
+
+	/**
+	 * @param dto
+	 *            the dto to insert data to
+	 * @param entity
+	 *            the entity to get data from
+	 *
+	 * @throws GeDAException
+	 *             see {@link Assembler#assembleDto(Object, Object, java.util.Map,
+	 *             com.inspiresoftware.lib.dto.geda.adapter.BeanFactory)}
+	 */
+	void assembleDto(Object dto, Object entity) throws GeDAException;
+
+	/**
+	 * @param dtos
+	 *            the non-null and empty dtos collection to insert data to
+	 * @param entities
+	 *            the the non-null entity collection to get data from
+	 *
+	 * @throws GeDAException
+	 *             see {@link Assembler#assembleDtos(Collection, Collection, java.util.Map,
+	 *             com.inspiresoftware.lib.dto.geda.adapter.BeanFactory)}
+	 */
+	void assembleDtos(Collection dtos, Collection entities) throws GeDAException;
+
+	/**
+	 * @param dto
+	 *            the dto to get data from
+	 * @param entity
+	 *            the entity to insert data to
+	 *
+	 * @throws GeDAException
+	 *             see {@link Assembler#assembleEntity(Object, Object, java.util.Map,
+	 *             com.inspiresoftware.lib.dto.geda.adapter.BeanFactory)}
+	 */
+	void assembleEntity(Object dto, Object entity) throws GeDAException;
+
+	/**
+	 * @param dtos
+	 *            the non-null dtos collection to get data from
+	 * @param entities
+	 *            the non-null and empty entity collection to insert data to
+	 *
+	 * @throws GeDAException
+	 *             see {@link Assembler#assembleEntities(Collection, Collection, java.util.Map,
+	 *             com.inspiresoftware.lib.dto.geda.adapter.BeanFactory)}
+	 */
+	void assembleEntities(Collection dtos, Collection entities) throws GeDAException;
+
+}
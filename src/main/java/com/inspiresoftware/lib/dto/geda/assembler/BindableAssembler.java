@@ -0,0 +1,41 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.util.Map;
+
+import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
+
+/**
+ * Assembler that can be bound to converters and bean factory. Assemblers created by {@link DTOAssembler} implement
+ * this interface, so that {@link Assembler} does not require custom implementations to support sessions.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public interface BindableAssembler extends Assembler {
+
+	/**
+	 * Bind this assembler to converters and bean factory. Converter, retriever and matcher keys are resolved once
+	 * for the returned session (including nested assemblers it uses) and bean factory is resolved once, so session
+	 * is the preferred way to run many conversions with the same converters.
+	 *
+	 * @param converters
+	 *            the converters to be used during conversion (copied, later changes to the map are not visible to
+	 *            the session)
+	 * @param beanFactory
+	 *            bean factory for creating new instances of nested DTO and domain objects
+	 * @return reusable assembly session
+	 */
+	AssemblySession bind(Map<String, Object> converters, BeanFactory beanFactory);
+
+}
@@ -0,0 +1,72 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
+import com.inspiresoftware.lib.dto.geda.exception.GeDAException;
+
+/**
+ * Assembly session that delegates to assembler with bound converters and resolved bean factory.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+final class BoundAssemblySession implements AssemblySession {
+
+	private final Assembler assembler;
+	private final BoundConverters converters;
+	private final BeanFactory beanFactory;
+
+	/**
+	 * @param assembler
+	 *            assembler
+	 * @param converters
+	 *            converters to bind
+	 * @param beanFactory
+	 *            resolved bean factory
+	 */
+	BoundAssemblySession(final Assembler assembler, final Map<String, Object> converters,
+			final BeanFactory beanFactory) {
+		this.assembler = assembler;
+		this.converters = converters instanceof BoundConverters ? (BoundConverters) converters
+				: new BoundConverters(converters);
+		this.beanFactory = beanFactory;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void assembleDto(final Object dto, final Object entity) throws GeDAException {
+		assembler.assembleDto(dto, entity, converters, beanFactory);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void assembleDtos(final Collection dtos, final Collection entities) throws GeDAException {
+		assembler.assembleDtos(dtos, entities, converters, beanFactory);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void assembleEntity(final Object dto, final Object entity) throws GeDAException {
+		assembler.assembleEntity(dto, entity, converters, beanFactory);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void assembleEntities(final Collection dtos, final Collection entities) throws GeDAException {
+		assembler.assembleEntities(dtos, entities, converters, beanFactory);
+	}
+
+}
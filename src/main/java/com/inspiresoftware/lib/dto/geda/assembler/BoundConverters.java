@@ -0,0 +1,163 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Converters map bound to an {@link AssemblySession}. Every converter, retriever and matcher key declared by pipe
+ * metadata is given a global slot number once (when pipe is built, see {@link #slotOf(String)}), and bound converters
+ * keep their values in an array indexed by these slots, so pipes look up their converters by index instead of hashing
+ * string keys for every field of every object.
+ *
+ * Only declared keys get slots (other keys of bound maps are never looked up by slot) and the number of slots is
+ * limited by {@link #MAX_SLOTS}, so the slot registry does not grow with keys of converter maps. Array of bound
+ * converters is only as long as the highest slot of its keys. Keys without slot, or which got their slot after the
+ * converters were bound, are looked up by key.
+ *
+ * Bound converters are an immutable copy of the map they were created from and still behave as a map for code that
+ * looks converters up by key.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+final class BoundConverters extends AbstractMap<String, Object> {
+
+	/**
+	 * Maximum number of slots, keys declared after that are always looked up by key.
+	 */
+	static final int MAX_SLOTS = 1024;
+
+	private static final ConcurrentMap<String, Integer> SLOTS = new ConcurrentHashMap<String, Integer>();
+	private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+
+	private final Map<String, Object> converters;
+	private final Object[] slots;
+	private final int boundSlots;
+
+	/**
+	 * @param converters
+	 *            converters to bind (can be null)
+	 */
+	BoundConverters(final Map<String, Object> converters) {
+		if (converters == null || converters.isEmpty()) {
+			this.converters = Collections.emptyMap();
+		} else {
+			this.converters = new HashMap<String, Object>(converters);
+		}
+		boundSlots = NEXT_SLOT.get();
+		int length = 0;
+		for (final String key : this.converters.keySet()) {
+			final Integer slot = SLOTS.get(key);
+			if (slot != null && slot.intValue() < boundSlots) {
+				length = Math.max(length, slot.intValue() + 1);
+			}
+		}
+		slots = new Object[length];
+		for (final Map.Entry<String, Object> entry : this.converters.entrySet()) {
+			final Integer slot = SLOTS.get(entry.getKey());
+			if (slot != null && slot.intValue() < length) {
+				slots[slot.intValue()] = entry.getValue();
+			}
+		}
+	}
+
+	/**
+	 * @param key
+	 *            converter, retriever or matcher key
+	 * @return slot of the key (or -1 for null key and if all slots are taken)
+	 */
+	static int slotOf(final String key) {
+		if (key == null) {
+			return -1;
+		}
+		Integer slot = SLOTS.get(key);
+		if (slot == null) {
+			synchronized (SLOTS) {
+				slot = SLOTS.get(key);
+				if (slot == null) {
+					if (NEXT_SLOT.get() >= MAX_SLOTS) {
+						return -1;
+					}
+					slot = Integer.valueOf(NEXT_SLOT.get());
+					SLOTS.put(key, slot);
+					NEXT_SLOT.incrementAndGet(); // after put, so that bound converters see all their slots
+				}
+			}
+		}
+		return slot.intValue();
+	}
+
+	/**
+	 * Look up converter by slot if converters are bound and by key otherwise.
+	 *
+	 * @param converters
+	 *            converters (can be null)
+	 * @param slot
+	 *            slot of the key
+	 * @param key
+	 *            key
+	 * @return converter (or null if there is none)
+	 */
+	static Object lookup(final Map<String, Object> converters, final int slot, final String key) {
+		if (converters instanceof BoundConverters) {
+			return ((BoundConverters) converters).get(slot, key);
+		}
+		if (converters == null || converters.isEmpty()) {
+			return null;
+		}
+		return converters.get(key);
+	}
+
+	/**
+	 * @param slot
+	 *            slot of the key
+	 * @param key
+	 *            key
+	 * @return converter (or null if there is none)
+	 */
+	Object get(final int slot, final String key) {
+		if (slot < 0 || slot >= boundSlots) {
+			return converters.get(key); // key had no slot when converters were bound
+		}
+		if (slot >= slots.length) {
+			return null;
+		}
+		return slots[slot];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Object get(final Object key) {
+		return converters.get(key);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean containsKey(final Object key) {
+		return converters.containsKey(key);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return Collections.unmodifiableMap(converters).entrySet();
+	}
+
+}
@@ -11,11 +11,15 @@
 package com.inspiresoftware.lib.dto.geda.assembler;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
 import com.inspiresoftware.lib.dto.geda.adapter.DtoToEntityMatcher;
+import com.inspiresoftware.lib.dto.geda.adapter.KeyedDtoToEntityMatcher;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
 import com.inspiresoftware.lib.dto.geda.assembler.meta.CollectionPipeMetadata;
@@ -53,6 +57,8 @@ class CollectionPipe implements Pipe {
 	private final CollectionPipeMetadata meta;
 
 	private final AssemblerContext context;
+	private final InlineAssemblerCache assemblers;
+	private final ReturnTypeCache returnTypes = new ReturnTypeCache();
 
 	private final DataReader dtoRead;
 	private final DataWriter dtoWrite;
@@ -60,6 +66,8 @@ class CollectionPipe implements Pipe {
 	private final DataReader entityRead;
 	private final DataWriter entityWrite;
 
+	private final KeyedDtoToEntityMatcher keyMatcher;
+
 	/**
 	 * @param context
 	 *            assembler context
@@ -73,17 +81,22 @@ class CollectionPipe implements Pipe {
 	 *            method for writing data to Entity field
 	 * @param meta
 	 *            collection pipe meta
+	 * @param keyMatcher
+	 *            matcher by item key properties bound to this pipe (or null if items are matched as specified by
+	 *            meta)
 	 *
 	 * @throws AnnotationValidatingBindingException
 	 *             when pipe binding is invalid
 	 */
 	CollectionPipe(final AssemblerContext context, final DataReader dtoRead, final DataWriter dtoWrite,
-			final DataReader entityRead, final DataWriter entityWrite, final CollectionPipeMetadata meta)
-					throws AnnotationValidatingBindingException {
+			final DataReader entityRead, final DataWriter entityWrite, final CollectionPipeMetadata meta,
+			final KeyedDtoToEntityMatcher keyMatcher) throws AnnotationValidatingBindingException {
 
 		this.meta = meta;
+		this.keyMatcher = keyMatcher;
 
 		this.context = context;
+		this.assemblers = new InlineAssemblerCache(context);
 
 		this.dtoWrite = dtoWrite;
 		this.entityRead = entityRead;
@@ -107,6 +120,19 @@ class CollectionPipe implements Pipe {
 		return meta.getEntityFieldName();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Assembler preloadAssembler(final BeanFactory beanFactory) {
+		if (beanFactory == null) {
+			return null;
+		}
+		final Class<?> representative = getReturnType(beanFactory);
+		if (representative == null || Object.class.equals(representative)) {
+			return null; // actual class is only known from data
+		}
+		return assemblers.get(meta.newDtoBean(beanFactory).getClass(), representative);
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void writeFromEntityToDto(final Object entity, final Object dto, final Map<String, Object> converters,
@@ -125,7 +151,7 @@ class CollectionPipe implements Pipe {
 
 			final Collection dtos = meta.newDtoCollection(dtoBeanFactory);
 
-			final Class entityRepresentative = meta.getReturnType(dtoBeanFactory);
+			final Class entityRepresentative = getReturnType(dtoBeanFactory);
 
 			Object newDto = meta.newDtoBean(dtoBeanFactory);
 
@@ -210,6 +236,16 @@ class CollectionPipe implements Pipe {
 
 	}
 
+	private Class getReturnType(final BeanFactory beanFactory) throws BeanFactoryUnableToLocateRepresentationException,
+			BeanFactoryNotFoundException {
+		Class type = returnTypes.get(beanFactory);
+		if (type == null) {
+			type = meta.getReturnType(beanFactory);
+			returnTypes.put(beanFactory, type);
+		}
+		return type;
+	}
+
 	private Assembler lazyCreateAssembler(final Assembler assembler, final Object dtoItem, final Object entityItem,
 			final BeanFactory beanFactory) throws CollectionEntityGenericReturnTypeException,
 			AnnotationMissingException, InspectionScanningException, UnableToCreateInstanceException,
@@ -217,7 +253,7 @@ class CollectionPipe implements Pipe {
 			AnnotationValidatingBindingException, GeDARuntimeException, AnnotationDuplicateBindingException {
 		if (assembler == null) {
 
-			Class representative = meta.getReturnType(beanFactory);
+			Class representative = getReturnType(beanFactory);
 			if (Object.class.equals(representative) && entityItem != null) {
 				representative = entityItem.getClass();
 			}
@@ -227,7 +263,7 @@ class CollectionPipe implements Pipe {
 					throw new CollectionEntityGenericReturnTypeException(dtoItem.getClass().getCanonicalName(),
 							meta.getDtoFieldName(), representative.getCanonicalName());
 				}
-				return context.newAssembler(dtoItem.getClass(), representative);
+				return assemblers.get(dtoItem.getClass(), representative);
 			} catch (InspectionInvalidEntityInstanceException invEntity) {
 				throw new CollectionEntityGenericReturnTypeException(dtoItem.getClass().getCanonicalName(),
 						meta.getDtoFieldName(), representative != null ? representative.getCanonicalName()
@@ -252,8 +288,13 @@ class CollectionPipe implements Pipe {
 					AnnotationMissingBindingException, AnnotationValidatingBindingException, GeDARuntimeException,
 					AnnotationDuplicateBindingException, DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
 
+		final DtoToEntityMatcher matcher = getDtoToEntityMatcher(converters);
+		if (matcher instanceof KeyedDtoToEntityMatcher) {
+			addOrUpdateItems(converters, entityBeanFactory, original, dtos, (KeyedDtoToEntityMatcher) matcher);
+			return;
+		}
+
 		Assembler assembler = null;
-		final DtoToEntityMatcher matcher = meta.getDtoToEntityMatcher(converters);
 		for (Object dtoItem : dtos) {
 
 			boolean toAdd = true;
@@ -278,11 +319,70 @@ class CollectionPipe implements Pipe {
 		}
 	}
 
+	/*
+	 * Same as matching every DTO item with every Entity item (first matching Entity item is updated), but Entity items
+	 * are looked up in hash index of their keys.
+	 */
+	private void addOrUpdateItems(final Map<String, Object> converters, final BeanFactory entityBeanFactory,
+			final Collection original, final Collection dtos, final KeyedDtoToEntityMatcher matcher)
+					throws CollectionEntityGenericReturnTypeException, AnnotationMissingException,
+					BeanFactoryNotFoundException, BeanFactoryUnableToCreateInstanceException,
+					InspectionInvalidDtoInstanceException, InspectionInvalidEntityInstanceException,
+					NotEntityRetrieverException, EntityRetrieverNotFoundException, NotValueConverterException,
+					ValueConverterNotFoundException, AnnotationMissingBeanKeyException, UnableToCreateInstanceException,
+					InspectionScanningException, InspectionPropertyNotFoundException, InspectionBindingNotFoundException,
+					AnnotationMissingBindingException, AnnotationValidatingBindingException, GeDARuntimeException,
+					AnnotationDuplicateBindingException, DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
+
+		final Map index = new HashMap(original.size() * 2);
+		for (Object orItem : original) {
+			indexItem(index, matcher.getEntityKey(orItem), orItem);
+		}
+
+		Assembler assembler = null;
+		for (Object dtoItem : dtos) {
+
+			final Object key = matcher.getDtoKey(dtoItem);
+			final Object orItem = key != null ? index.get(key) : null;
+
+			if (orItem != null) {
+				assembler = lazyCreateAssembler(assembler, dtoItem, orItem, entityBeanFactory);
+				assembler.assembleEntity(dtoItem, orItem, converters, entityBeanFactory);
+			} else {
+				final Object newItem = meta.newEntityBean(entityBeanFactory);
+				assembler = lazyCreateAssembler(assembler, dtoItem, newItem, entityBeanFactory);
+				assembler.assembleEntity(dtoItem, newItem, converters, entityBeanFactory);
+				original.add(newItem);
+				indexItem(index, matcher.getEntityKey(newItem), newItem);
+			}
+
+		}
+	}
+
+	private DtoToEntityMatcher getDtoToEntityMatcher(final Map<String, Object> converters)
+			throws DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
+		if (keyMatcher != null) {
+			return keyMatcher;
+		}
+		return meta.getDtoToEntityMatcher(converters);
+	}
+
+	private void indexItem(final Map index, final Object key, final Object item) {
+		if (key != null && !index.containsKey(key)) {
+			index.put(key, item);
+		}
+	}
+
 	private void removeDeletedItems(final Collection original, final Collection dtos,
 			final Map<String, Object> converters, final BeanFactory entityBeanFactory)
 					throws DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
 
-		final DtoToEntityMatcher matcher = meta.getDtoToEntityMatcher(converters);
+		final DtoToEntityMatcher matcher = getDtoToEntityMatcher(converters);
+		if (matcher instanceof KeyedDtoToEntityMatcher) {
+			removeDeletedItems(original, dtos, (KeyedDtoToEntityMatcher) matcher);
+			return;
+		}
+
 		Iterator orIt = original.iterator();
 		while (orIt.hasNext()) {
 
@@ -303,4 +403,26 @@ class CollectionPipe implements Pipe {
 
 		}
 	}
+
+	private void removeDeletedItems(final Collection original, final Collection dtos,
+			final KeyedDtoToEntityMatcher matcher) {
+
+		final Set dtoKeys = new HashSet(dtos.size() * 2);
+		for (Object dtoItem : dtos) {
+			final Object key = matcher.getDtoKey(dtoItem);
+			if (key != null) {
+				dtoKeys.add(key);
+			}
+		}
+
+		final Iterator orIt = original.iterator();
+		while (orIt.hasNext()) {
+
+			final Object key = matcher.getEntityKey(orIt.next());
+			if (key == null || !dtoKeys.contains(key)) {
+				orIt.remove();
+			}
+
+		}
+	}
 }
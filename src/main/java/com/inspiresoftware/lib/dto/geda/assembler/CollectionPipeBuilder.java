@@ -11,6 +11,9 @@
 package com.inspiresoftware.lib.dto.geda.assembler;
 
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
 
@@ -51,13 +54,13 @@ class CollectionPipeBuilder extends BasePipeBuilder<CollectionPipeMetadata> {
 	 */
 	@Override
 	public Pipe build(final AssemblerContext context, final Class dtoClass, final Class entityClass,
-			final PropertyDescriptor[] dtoPropertyDescriptors, final PropertyDescriptor[] entityPropertyDescriptors,
+			final PropertyIndex dtoProperties, final PropertyIndex entityProperties,
 			final CollectionPipeMetadata meta, final Pipe pipe) throws InspectionBindingNotFoundException,
 			InspectionPropertyNotFoundException, UnableToCreateInstanceException, AnnotationValidatingBindingException,
 			GeDARuntimeException {
 
 		final PropertyDescriptor dtoFieldDesc = PropertyInspector.getDtoPropertyDescriptorForField(dtoClass,
-				meta.getDtoFieldName(), dtoPropertyDescriptors);
+				meta.getDtoFieldName(), dtoProperties);
 
 		final MethodSynthesizer synthesizer = context.getMethodSynthesizer();
 
@@ -80,14 +83,35 @@ class CollectionPipeBuilder extends BasePipeBuilder<CollectionPipeMetadata> {
 		} else {
 			entitySynthesizer = synthesizer;
 			entityFieldDesc = PropertyInspector.getEntityPropertyDescriptorForField(dtoClass, entityClass,
-					meta.getDtoFieldName(), meta.getEntityFieldName(), entityPropertyDescriptors);
+					meta.getDtoFieldName(), meta.getEntityFieldName(), entityProperties);
 		}
 
 		final DataReader entityFieldRead = entitySynthesizer.synthesizeReader(entityFieldDesc);
 		final DataWriter entityFieldWrite = meta.isReadOnly() ? null : entitySynthesizer
 				.synthesizeWriter(entityFieldDesc);
 
-		return new CollectionPipe(context, dtoFieldRead, dtoFieldWrite, entityFieldRead, entityFieldWrite, meta);
+		final PropertyKeyDtoToEntityMatcher keyMatcher = meta.isReadOnly() ? null : PropertyKeyDtoToEntityMatcher
+				.bind(meta, synthesizer, getItemClass(dtoFieldDesc), isMapEntity || isListEntity ? null
+						: getItemClass(entityFieldDesc));
+
+		return new CollectionPipe(context, dtoFieldRead, dtoFieldWrite, entityFieldRead, entityFieldWrite, meta,
+				keyMatcher);
+	}
+
+	/*
+	 * Item class of collection property (or null if it is not declared by generic type).
+	 */
+	private Class getItemClass(final PropertyDescriptor descriptor) {
+		final Method read = descriptor.getReadMethod();
+		final Type type = read != null ? read.getGenericReturnType()
+				: descriptor.getWriteMethod().getGenericParameterTypes()[0];
+		if (type instanceof ParameterizedType) {
+			final Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+			if (args.length == 1 && args[0] instanceof Class) {
+				return (Class) args[0];
+			}
+		}
+		return null;
 	}
 
 }
@@ -10,6 +10,7 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -42,6 +43,7 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.CollectionPipeMetadata {
 	private final String returnTypeKey;
 	private final DtoToEntityMatcher dtoToEntityMatcher;
 	private final String dtoToEntityMatcherKey;
+	private final int dtoToEntityMatcherSlot;
 
 	/**
 	 *
@@ -81,6 +83,54 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.CollectionPipeMetadata {
 			final String entityCollectionClassKey, final Class<?> returnType, final String returnTypeKey,
 			final Class<? extends DtoToEntityMatcher> dtoToEntityMatcherClass, final String dtoToEntityMatcherKey)
 					throws UnableToCreateInstanceException {
+		this(dtoFieldName, entityFieldName, dtoBeanKey, entityBeanKey, readOnly, dtoCollectionClass,
+				dtoCollectionClassKey, entityCollectionClass, entityCollectionClassKey, returnType, returnTypeKey,
+				dtoToEntityMatcherClass, dtoToEntityMatcherKey, null, null);
+	}
+
+	/**
+	 *
+	 * @param dtoFieldName
+	 *            key for accessing field on DTO object
+	 * @param entityFieldName
+	 *            key for accessing field on Entity bean
+	 * @param dtoBeanKey
+	 *            key for constructing DTO bean
+	 * @param entityBeanKey
+	 *            key for constructing Entity bean
+	 * @param readOnly
+	 *            read only marker (true then write to entity is omitted)
+	 * @param dtoCollectionClass
+	 *            the dto collection class for creating new collection instance
+	 * @param dtoCollectionClassKey
+	 *            key for dto collection class fetched from beanFactory
+	 * @param entityCollectionClass
+	 *            the entity collection class for creating new collection instance
+	 * @param entityCollectionClassKey
+	 *            key for entity collection class fetched from beanFactory
+	 * @param returnType
+	 *            the generic type for entity collection item
+	 * @param returnTypeKey
+	 *            bean factory key for generic type for entity collection item
+	 * @param dtoToEntityMatcherClass
+	 *            matcher for synchronising collections
+	 * @param dtoToEntityMatcherKey
+	 *            key of matcher in the converters map
+	 * @param dtoItemKeyProperties
+	 *            key properties of DTO item (if specified items are matched by keys instead of matcher class)
+	 * @param entityItemKeyProperties
+	 *            key properties of Entity item (same as DTO item key properties if not specified)
+	 *
+	 * @throws UnableToCreateInstanceException
+	 *             if unable to create item matcher
+	 */
+	public CollectionPipeMetadata(final String dtoFieldName, final String entityFieldName, final String dtoBeanKey,
+			final String entityBeanKey, final boolean readOnly, final Class<? extends Collection> dtoCollectionClass,
+			final String dtoCollectionClassKey, final Class<? extends Collection> entityCollectionClass,
+			final String entityCollectionClassKey, final Class<?> returnType, final String returnTypeKey,
+			final Class<? extends DtoToEntityMatcher> dtoToEntityMatcherClass, final String dtoToEntityMatcherKey,
+			final String[] dtoItemKeyProperties, final String[] entityItemKeyProperties)
+					throws UnableToCreateInstanceException {
 
 		super(dtoFieldName, entityFieldName, dtoBeanKey, entityBeanKey, readOnly);
 		this.dtoCollectionClass = dtoCollectionClass;
@@ -92,7 +142,12 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.CollectionPipeMetadata {
 				: null;
 		this.returnType = returnType;
 
-		if (dtoToEntityMatcherKey == null || dtoToEntityMatcherKey.length() == 0) {
+		if ((dtoToEntityMatcherKey == null || dtoToEntityMatcherKey.length() == 0) && dtoItemKeyProperties != null
+				&& dtoItemKeyProperties.length > 0) {
+			dtoToEntityMatcher = newKeyPropertiesMatcher(dtoItemKeyProperties, entityItemKeyProperties);
+			this.dtoToEntityMatcherKey = null;
+			this.dtoToEntityMatcherSlot = -1;
+		} else if (dtoToEntityMatcherKey == null || dtoToEntityMatcherKey.length() == 0) {
 			if (CACHE.containsKey(dtoToEntityMatcherClass)) {
 				dtoToEntityMatcher = CACHE.get(dtoToEntityMatcherClass);
 			} else {
@@ -102,9 +157,11 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.CollectionPipeMetadata {
 				CACHE.put(dtoToEntityMatcherClass, dtoToEntityMatcher);
 			}
 			this.dtoToEntityMatcherKey = null;
+			this.dtoToEntityMatcherSlot = -1;
 		} else {
 			dtoToEntityMatcher = null;
 			this.dtoToEntityMatcherKey = dtoToEntityMatcherKey;
+			this.dtoToEntityMatcherSlot = BoundConverters.slotOf(dtoToEntityMatcherKey);
 		}
 
 	}
@@ -146,11 +203,7 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.CollectionPipeMetadata {
 		if (dtoToEntityMatcherKey == null) {
 			return dtoToEntityMatcher;
 		}
-		if (converters == null) {
-			throw new DtoToEntityMatcherNotFoundException(getDtoFieldName(), getEntityFieldName(),
-					dtoToEntityMatcherKey);
-		}
-		final Object matcher = converters.get(dtoToEntityMatcherKey);
+		final Object matcher = BoundConverters.lookup(converters, dtoToEntityMatcherSlot, dtoToEntityMatcherKey);
 		if (matcher == null) {
 			throw new DtoToEntityMatcherNotFoundException(getDtoFieldName(), getEntityFieldName(),
 					dtoToEntityMatcherKey);
@@ -161,6 +214,31 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.CollectionPipeMetadata {
 		throw new NotDtoToEntityMatcherException(getDtoFieldName(), getEntityFieldName(), dtoToEntityMatcherKey);
 	}
 
+	/**
+	 * @return matcher by item key properties (or null if items are not matched by key properties), which pipe binds
+	 *         before use (see {@link PropertyKeyDtoToEntityMatcher#bind})
+	 */
+	PropertyKeyDtoToEntityMatcher getKeyPropertiesMatcher() {
+		if (dtoToEntityMatcher instanceof PropertyKeyDtoToEntityMatcher) {
+			return (PropertyKeyDtoToEntityMatcher) dtoToEntityMatcher;
+		}
+		return null;
+	}
+
+	private DtoToEntityMatcher newKeyPropertiesMatcher(final String[] dtoItemKeyProperties,
+			final String[] entityItemKeyProperties) throws UnableToCreateInstanceException {
+		if (entityItemKeyProperties == null || entityItemKeyProperties.length == 0) {
+			return new PropertyKeyDtoToEntityMatcher(dtoItemKeyProperties, dtoItemKeyProperties);
+		}
+		if (entityItemKeyProperties.length != dtoItemKeyProperties.length) {
+			throw new UnableToCreateInstanceException(PropertyKeyDtoToEntityMatcher.class.getCanonicalName(),
+					"Unable to create matcher for: " + getDtoFieldName() + " - DTO item key properties "
+							+ Arrays.toString(dtoItemKeyProperties) + " do not match Entity item key properties "
+							+ Arrays.toString(entityItemKeyProperties), null);
+		}
+		return new PropertyKeyDtoToEntityMatcher(dtoItemKeyProperties, entityItemKeyProperties);
+	}
+
 	private Collection newCollection(final String clazzKey, final BeanFactory beanFactory, final boolean isDto)
 			throws UnableToCreateInstanceException, BeanFactoryNotFoundException {
 		if (beanFactory == null) {
@@ -10,17 +10,35 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
 import com.inspiresoftware.lib.dto.geda.assembler.annotations.AnnotationProxy;
 import com.inspiresoftware.lib.dto.geda.assembler.annotations.impl.AnnotationProxies;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.Cache;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.CacheEvictionListener;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DisposableContainer;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
-import com.inspiresoftware.lib.dto.geda.assembler.extension.impl.IntHashTable;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.impl.BoundedCache;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.impl.SoftReferenceCache;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.impl.StrongReferenceCache;
+import com.inspiresoftware.lib.dto.geda.dsl.DtoContext;
+import com.inspiresoftware.lib.dto.geda.dsl.DtoEntityContext;
 import com.inspiresoftware.lib.dto.geda.dsl.Registry;
 import com.inspiresoftware.lib.dto.geda.exception.AnnotationDuplicateBindingException;
 import com.inspiresoftware.lib.dto.geda.exception.AnnotationMissingAutobindingException;
@@ -62,13 +80,57 @@ public final class DTOAssembler {
 	private static Pattern entityClassNameBlacklistPatternValue = Pattern
 			.compile(SETTING_ENTITY_CLASS_NAME_BLACKLIST_PATTERN_DEFAULT);
 
-	private static final WeakHashMap<ClassLoader, Cache<Assembler>> CL_CACHE = new WeakHashMap<ClassLoader, Cache<Assembler>>();
+	/**
+	 * String that defines key for assembler cache implementation to use (since 3.1.0). Value is implementation
+	 * optionally followed by its configurations, e.g. "lru;maxSize=500". Implementations are:
+	 * <ul>
+	 * <li>soft - soft references, collected under heap pressure (default), supports hotCoreSize</li>
+	 * <li>strong - strong references, never evicted</li>
+	 * <li>lru, lfu - strong references bounded by maxSize (see {@link BoundedCache})</li>
+	 * <li>full class name of {@link Cache} implementation with default constructor</li>
+	 * </ul>
+	 */
+	public static final String SETTING_ASSEMBLER_CACHE_IMPL = "com.inspiresoftware.lib.dto.geda.assembler.DTOAssembler.SETTING_ASSEMBLER_CACHE_IMPL";
+	private static final String SETTING_ASSEMBLER_CACHE_IMPL_DEFAULT = "soft";
+
+	/**
+	 * String that defines key for listener notified when bounded assembler cache evicts an assembler (since 3.1.0).
+	 * Value is either {@link CacheEvictionListener} instance (put into properties as object) or its class name.
+	 */
+	public static final String SETTING_ASSEMBLER_CACHE_EVICTION_LISTENER = "com.inspiresoftware.lib.dto.geda.assembler.DTOAssembler.SETTING_ASSEMBLER_CACHE_EVICTION_LISTENER";
+
+	/*
+	 * Assembler cache configuration, guarded by CL_CACHE.
+	 */
+	private static String assemblerCacheImpl = SETTING_ASSEMBLER_CACHE_IMPL_DEFAULT;
+	private static Object assemblerCacheEvictionListener;
+
+	/*
+	 * Synthesizer implementation for class loaders seen after setup, guarded by CL_CACHE (null for default).
+	 */
+	private static String synthesizerImplSetting;
+
+	private static final WeakHashMap<ClassLoader, Cache<AssemblerCacheKey, Assembler>> CL_CACHE = new WeakHashMap<ClassLoader, Cache<AssemblerCacheKey, Assembler>>();
+
+	/*
+	 * Lock free copy of CL_CACHE for cache hits. Replaced (under CL_CACHE lock) whenever CL_CACHE changes.
+	 */
+	private static volatile LoaderCache[] clCacheView = new LoaderCache[0];
 
 	private static final WeakHashMap<ClassLoader, MethodSynthesizer> CL_SYNTHESIZER = new WeakHashMap<ClassLoader, MethodSynthesizer>();
 
-	private static final IntHashTable<Boolean> WHITELIST_ENTITIES = new IntHashTable<Boolean>();
+	/*
+	 * Assemblers under construction. Only one thread constructs an assembler for given key, others wait for it.
+	 * CL_CACHE, CL_SYNTHESIZER and CL_IN_FLIGHT are guarded by CL_CACHE.
+	 */
+	private static final WeakHashMap<ClassLoader, ConcurrentMap<AssemblerCacheKey, FutureTask<Assembler>>> CL_IN_FLIGHT = new WeakHashMap<ClassLoader, ConcurrentMap<AssemblerCacheKey, FutureTask<Assembler>>>();
+
+	/*
+	 * Both are read and populated concurrently by assemblers built in parallel (see preload).
+	 */
+	private static final ConcurrentMap<Class, Boolean> WHITELIST_ENTITIES = new ConcurrentHashMap<Class, Boolean>();
 
-	private static final IntHashTable<Class[]> AUTOBINDING = new IntHashTable<Class[]>();
+	private static final ConcurrentMap<Class, Class[]> AUTOBINDING = new ConcurrentHashMap<Class, Class[]>();
 
 	/**
 	 * Setup allows to configure some of the behaviour of GeDA. Currently it is used to tune the caching cleanup cycles.
@@ -80,6 +142,9 @@ public final class DTOAssembler {
 	 * {@link com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter}s</li>
 	 * </ul>
 	 *
+	 * Changing assembler cache implementation (or its eviction listener) releases all cached assemblers together
+	 * with default synthesizers they share, hence it should be done on start up.
+	 *
 	 * @param props
 	 *            properties with key specified by DTOAssembler.SETTINGS_* keys
 	 *
@@ -92,25 +157,80 @@ public final class DTOAssembler {
 		final String synthesizerImpl = props.getProperty(SETTING_SYNTHESIZER_IMPL);
 		final String classNameBlacklistPattern = props.getProperty(SETTING_ENTITY_CLASS_NAME_BLACKLIST_PATTERN);
 		if (synthesizerImpl != null) {
-			for (final MethodSynthesizer synthesizer : CL_SYNTHESIZER.values()) {
-				synthesizer.configure("synthesizerImpl", synthesizerImpl);
+			synchronized (CL_CACHE) {
+				synthesizerImplSetting = synthesizerImpl;
+				for (final MethodSynthesizer synthesizer : CL_SYNTHESIZER.values()) {
+					synthesizer.configure("synthesizerImpl", synthesizerImpl);
+				}
 			}
 		}
 		if (classNameBlacklistPattern != null) {
 			entityClassNameBlacklistPatternValue = Pattern.compile(classNameBlacklistPattern);
 		}
+		final String cacheImpl = props.getProperty(SETTING_ASSEMBLER_CACHE_IMPL);
+		final Object cacheEvictionListener = props.get(SETTING_ASSEMBLER_CACHE_EVICTION_LISTENER);
+		if (cacheImpl != null || cacheEvictionListener != null) {
+			final List<DisposableContainer> dropped = new ArrayList<DisposableContainer>();
+			synchronized (CL_CACHE) {
+				final String impl = cacheImpl != null ? cacheImpl : assemblerCacheImpl;
+				final Object listener = cacheEvictionListener != null ? cacheEvictionListener
+						: assemblerCacheEvictionListener;
+				newAssemblerCache(impl, listener); // fail fast on invalid configuration
+				assemblerCacheImpl = impl;
+				assemblerCacheEvictionListener = listener;
+				// releasing assemblers releases their synthesizer, so default synthesizers are dropped as well
+				dropped.addAll(CL_CACHE.values());
+				dropped.addAll(CL_SYNTHESIZER.values());
+				CL_CACHE.clear();
+				CL_SYNTHESIZER.clear();
+				refreshCacheView();
+			}
+			for (final DisposableContainer container : dropped) {
+				container.releaseResources();
+			}
+		}
+	}
+
+	private static Cache<AssemblerCacheKey, Assembler> newAssemblerCache(final String impl, final Object listener)
+			throws GeDAException {
+		final String[] config = impl.split(";");
+		final String name = config[0].trim();
+		final Cache<AssemblerCacheKey, Assembler> cache;
+		if ("soft".equals(name)) {
+			cache = new SoftReferenceCache<AssemblerCacheKey, Assembler>();
+		} else if ("strong".equals(name)) {
+			cache = new StrongReferenceCache<AssemblerCacheKey, Assembler>();
+		} else if (BoundedCache.LRU.equals(name) || BoundedCache.LFU.equals(name)) {
+			cache = new BoundedCache<AssemblerCacheKey, Assembler>();
+			cache.configure("policy", name);
+		} else {
+			try {
+				cache = (Cache<AssemblerCacheKey, Assembler>) Class.forName(name).newInstance();
+			} catch (Exception exp) {
+				throw new UnableToCreateInstanceException(name, "Unable to create assembler cache: " + name, exp);
+			}
+		}
+		for (int i = 1; i < config.length; i++) {
+			final int eq = config[i].indexOf('=');
+			if (eq <= 0 || !cache.configure(config[i].substring(0, eq).trim(), config[i].substring(eq + 1).trim())) {
+				throw new GeDARuntimeException("Invalid assembler cache configuration: " + config[i] + " in " + impl);
+			}
+		}
+		if (listener != null && !cache.configure("evictionListener", listener)) {
+			throw new GeDARuntimeException("Assembler cache " + name + " does not support eviction listener");
+		}
+		return cache;
 	}
 
 	private static Class filterBlacklisted(final Class className) {
-		final int hash = className.hashCode();
-		if (!WHITELIST_ENTITIES.containsKey(hash)) {
+		if (!WHITELIST_ENTITIES.containsKey(className)) {
 			if (matches(className.getSimpleName())) {
 				if (!className.getSuperclass().equals(Object.class)) {
 					// some proxies are derived straight from Object.class - we do not want those
 					return filterBlacklisted(className.getSuperclass());
 				}
 			} else {
-				WHITELIST_ENTITIES.put(hash, Boolean.TRUE);
+				WHITELIST_ENTITIES.put(className, Boolean.TRUE);
 			}
 		}
 		return className;
@@ -128,23 +248,106 @@ public final class DTOAssembler {
 		return match.find();
 	}
 
-	private static Assembler getAssemblerFromCache(final ClassLoader cl, final int cacheKey) {
-		if (CL_CACHE.containsKey(cl)) {
-			return CL_CACHE.get(cl).get(cacheKey);
+	private static Assembler getAssemblerFromCache(final ClassLoader cl, final AssemblerCacheKey cacheKey) {
+		for (final LoaderCache entry : clCacheView) {
+			if (entry.isFor(cl)) {
+				return entry.cache.get(cacheKey);
+			}
 		}
 		return null;
 	}
 
-	private static Assembler putAssemblerToCache(final ClassLoader cl, final int cacheKey, final Assembler asm) {
-		Cache<Assembler> cache = CL_CACHE.get(cl);
-		if (cache == null) {
-			cache = new SoftReferenceCache<Assembler>();
-			CL_CACHE.put(cl, cache);
+	private static Assembler putAssemblerToCache(final ClassLoader cl, final AssemblerCacheKey cacheKey,
+			final Assembler asm) {
+		Cache<AssemblerCacheKey, Assembler> cache;
+		synchronized (CL_CACHE) {
+			cache = CL_CACHE.get(cl);
+			if (cache == null) {
+				cache = newAssemblerCache(assemblerCacheImpl, assemblerCacheEvictionListener);
+				CL_CACHE.put(cl, cache);
+				refreshCacheView();
+			}
 		}
-		cache.put(cacheKey, asm);
+		cache.put(cacheKey.weak(), asm);
 		return asm;
 	}
 
+	private static Assembler buildAssembler(final ClassLoader classLoader, final AssemblerCacheKey key,
+			final Class<?> dto, final Class<?> entity, final Object synthesizer, final Registry registry) {
+		return buildAssembler(classLoader, key, new Callable<Assembler>() {
+			@Override
+			public Assembler call() {
+				return createNewAssembler(dto, entity, classLoader, synthesizer, registry);
+			}
+		});
+	}
+
+	private static Assembler buildAssembler(final ClassLoader classLoader, final AssemblerCacheKey key,
+			final Class<?> dto, final Class<?>[] entities, final Object synthesizer, final Registry registry) {
+		return buildAssembler(classLoader, key, new Callable<Assembler>() {
+			@Override
+			public Assembler call() {
+				return createNewAssembler(dto, entities, classLoader, synthesizer, registry);
+			}
+		});
+	}
+
+	/*
+	 * Constructs assembler and puts it to cache, unless other thread is already constructing assembler for the same
+	 * key, in which case waits for its result.
+	 */
+	private static Assembler buildAssembler(final ClassLoader classLoader, final AssemblerCacheKey key,
+			final Callable<Assembler> construction) {
+
+		ConcurrentMap<AssemblerCacheKey, FutureTask<Assembler>> inFlight;
+		synchronized (CL_CACHE) {
+			inFlight = CL_IN_FLIGHT.get(classLoader);
+			if (inFlight == null) {
+				inFlight = new ConcurrentHashMap<AssemblerCacheKey, FutureTask<Assembler>>();
+				CL_IN_FLIGHT.put(classLoader, inFlight);
+			}
+		}
+
+		FutureTask<Assembler> task = inFlight.get(key);
+		if (task == null) {
+			final FutureTask<Assembler> newTask = new FutureTask<Assembler>(new Callable<Assembler>() {
+				@Override
+				public Assembler call() throws Exception {
+					// other thread could have finished between cache miss and registration of this task
+					final Assembler asm = getAssemblerFromCache(classLoader, key);
+					if (asm != null) {
+						return asm;
+					}
+					return putAssemblerToCache(classLoader, key, construction.call());
+				}
+			});
+			task = inFlight.putIfAbsent(key, newTask);
+			if (task == null) {
+				task = newTask;
+				try {
+					newTask.run();
+				} finally {
+					inFlight.remove(key, newTask);
+				}
+			}
+		}
+
+		try {
+			return task.get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new GeDARuntimeException("Interrupted while waiting for assembler construction", ie);
+		} catch (ExecutionException ee) {
+			final Throwable cause = ee.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause; // GeDA exceptions are runtime exceptions
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new GeDARuntimeException("Unable to construct assembler", cause);
+		}
+	}
+
 	private static Assembler createNewAssembler(final Class<?> dto, final Class<?> entity,
 			final ClassLoader classLoader, final Object synthesizer, final Registry registry)
 					throws InspectionScanningException, UnableToCreateInstanceException, InspectionPropertyNotFoundException,
@@ -194,9 +397,9 @@ public final class DTOAssembler {
 	}
 
 	private static Class[] detectAutobinding(final Class<?> dto) throws AutobindingClassNotFoundException {
-		final int cacheKey = dto.hashCode();
-		if (AUTOBINDING.containsKey(cacheKey)) {
-			return AUTOBINDING.get(cacheKey);
+		final Class[] cached = AUTOBINDING.get(dto);
+		if (cached != null) {
+			return cached;
 		}
 		final AnnotationProxy ann = getDtoAnnotationAuto(dto);
 		final String[] auto = ann.getValue("value");
@@ -212,42 +415,34 @@ public final class DTOAssembler {
 				throw new AutobindingClassNotFoundException(dto.getCanonicalName(), clazz);
 			}
 		}
-		AUTOBINDING.put(cacheKey, classes);
+		AUTOBINDING.putIfAbsent(dto, classes);
 		return classes;
 	}
 
-	private static MethodSynthesizer getDefaultSynthesizer(final ClassLoader classLoader) {
-		MethodSynthesizer syn = CL_SYNTHESIZER.get(classLoader);
-		if (syn == null) {
-			syn = new MethodSynthesizerProxy(classLoader);
-			CL_SYNTHESIZER.put(classLoader, syn);
+	private static MethodSynthesizer getDefaultSynthesizer(final ClassLoader classLoader)
+			throws UnableToCreateInstanceException {
+		synchronized (CL_CACHE) {
+			MethodSynthesizer syn = CL_SYNTHESIZER.get(classLoader);
+			if (syn == null) {
+				if (synthesizerImplSetting != null) {
+					syn = new MethodSynthesizerProxy(classLoader, synthesizerImplSetting);
+				} else {
+					syn = new MethodSynthesizerProxy(classLoader);
+				}
+				CL_SYNTHESIZER.put(classLoader, syn);
+			}
+			return syn;
 		}
-		return syn;
 	}
 
-	private static <DTO, Entity> int createAssemblerKey(final Class<DTO> dto, final Class<Entity> entity,
+	private static AssemblerCacheKey createAssemblerKey(final Class<?> dto, final Class<?> entity,
 			final Object synthesizer, final Registry registry) {
-		int result = dto.hashCode();
-		result = 31 * result + entity.hashCode();
-		result = 31 * result + synthesizer.hashCode();
-		if (registry != null) {
-			result = 31 * result + registry.hashCode();
-		}
-		return result;
+		return new AssemblerCacheKey(dto, new Class[] { entity }, synthesizer, registry);
 	}
 
-	private static <DTO, Entity> int createAssemblerKey(final Class<DTO> dto, final Class<Entity>[] entities,
+	private static AssemblerCacheKey createAssemblerKey(final Class<?> dto, final Class<?>[] entities,
 			final Object synthesizer, final Registry registry) {
-
-		int result = dto.hashCode();
-		for (final Class entity : entities) {
-			result = 31 * result + entity.hashCode();
-		}
-		result = 31 * result + synthesizer.hashCode();
-		if (registry != null) {
-			result = 31 * result + registry.hashCode();
-		}
-		return result;
+		return new AssemblerCacheKey(dto, entities, synthesizer, registry);
 	}
 
 	/**
@@ -337,7 +532,7 @@ public final class DTOAssembler {
 			AnnotationValidatingBindingException, GeDARuntimeException, AnnotationDuplicateBindingException {
 
 		final Class<?> realEntity = filterBlacklisted(entity);
-		final int key = createAssemblerKey(dto, realEntity, synthesizer, null);
+		final AssemblerCacheKey key = createAssemblerKey(dto, realEntity, synthesizer, null);
 
 		final Assembler asm = getAssemblerFromCache(classLoader, key);
 		if (asm != null) {
@@ -346,8 +541,7 @@ public final class DTOAssembler {
 
 		getDtoAnnotation(dto);
 
-		return putAssemblerToCache(classLoader, key,
-				createNewAssembler(dto, realEntity, classLoader, synthesizer, null));
+		return buildAssembler(classLoader, key, dto, realEntity, synthesizer, null);
 	}
 
 	/**
@@ -437,7 +631,7 @@ public final class DTOAssembler {
 					AnnotationValidatingBindingException, GeDARuntimeException, AnnotationDuplicateBindingException {
 
 		final Class<?> realEntity = filterBlacklisted(entity);
-		final int key = createAssemblerKey(dto, realEntity, synthesizer, registry);
+		final AssemblerCacheKey key = createAssemblerKey(dto, realEntity, synthesizer, registry);
 
 		final Assembler asm = getAssemblerFromCache(classLoader, key);
 		if (asm != null) {
@@ -448,8 +642,7 @@ public final class DTOAssembler {
 			throw new GeDARuntimeException("Registry cannot be null");
 		}
 
-		return putAssemblerToCache(classLoader, key,
-				createNewAssembler(dto, realEntity, classLoader, synthesizer, registry));
+		return buildAssembler(classLoader, key, dto, realEntity, synthesizer, registry);
 	}
 
 	/**
@@ -538,9 +731,16 @@ public final class DTOAssembler {
 			InspectionBindingNotFoundException, AnnotationMissingBindingException,
 			AnnotationValidatingBindingException, GeDARuntimeException, AnnotationDuplicateBindingException {
 
+		final AssemblerCacheKey key = createAssemblerKey(dto, entities, synthesizer, null);
+
+		final Assembler asm = getAssemblerFromCache(classLoader, key);
+		if (asm != null) {
+			return asm;
+		}
+
 		getDtoAnnotation(dto);
 
-		return createNewAssembler(dto, entities, classLoader, synthesizer, null);
+		return buildAssembler(classLoader, key, dto, entities, synthesizer, null);
 	}
 
 	/**
@@ -624,7 +824,7 @@ public final class DTOAssembler {
 
 		final Class<?> realEntity = filterBlacklisted(entity);
 		final MethodSynthesizer synthesizer = getDefaultSynthesizer(classLoader);
-		final int key = createAssemblerKey(dto, realEntity, synthesizer, null);
+		final AssemblerCacheKey key = createAssemblerKey(dto, realEntity, synthesizer, null);
 
 		final Assembler asm = getAssemblerFromCache(classLoader, key);
 		if (asm != null) {
@@ -633,8 +833,7 @@ public final class DTOAssembler {
 
 		getDtoAnnotation(dto);
 
-		return putAssemblerToCache(classLoader, key,
-				createNewAssembler(dto, realEntity, classLoader, synthesizer, null));
+		return buildAssembler(classLoader, key, dto, realEntity, synthesizer, null);
 	}
 
 	/**
@@ -718,7 +917,7 @@ public final class DTOAssembler {
 
 		final Class<?> realEntity = filterBlacklisted(entity);
 		final MethodSynthesizer synthesizer = getDefaultSynthesizer(classLoader);
-		final int key = createAssemblerKey(dto, realEntity, synthesizer, registry);
+		final AssemblerCacheKey key = createAssemblerKey(dto, realEntity, synthesizer, registry);
 
 		final Assembler asm = getAssemblerFromCache(classLoader, key);
 		if (asm != null) {
@@ -729,8 +928,7 @@ public final class DTOAssembler {
 			throw new GeDARuntimeException("Registry cannot be null");
 		}
 
-		return putAssemblerToCache(classLoader, key,
-				createNewAssembler(dto, realEntity, classLoader, synthesizer, registry));
+		return buildAssembler(classLoader, key, dto, realEntity, synthesizer, registry);
 	}
 
 	/**
@@ -814,7 +1012,7 @@ public final class DTOAssembler {
 			AnnotationValidatingBindingException, GeDARuntimeException, AnnotationDuplicateBindingException {
 
 		final MethodSynthesizer synthesizer = getDefaultSynthesizer(classLoader);
-		final int key = createAssemblerKey(dto, entities[0], synthesizer, null);
+		final AssemblerCacheKey key = createAssemblerKey(dto, entities, synthesizer, null);
 
 		final Assembler asm = getAssemblerFromCache(classLoader, key);
 		if (asm != null) {
@@ -823,7 +1021,7 @@ public final class DTOAssembler {
 
 		getDtoAnnotation(dto);
 
-		return putAssemblerToCache(classLoader, key, createNewAssembler(dto, entities, classLoader, synthesizer, null));
+		return buildAssembler(classLoader, key, dto, entities, synthesizer, null);
 	}
 
 	/**
@@ -906,7 +1104,7 @@ public final class DTOAssembler {
 
 		final Class[] classes = detectAutobinding(dto);
 
-		final int key = createAssemblerKey(dto, classes, synthesizer, null);
+		final AssemblerCacheKey key = createAssemblerKey(dto, classes, synthesizer, null);
 
 		final Assembler asm = getAssemblerFromCache(classLoader, key);
 		if (asm != null) {
@@ -914,10 +1112,9 @@ public final class DTOAssembler {
 		}
 
 		if (classes.length == 1) {
-			return putAssemblerToCache(classLoader, key,
-					createNewAssembler(dto, classes[0], classLoader, synthesizer, null));
+			return buildAssembler(classLoader, key, dto, classes[0], synthesizer, null);
 		}
-		return putAssemblerToCache(classLoader, key, createNewAssembler(dto, classes, classLoader, synthesizer, null));
+		return buildAssembler(classLoader, key, dto, classes, synthesizer, null);
 
 	}
 
@@ -994,7 +1191,7 @@ public final class DTOAssembler {
 		final Class[] classes = detectAutobinding(dto);
 
 		final MethodSynthesizer synthesizer = getDefaultSynthesizer(classLoader);
-		final int key = createAssemblerKey(dto, classes, synthesizer, null);
+		final AssemblerCacheKey key = createAssemblerKey(dto, classes, synthesizer, null);
 
 		final Assembler asm = getAssemblerFromCache(classLoader, key);
 		if (asm != null) {
@@ -1002,11 +1199,231 @@ public final class DTOAssembler {
 		}
 
 		if (classes.length == 1) {
-			return putAssemblerToCache(classLoader, key,
-					createNewAssembler(dto, classes[0], classLoader, synthesizer, null));
+			return buildAssembler(classLoader, key, dto, classes[0], synthesizer, null);
 		}
 
-		return putAssemblerToCache(classLoader, key, createNewAssembler(dto, classes, classLoader, synthesizer, null));
+		return buildAssembler(classLoader, key, dto, classes, synthesizer, null);
+	}
+
+	/**
+	 * Use mapping snapshot for assemblers created from now on. Mapping metadata that is in the snapshot is taken from
+	 * it instead of introspecting DTO and entity classes, and metadata that is not is recorded to it. Typical use is
+	 * to load snapshot saved by previous run (or create empty one) at application start, and save it once all
+	 * assemblers are created.
+	 *
+	 * Snapshot should be put in use before the first assembler is created, since only then it saves introspection
+	 * for all of them. Classes inspected by assemblers created earlier are recorded to the snapshot by this method
+	 * (from the already computed metadata), so that saved snapshot is complete either way.
+	 *
+	 * @param snapshot
+	 *            snapshot to use (or null to stop using snapshot)
+	 *
+	 * @since 3.1.0
+	 */
+	public static void useMappingSnapshot(final MappingSnapshot snapshot) {
+		MappingSnapshot.setActive(snapshot);
+		if (snapshot != null) {
+			PropertyInspector.recordIndexed(snapshot);
+		}
+	}
+
+	/**
+	 * Eagerly create assemblers for given DTO classes (using auto binding as in {@link #newAssembler(Class)}) and all
+	 * nested assemblers (sub entities, collections and maps) reachable from them. Assemblers are created in parallel
+	 * in common fork/join pool, so that first conversion does not pay for assembler construction.
+	 *
+	 * @param dtos
+	 *            Dto concrete classes that are annotated and value attribute of Dto is supplied.
+	 * @param beanFactory
+	 *            bean factory for resolving nested DTO and entity bean keys (can be null, in which case nested
+	 *            assemblers that require bean keys are created on first use)
+	 *
+	 * @throws GeDAException
+	 *             first exception that occurred when creating assembler for one of given classes
+	 */
+	public static void preload(final Class<?>[] dtos, final BeanFactory beanFactory) throws GeDAException {
+
+		preload(dtos, beanFactory, DTOAssembler.class.getClassLoader(), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Eagerly create assemblers for given DTO classes (using auto binding as in {@link #newAssembler(Class)}) and all
+	 * nested assemblers (sub entities, collections and maps) reachable from them in parallel.
+	 *
+	 * @param dtos
+	 *            Dto concrete classes that are annotated and value attribute of Dto is supplied.
+	 * @param beanFactory
+	 *            bean factory for resolving nested DTO and entity bean keys (can be null, in which case nested
+	 *            assemblers that require bean keys are created on first use)
+	 * @param classLoader
+	 *            class loader for object graph serviced by assemblers
+	 * @param pool
+	 *            pool to create assemblers in
+	 *
+	 * @throws GeDAException
+	 *             first exception that occurred when creating assembler for one of given classes
+	 */
+	public static void preload(final Class<?>[] dtos, final BeanFactory beanFactory, final ClassLoader classLoader,
+			final ForkJoinPool pool) throws GeDAException {
+
+		final Set<Assembler> visited = AssemblerPreloadTask.newVisitedSet();
+		final List<AssemblerPreloadTask> tasks = new ArrayList<AssemblerPreloadTask>(dtos.length);
+		for (final Class<?> dto : dtos) {
+			tasks.add(new AssemblerPreloadTask(beanFactory, visited, false) {
+
+				private static final long serialVersionUID = 20131015L;
+
+				@Override
+				protected Assembler createAssembler() throws GeDAException {
+					return newAssembler(dto, classLoader);
+				}
+			});
+		}
+		invokePreload(tasks, pool);
+	}
+
+	/**
+	 * Eagerly create assemblers for given DTO and entity classes and all nested assemblers (sub entities, collections
+	 * and maps) reachable from them. Assemblers are created in parallel in common fork/join pool, so that first
+	 * conversion does not pay for assembler construction.
+	 *
+	 * @param dtoToEntities
+	 *            Dto concrete classes that are annotated mapped to entity classes they are converted to (an assembler
+	 *            is created for each pair)
+	 * @param beanFactory
+	 *            bean factory for resolving nested DTO and entity bean keys (can be null, in which case nested
+	 *            assemblers that require bean keys are created on first use)
+	 *
+	 * @throws GeDAException
+	 *             first exception that occurred when creating assembler for one of given pairs
+	 */
+	public static void preload(final Map<Class<?>, Class<?>[]> dtoToEntities, final BeanFactory beanFactory)
+			throws GeDAException {
+
+		preload(dtoToEntities, beanFactory, DTOAssembler.class.getClassLoader(), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Eagerly create assemblers for given DTO and entity classes and all nested assemblers (sub entities, collections
+	 * and maps) reachable from them in parallel.
+	 *
+	 * @param dtoToEntities
+	 *            Dto concrete classes that are annotated mapped to entity classes they are converted to (an assembler
+	 *            is created for each pair)
+	 * @param beanFactory
+	 *            bean factory for resolving nested DTO and entity bean keys (can be null, in which case nested
+	 *            assemblers that require bean keys are created on first use)
+	 * @param classLoader
+	 *            class loader for object graph serviced by assemblers
+	 * @param pool
+	 *            pool to create assemblers in
+	 *
+	 * @throws GeDAException
+	 *             first exception that occurred when creating assembler for one of given pairs
+	 */
+	public static void preload(final Map<Class<?>, Class<?>[]> dtoToEntities, final BeanFactory beanFactory,
+			final ClassLoader classLoader, final ForkJoinPool pool) throws GeDAException {
+
+		final Set<Assembler> visited = AssemblerPreloadTask.newVisitedSet();
+		final List<AssemblerPreloadTask> tasks = new ArrayList<AssemblerPreloadTask>();
+		for (final Map.Entry<Class<?>, Class<?>[]> entry : dtoToEntities.entrySet()) {
+			final Class<?> dto = entry.getKey();
+			for (final Class<?> entity : entry.getValue()) {
+				tasks.add(new AssemblerPreloadTask(beanFactory, visited, false) {
+
+					private static final long serialVersionUID = 20131015L;
+
+					@Override
+					protected Assembler createAssembler() throws GeDAException {
+						return newAssembler(dto, entity, classLoader);
+					}
+				});
+			}
+		}
+		invokePreload(tasks, pool);
+	}
+
+	/**
+	 * Eagerly create assemblers for all DTO to entity mappings in DSL registry and all nested assemblers (sub
+	 * entities, collections and maps) reachable from them. Assemblers are created in parallel in common fork/join
+	 * pool, so that first conversion does not pay for assembler construction. Generic mappings (not restricted to
+	 * entity class) are skipped, since their assemblers depend on actual entity class.
+	 *
+	 * @param registry
+	 *            DSL registry that contains all mappings
+	 * @param beanFactory
+	 *            bean factory for resolving nested DTO and entity bean keys (if null and registry is a bean factory,
+	 *            registry is used)
+	 *
+	 * @throws GeDAException
+	 *             first exception that occurred when creating assembler for one of the mappings
+	 */
+	public static void preload(final Registry registry, final BeanFactory beanFactory) throws GeDAException {
+
+		preload(registry, beanFactory, DTOAssembler.class.getClassLoader(), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Eagerly create assemblers for all DTO to entity mappings in DSL registry and all nested assemblers (sub
+	 * entities, collections and maps) reachable from them in parallel. Generic mappings (not restricted to entity
+	 * class) are skipped, since their assemblers depend on actual entity class.
+	 *
+	 * @param registry
+	 *            DSL registry that contains all mappings
+	 * @param beanFactory
+	 *            bean factory for resolving nested DTO and entity bean keys (if null and registry is a bean factory,
+	 *            registry is used)
+	 * @param classLoader
+	 *            class loader for object graph serviced by assemblers
+	 * @param pool
+	 *            pool to create assemblers in
+	 *
+	 * @throws GeDAException
+	 *             first exception that occurred when creating assembler for one of the mappings
+	 */
+	public static void preload(final Registry registry, final BeanFactory beanFactory, final ClassLoader classLoader,
+			final ForkJoinPool pool) throws GeDAException {
+
+		final BeanFactory factory;
+		if (beanFactory == null && registry instanceof BeanFactory) {
+			factory = (BeanFactory) registry;
+		} else {
+			factory = beanFactory;
+		}
+
+		final Set<Assembler> visited = AssemblerPreloadTask.newVisitedSet();
+		final List<AssemblerPreloadTask> tasks = new ArrayList<AssemblerPreloadTask>();
+		for (final DtoContext dtoCtx : registry.getDtoContexts()) {
+			for (final DtoEntityContext entityCtx : dtoCtx.getEntityContexts()) {
+				final Class<?> dto = entityCtx.getDtoClass();
+				final Class<?> entity = entityCtx.getEntityClass();
+				if (Object.class.equals(entity)) {
+					continue;
+				}
+				tasks.add(new AssemblerPreloadTask(factory, visited, false) {
+
+					private static final long serialVersionUID = 20131015L;
+
+					@Override
+					protected Assembler createAssembler() throws GeDAException {
+						return newAssembler(dto, entity, classLoader, registry);
+					}
+				});
+			}
+		}
+		invokePreload(tasks, pool);
+	}
+
+	private static void invokePreload(final List<AssemblerPreloadTask> tasks, final ForkJoinPool pool) {
+		pool.invoke(new RecursiveAction() {
+
+			private static final long serialVersionUID = 20131015L;
+
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
 	}
 
 	/**
@@ -1020,12 +1437,53 @@ public final class DTOAssembler {
 	public static void disposeOfDtoAssemblersBy(final ClassLoader classLoader) {
 
 		if (classLoader != null) {
-			final Cache<Assembler> cache = CL_CACHE.get(classLoader);
+			final Cache<AssemblerCacheKey, Assembler> cache;
+			final MethodSynthesizer synthesizer;
+			synchronized (CL_CACHE) {
+				cache = CL_CACHE.remove(classLoader);
+				synthesizer = CL_SYNTHESIZER.remove(classLoader);
+				CL_IN_FLIGHT.remove(classLoader);
+				refreshCacheView();
+			}
 			if (cache != null) {
 				cache.releaseResources();
-				CL_CACHE.remove(classLoader);
 			}
+			if (synthesizer != null) {
+				synthesizer.releaseResources();
+			}
+		}
+	}
+
+	/*
+	 * Must be called under CL_CACHE lock after every change of CL_CACHE (iteration also drops collected loaders).
+	 */
+	private static void refreshCacheView() {
+		final List<LoaderCache> view = new ArrayList<LoaderCache>(CL_CACHE.size());
+		for (final Map.Entry<ClassLoader, Cache<AssemblerCacheKey, Assembler>> entry : CL_CACHE.entrySet()) {
+			view.add(new LoaderCache(entry.getKey(), entry.getValue()));
 		}
+		clCacheView = view.toArray(new LoaderCache[view.size()]);
+	}
+
+	/*
+	 * Immutable entry of lock free cache view. Class loader is weakly referenced, same as by CL_CACHE.
+	 */
+	private static final class LoaderCache {
+
+		private final WeakReference<ClassLoader> loader;
+		private final boolean bootstrap;
+		private final Cache<AssemblerCacheKey, Assembler> cache;
+
+		LoaderCache(final ClassLoader loader, final Cache<AssemblerCacheKey, Assembler> cache) {
+			this.loader = new WeakReference<ClassLoader>(loader);
+			this.bootstrap = loader == null;
+			this.cache = cache;
+		}
+
+		boolean isFor(final ClassLoader cl) {
+			return bootstrap ? cl == null : cl != null && loader.get() == cl;
+		}
+
 	}
 
 }
@@ -11,12 +11,14 @@
 package com.inspiresoftware.lib.dto.geda.assembler;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
+import com.inspiresoftware.lib.dto.geda.adapter.EntityTupleFactory;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
+import com.inspiresoftware.lib.dto.geda.dsl.Registries;
 import com.inspiresoftware.lib.dto.geda.dsl.Registry;
 import com.inspiresoftware.lib.dto.geda.exception.AnnotationDuplicateBindingException;
 import com.inspiresoftware.lib.dto.geda.exception.AnnotationMissingBeanKeyException;
@@ -50,12 +52,28 @@ import com.inspiresoftware.lib.dto.geda.exception.ValueConverterNotFoundExceptio
  *
  */
 @SuppressWarnings("unchecked")
-public class DTOtoEntitiesAssemblerDecoratorImpl implements Assembler {
+public class DTOtoEntitiesAssemblerDecoratorImpl implements BindableAssembler {
 
-	private final Map<Class, Assembler> composite = new HashMap<Class, Assembler>();
+	private final Map<Class, Assembler> composite = new LinkedHashMap<Class, Assembler>();
+
+	/*
+	 * Runtime class of entity to assembler of the first composite type it is assignable to (or NO_ASSEMBLER), so
+	 * that types are only matched once per runtime class rather than for every value. Composite normally sees a few
+	 * runtime classes (entity classes and their proxies), so table is a small immutable array replaced on every
+	 * addition and bounded by MAX_DISPATCH; classes beyond that are matched on every use.
+	 */
+	private volatile DispatchEntry[] dispatch = NO_DISPATCH;
+
+	private static final int MAX_DISPATCH = 16;
+
+	private static final DispatchEntry[] NO_DISPATCH = new DispatchEntry[0];
+
+	private static final Assembler NO_ASSEMBLER = new NoAssembler();
 
 	private final Class dtoClass;
 
+	private final Registry dslRegistry;
+
 	DTOtoEntitiesAssemblerDecoratorImpl(final Class dto, final Class[] entities, final ClassLoader classLoader,
 			final MethodSynthesizer synthesizer, final Registry registry) throws InspectionScanningException,
 			UnableToCreateInstanceException, InspectionPropertyNotFoundException, InspectionBindingNotFoundException,
@@ -63,6 +81,7 @@ public class DTOtoEntitiesAssemblerDecoratorImpl implements Assembler {
 			AnnotationDuplicateBindingException {
 
 		dtoClass = dto;
+		dslRegistry = registry;
 
 		for (final Class entity : entities) {
 
@@ -72,6 +91,52 @@ public class DTOtoEntitiesAssemblerDecoratorImpl implements Assembler {
 
 	}
 
+	/*
+	 * Assembler for the entity runtime class, resolved on first use of the class.
+	 */
+	private Assembler getAssembler(final Class entityClass) {
+		final DispatchEntry[] current = dispatch;
+		for (final DispatchEntry entry : current) {
+			if (entry.type == entityClass) {
+				return entry.assembler;
+			}
+		}
+		Assembler asm = NO_ASSEMBLER;
+		for (final Map.Entry<Class, Assembler> entry : composite.entrySet()) {
+			if (entry.getKey().isAssignableFrom(entityClass)) {
+				asm = entry.getValue();
+				break;
+			}
+		}
+		if (current.length < MAX_DISPATCH) {
+			addDispatch(entityClass, asm);
+		}
+		return asm;
+	}
+
+	private synchronized void addDispatch(final Class entityClass, final Assembler asm) {
+		final DispatchEntry[] current = dispatch;
+		if (current.length >= MAX_DISPATCH) {
+			return;
+		}
+		for (final DispatchEntry entry : current) {
+			if (entry.type == entityClass) {
+				return; // another thread got here first
+			}
+		}
+		final DispatchEntry[] updated = new DispatchEntry[current.length + 1];
+		System.arraycopy(current, 0, updated, 0, current.length);
+		updated[current.length] = new DispatchEntry(entityClass, asm);
+		dispatch = updated;
+	}
+
+	/**
+	 * @return assemblers for each entity of this composite
+	 */
+	Collection<Assembler> getAssemblers() {
+		return composite.values();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void assembleDto(final Object dto, final Object entity, final Map<String, Object> converters,
@@ -83,23 +148,14 @@ public class DTOtoEntitiesAssemblerDecoratorImpl implements Assembler {
 			InspectionPropertyNotFoundException, InspectionBindingNotFoundException, AnnotationMissingBindingException,
 			AnnotationValidatingBindingException, GeDARuntimeException, AnnotationDuplicateBindingException {
 
-		final Object[] values;
 		if (entity instanceof Object[]) {
-			values = (Object[]) entity;
-		} else {
-			values = new Object[] { entity };
-		}
-
-		for (final Object value : values) {
-			if (value != null) {
-				for (final Class type : composite.keySet()) {
-					if (type.isAssignableFrom(value.getClass())) {
-						final Assembler asm = composite.get(type);
-						asm.assembleDto(dto, value, converters, dtoBeanFactory);
-						break;
-					}
+			for (final Object value : (Object[]) entity) {
+				if (value != null) {
+					getAssembler(value.getClass()).assembleDto(dto, value, converters, dtoBeanFactory);
 				}
 			}
+		} else if (entity != null) {
+			getAssembler(entity.getClass()).assembleDto(dto, entity, converters, dtoBeanFactory);
 		}
 
 	}
@@ -117,10 +173,11 @@ public class DTOtoEntitiesAssemblerDecoratorImpl implements Assembler {
 
 		if (dtos instanceof Collection && dtos.isEmpty() && entities instanceof Collection) {
 
+			final BeanFactory beanFactory = resolveBeanFactory(dtoBeanFactory);
 			for (Object entity : entities) {
 				try {
 					final Object dto = dtoClass.newInstance();
-					assembleDto(dto, entity, converters, dtoBeanFactory);
+					assembleDto(dto, entity, converters, beanFactory);
 					dtos.add(dto);
 				} catch (InstantiationException exp) {
 					throw new UnableToCreateInstanceException(dtoClass.getCanonicalName(),
@@ -149,23 +206,14 @@ public class DTOtoEntitiesAssemblerDecoratorImpl implements Assembler {
 			AnnotationMissingBindingException, AnnotationValidatingBindingException, GeDARuntimeException,
 			AnnotationDuplicateBindingException, DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
 
-		final Object[] values;
 		if (entity instanceof Object[]) {
-			values = (Object[]) entity;
-		} else {
-			values = new Object[] { entity };
-		}
-
-		for (final Object value : values) {
-			if (value != null) {
-				for (final Class type : composite.keySet()) {
-					if (type.isAssignableFrom(value.getClass())) {
-						final Assembler asm = composite.get(type);
-						asm.assembleEntity(dto, value, converters, entityBeanFactory);
-						break;
-					}
+			for (final Object value : (Object[]) entity) {
+				if (value != null) {
+					getAssembler(value.getClass()).assembleEntity(dto, value, converters, entityBeanFactory);
 				}
 			}
+		} else if (entity != null) {
+			getAssembler(entity.getClass()).assembleEntity(dto, entity, converters, entityBeanFactory);
 		}
 
 	}
@@ -183,14 +231,86 @@ public class DTOtoEntitiesAssemblerDecoratorImpl implements Assembler {
 					AnnotationMissingBindingException, AnnotationValidatingBindingException, GeDARuntimeException,
 					AnnotationDuplicateBindingException, DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
 
-		throw new UnsupportedOperationException(
-				"Unsupported conversion of collection of composite DTO's to collection of entities");
+		assembleEntities(dtos, entities, new EntityTupleFactory() {
+			@Override
+			public Object[] newEntityTuple(final Object dto) {
+				final Object[] tuple = new Object[composite.size()];
+				int i = 0;
+				for (final Class entityClass : composite.keySet()) {
+					try {
+						tuple[i++] = entityClass.newInstance();
+					} catch (Exception exp) {
+						throw new UnableToCreateInstanceException(entityClass.getCanonicalName(),
+								"Unable to create entity instance for: " + dtoClass.getName()
+										+ " (use EntityTupleFactory for interfaces and abstract classes)", exp);
+					}
+				}
+				return tuple;
+			}
+		}, converters, entityBeanFactory);
+	}
+
+	/**
+	 * Assembles entity tuples from composite DTO's. For each DTO tuple factory creates entities that are then
+	 * assembled by assemblers of this composite and added to entities as Object[]. Bean factory is resolved once for
+	 * the whole batch and assemblers are matched to entity types once per runtime class.
+	 *
+	 * @param dtos
+	 *            the non-null dtos collection to get data from
+	 * @param entities
+	 *            the non-null and empty entity collection to add tuples (Object[]) to
+	 * @param tupleFactory
+	 *            factory of entity tuples
+	 * @param converters
+	 *            the converters to be used during conversion
+	 * @param entityBeanFactory
+	 *            bean factory for creating new instances of nested domain objects
+	 *
+	 * @throws InvalidEntityCollectionException
+	 *             if entity collection is null or not empty
+	 * @throws GeDARuntimeException
+	 *             unhandled cases - this is (if GeDA was not tampered with) means library failure and should be
+	 *             reported
+	 *
+	 * @since 3.1.0
+	 */
+	public void assembleEntities(final Collection dtos, final Collection entities,
+			final EntityTupleFactory tupleFactory, final Map<String, Object> converters,
+			final BeanFactory entityBeanFactory) throws InvalidEntityCollectionException, GeDARuntimeException {
+
+		if (dtos instanceof Collection && entities instanceof Collection && entities.isEmpty()) {
+
+			final BeanFactory beanFactory = resolveBeanFactory(entityBeanFactory);
+			for (final Object dto : dtos) {
+				final Object[] tuple = tupleFactory.newEntityTuple(dto);
+				assembleEntity(dto, tuple, converters, beanFactory);
+				entities.add(tuple);
+			}
+
+		} else {
+			throw new InvalidEntityCollectionException();
+		}
+
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public AssemblySession bind(final Map<String, Object> converters, final BeanFactory beanFactory) {
+		return new BoundAssemblySession(this, converters, resolveBeanFactory(beanFactory));
+	}
+
+	private BeanFactory resolveBeanFactory(final BeanFactory beanFactory) {
+		if (beanFactory == null && dslRegistry != null) {
+			return Registries.beanFactory(dslRegistry);
+		}
+		return beanFactory;
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void releaseResources() {
 
+		dispatch = NO_DISPATCH;
 		final Iterator<Map.Entry<Class, Assembler>> it = composite.entrySet().iterator();
 		while (it.hasNext()) {
 			final Map.Entry<Class, Assembler> entry = it.next();
@@ -199,4 +319,61 @@ public class DTOtoEntitiesAssemblerDecoratorImpl implements Assembler {
 		}
 
 	}
+
+	/*
+	 * Immutable dispatch table entry.
+	 */
+	private static final class DispatchEntry {
+
+		private final Class type;
+		private final Assembler assembler;
+
+		DispatchEntry(final Class type, final Assembler assembler) {
+			this.type = type;
+			this.assembler = assembler;
+		}
+
+	}
+
+	/*
+	 * Assembler for entities that do not belong to this composite - ignores them.
+	 */
+	private static final class NoAssembler implements Assembler {
+
+		/** {@inheritDoc} */
+		@Override
+		public void assembleDto(final Object dto, final Object entity, final Map<String, Object> converters,
+				final BeanFactory dtoBeanFactory) {
+			// not part of composite
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void assembleDtos(final Collection dtos, final Collection entities,
+				final Map<String, Object> converters, final BeanFactory dtoBeanFactory) {
+			// not part of composite
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void assembleEntity(final Object dto, final Object entity, final Map<String, Object> converters,
+				final BeanFactory entityBeanFactory) {
+			// not part of composite
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void assembleEntities(final Collection dtos, final Collection entities,
+				final Map<String, Object> converters, final BeanFactory entityBeanFactory) {
+			// not part of composite
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void releaseResources() {
+			// nothing to release
+		}
+
+	}
+
 }
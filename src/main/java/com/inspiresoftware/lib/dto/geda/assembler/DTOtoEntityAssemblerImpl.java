@@ -15,15 +15,23 @@ import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.BatchMethodSynthesizer;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.Configurable;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataAssembler;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataAssemblerSynthesizer;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
 import com.inspiresoftware.lib.dto.geda.assembler.meta.CollectionPipeMetadata;
 import com.inspiresoftware.lib.dto.geda.assembler.meta.FieldPipeMetadata;
@@ -64,7 +72,9 @@ import com.inspiresoftware.lib.dto.geda.exception.ValueConverterNotFoundExceptio
  *
  */
 @SuppressWarnings("unchecked")
-public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerContext, Configurable {
+public final class DTOtoEntityAssemblerImpl implements BindableAssembler, AssemblerContext, Configurable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DTOtoEntityAssemblerImpl.class);
 
 	private static final MetadataChainBuilder ANNOTATIONS = new MetadataChainAnnotationBuilder();
 
@@ -83,6 +93,10 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 
 	private Pipe[] pipes;
 
+	private DataAssembler dataAssembler;
+	private Pipe[] dtoPipes;
+	private Pipe[] entityPipes;
+
 	DTOtoEntityAssemblerImpl(final Class dto, final Class entity, final ClassLoader classLoader,
 			final MethodSynthesizer synthesizer, final Registry registry) throws InspectionScanningException,
 			UnableToCreateInstanceException, InspectionPropertyNotFoundException, InspectionBindingNotFoundException,
@@ -110,6 +124,10 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 			metaBuilder = new MetadataChainDSLBuilder(registry, dtoClass, entityClass);
 		}
 
+		if (isBatchSynthesizer(synthesizer)) {
+			prepareSynthesizer((BatchMethodSynthesizer) synthesizer, metaBuilder);
+		}
+
 		Class dtoMap = dto;
 		final LinkedList pipes = new LinkedList();
 		while (dtoMap != null) { // when we reach Object.class this should be null
@@ -124,6 +142,172 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 
 		}
 		this.pipes = (Pipe[]) pipes.toArray(new Pipe[pipes.size()]);
+		this.dtoPipes = this.pipes;
+		this.entityPipes = this.pipes;
+
+		if (synthesizer instanceof DataAssemblerSynthesizer) {
+			synthesizeDataAssembler((DataAssemblerSynthesizer) synthesizer);
+		}
+
+	}
+
+	/**
+	 * @return all pipes of this assembler (including those replaced by synthesized data assembler)
+	 */
+	Pipe[] getPipes() {
+		return pipes;
+	}
+
+	/*
+	 * Proxy always implements batch interface, so ask it whether actual synthesizer does.
+	 */
+	private static boolean isBatchSynthesizer(final MethodSynthesizer synthesizer) {
+		if (synthesizer instanceof MethodSynthesizerProxy) {
+			return ((MethodSynthesizerProxy) synthesizer).supportsBatch();
+		}
+		return synthesizer instanceof BatchMethodSynthesizer;
+	}
+
+	/*
+	 * Collects DTO and entity properties that pipes will need readers and writers for, so that batch synthesizer
+	 * can generate all of them in one go. This is a best effort scan - any binding problems are reported when pipes
+	 * are built.
+	 */
+	private void prepareSynthesizer(final BatchMethodSynthesizer batchSynthesizer,
+			final MetadataChainBuilder metaBuilder) {
+
+		final boolean isMapOrListEntity = Map.class.isAssignableFrom(entityClass)
+				|| List.class.isAssignableFrom(entityClass);
+		final List<PropertyDescriptor> descriptors = new ArrayList<PropertyDescriptor>();
+
+		try {
+			final PropertyIndex entityProperties;
+			if (isMapOrListEntity) {
+				entityProperties = null;
+			} else {
+				entityProperties = PropertyInspector.getPropertyIndexForClass(entityClass);
+			}
+
+			Class dtoMap = dtoClass;
+			while (dtoMap != null) {
+
+				final PropertyIndex dtoProperties = PropertyInspector.getPropertyIndexForClass(dtoMap);
+				for (final Field dtoField : dtoMap.getDeclaredFields()) {
+					try {
+						final List<PipeMetadata> metas = metaBuilder.build(dtoField);
+						if (metas == null || metas.isEmpty()) {
+							continue;
+						}
+						descriptors.add(PropertyInspector.getDtoPropertyDescriptorForField(dtoMap, metas.get(0)
+								.getDtoFieldName(), dtoProperties));
+						if (!isMapOrListEntity) {
+							addEntityPath(dtoMap, metas, entityProperties, descriptors);
+						}
+					} catch (GeDAException geda) {
+						// will be reported when pipes are built
+					}
+				}
+
+				final Type type = dtoMap.getGenericSuperclass();
+				if (type != null) {
+					dtoMap = PropertyInspector.getClassForType(type);
+				} else {
+					dtoMap = null;
+				}
+			}
+
+			final PropertyDescriptor[] all = descriptors.toArray(new PropertyDescriptor[descriptors.size()]);
+			batchSynthesizer.prepare(all, all);
+
+		} catch (GeDAException geda) {
+			LOG.debug("Unable to prepare synthesizer for {} and {}: {}", new Object[] { dtoClass.getCanonicalName(),
+					entityClass.getCanonicalName(), geda.getMessage() });
+		}
+
+	}
+
+	private void addEntityPath(final Class dto, final List<PipeMetadata> metas,
+			final PropertyIndex entityProperties, final List<PropertyDescriptor> descriptors)
+					throws GeDAException {
+
+		PropertyIndex current = entityProperties;
+		Class currentEntity = entityClass;
+		for (int i = 0; i < metas.size(); i++) {
+			final PipeMetadata meta = metas.get(i);
+			if (meta.getEntityFieldName().startsWith("#this#")) {
+				return; // virtual field
+			}
+			final PropertyDescriptor descriptor = PropertyInspector.getEntityPropertyDescriptorForField(dto,
+					currentEntity, meta.getDtoFieldName(), meta.getEntityFieldName(), current);
+			descriptors.add(descriptor);
+			if (i + 1 < metas.size()) {
+				current = PropertyInspector.getPropertyIndexForClassReturnedByGet(descriptor);
+				currentEntity = descriptor.getPropertyType();
+			}
+		}
+	}
+
+	/*
+	 * Replaces all plain field pipes (and chains leading to them) with a single synthesized data assembler
+	 * that invokes getters and setters directly. All other pipes remain as is.
+	 */
+	private void synthesizeDataAssembler(final DataAssemblerSynthesizer assemblerSynthesizer) {
+
+		final List<PropertyDescriptor> dtoWrites = new ArrayList<PropertyDescriptor>();
+		final List<PropertyDescriptor[]> entityReads = new ArrayList<PropertyDescriptor[]>();
+		final List<Pipe> remainingDtoPipes = new ArrayList<Pipe>();
+
+		final List<PropertyDescriptor> dtoReads = new ArrayList<PropertyDescriptor>();
+		final List<PropertyDescriptor> entityWrites = new ArrayList<PropertyDescriptor>();
+		final List<Pipe> remainingEntityPipes = new ArrayList<Pipe>();
+
+		for (final Pipe pipe : pipes) {
+
+			final List<PropertyDescriptor> path = new ArrayList<PropertyDescriptor>();
+			Pipe current = pipe;
+			while (current instanceof DataPipeChain && ((DataPipeChain) current).getEntityDescriptor() != null) {
+				path.add(((DataPipeChain) current).getEntityDescriptor());
+				current = ((DataPipeChain) current).getPipe();
+			}
+
+			if (current instanceof DataPipe && ((DataPipe) current).isDirectToDto()) {
+				final DataPipe dataPipe = (DataPipe) current;
+				path.add(dataPipe.getEntityDescriptor());
+				dtoWrites.add(dataPipe.getDtoDescriptor());
+				entityReads.add(path.toArray(new PropertyDescriptor[path.size()]));
+			} else {
+				remainingDtoPipes.add(pipe);
+			}
+
+			if (pipe instanceof DataPipe && ((DataPipe) pipe).isDirectToEntity()) {
+				final DataPipe dataPipe = (DataPipe) pipe;
+				dtoReads.add(dataPipe.getDtoDescriptor());
+				entityWrites.add(dataPipe.getEntityDescriptor());
+			} else {
+				remainingEntityPipes.add(pipe);
+			}
+
+		}
+
+		if (dtoWrites.isEmpty() && dtoReads.isEmpty()) {
+			return;
+		}
+
+		try {
+			final DataAssembler assembler = assemblerSynthesizer.synthesizeAssembler(dtoClass, entityClass,
+					dtoWrites.toArray(new PropertyDescriptor[dtoWrites.size()]),
+					entityReads.toArray(new PropertyDescriptor[entityReads.size()][]),
+					dtoReads.toArray(new PropertyDescriptor[dtoReads.size()]),
+					entityWrites.toArray(new PropertyDescriptor[entityWrites.size()]));
+			if (assembler != null) {
+				dataAssembler = assembler;
+				dtoPipes = remainingDtoPipes.toArray(new Pipe[remainingDtoPipes.size()]);
+				entityPipes = remainingEntityPipes.toArray(new Pipe[remainingEntityPipes.size()]);
+			}
+		} catch (GeDAException geda) {
+			LOG.warn("Unable to synthesize data assembler for {} and {}, using pipes instead: {}", new Object[] {
+					dtoClass.getCanonicalName(), entityClass.getCanonicalName(), geda.getMessage() });
+		}
 
 	}
 
@@ -135,12 +319,12 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 
 		final boolean isMapOrListEntity = Map.class.isAssignableFrom(entity) || List.class.isAssignableFrom(entity);
 
-		final PropertyDescriptor[] dtoPropertyDescriptors = PropertyInspector.getPropertyDescriptorsForClass(dto);
-		final PropertyDescriptor[] entityPropertyDescriptors;
+		final PropertyIndex dtoProperties = PropertyInspector.getPropertyIndexForClass(dto);
+		final PropertyIndex entityProperties;
 		if (isMapOrListEntity) {
-			entityPropertyDescriptors = null;
+			entityProperties = null;
 		} else {
-			entityPropertyDescriptors = PropertyInspector.getPropertyDescriptorsForClass(entity);
+			entityProperties = PropertyInspector.getPropertyIndexForClass(entity);
 		}
 
 		final Set<String> bindings = new TreeSet<String>();
@@ -152,8 +336,8 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 				continue;
 			}
 			try {
-				final Pipe pipe = createPipeChain(dtoClass, dtoPropertyDescriptors, entityClass,
-						entityPropertyDescriptors, dtoField, metas, 0, isMapOrListEntity);
+				final Pipe pipe = createPipeChain(dtoClass, dtoProperties, entityClass,
+						entityProperties, dtoField, metas, 0, isMapOrListEntity);
 				final String binding = pipe.getBinding();
 
 				if (bindings.contains(binding)) {
@@ -169,8 +353,8 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 		}
 	}
 
-	private Pipe createPipeChain(final Class dto, final PropertyDescriptor[] dtoPropertyDescriptors,
-			final Class entity, final PropertyDescriptor[] entityPropertyDescriptors, final Field dtoField,
+	private Pipe createPipeChain(final Class dto, final PropertyIndex dtoProperties,
+			final Class entity, final PropertyIndex entityProperties, final Field dtoField,
 			final List<PipeMetadata> metas, final int index, final boolean isMapOrListEntity)
 					throws InspectionPropertyNotFoundException, InspectionBindingNotFoundException,
 					InspectionScanningException, UnableToCreateInstanceException, AnnotationMissingBindingException,
@@ -184,20 +368,20 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 			if (meta instanceof FieldPipeMetadata) {
 				if (meta.getEntityFieldName().startsWith("#this#")) {
 					// create virtual field pipe
-					return VIRTUAL.build(this, dto, entity, dtoPropertyDescriptors, entityPropertyDescriptors,
+					return VIRTUAL.build(this, dto, entity, dtoProperties, entityProperties,
 							(FieldPipeMetadata) meta, null);
 				} else {
 					// create field pipe
-					return FIELD.build(this, dto, entity, dtoPropertyDescriptors, entityPropertyDescriptors,
+					return FIELD.build(this, dto, entity, dtoProperties, entityProperties,
 							(FieldPipeMetadata) meta, null);
 				}
 			} else if (meta instanceof CollectionPipeMetadata) {
 				// create collection
-				return COLLECTION.build(this, dto, entity, dtoPropertyDescriptors, entityPropertyDescriptors,
+				return COLLECTION.build(this, dto, entity, dtoProperties, entityProperties,
 						(CollectionPipeMetadata) meta, null);
 			} else if (meta instanceof MapPipeMetadata) {
 				// create map
-				return MAP.build(this, dto, entity, dtoPropertyDescriptors, entityPropertyDescriptors,
+				return MAP.build(this, dto, entity, dtoProperties, entityProperties,
 						(MapPipeMetadata) meta, null);
 			} else {
 				throw new GeDARuntimeException("Unknown pipe meta: " + meta.getClass());
@@ -205,19 +389,18 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 		}
 
 		final PropertyDescriptor nested = PropertyInspector.getEntityPropertyDescriptorForField(dto, entity,
-				meta.getDtoFieldName(), meta.getEntityFieldName(), entityPropertyDescriptors);
-		final PropertyDescriptor[] nestedEntityPropertyDescriptors = PropertyInspector
-				.getPropertyDescriptorsForClassReturnedByGet(nested);
+				meta.getDtoFieldName(), meta.getEntityFieldName(), entityProperties);
+		final PropertyIndex nestedEntityProperties = PropertyInspector.getPropertyIndexForClassReturnedByGet(nested);
 
 		// build a chain pipe
 		return CHAIN.build(
 				this,
 				dto,
 				entity,
-				dtoPropertyDescriptors,
-				entityPropertyDescriptors,
+				dtoProperties,
+				entityProperties,
 				meta,
-				createPipeChain(dto, dtoPropertyDescriptors, entity, nestedEntityPropertyDescriptors, dtoField, metas,
+				createPipeChain(dto, dtoProperties, entity, nestedEntityProperties, dtoField, metas,
 						index + 1, isMapOrListEntity));
 
 	}
@@ -260,8 +443,13 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 
 		validateDtoAndEntity(dto, entity);
 
-		for (Pipe pipe : pipes) {
-			pipe.writeFromEntityToDto(entity, dto, converters, resolveBeanFactory(dtoBeanFactory));
+		if (dataAssembler != null) {
+			dataAssembler.assembleDto(dto, entity);
+		}
+
+		final BeanFactory beanFactory = resolveBeanFactory(dtoBeanFactory);
+		for (Pipe pipe : dtoPipes) {
+			pipe.writeFromEntityToDto(entity, dto, converters, beanFactory);
 		}
 
 	}
@@ -314,8 +502,13 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 
 		validateDtoAndEntity(dto, entity);
 
-		for (Pipe pipe : pipes) {
-			pipe.writeFromDtoToEntity(entity, dto, converters, resolveBeanFactory(entityBeanFactory));
+		if (dataAssembler != null) {
+			dataAssembler.assembleEntity(dto, entity);
+		}
+
+		final BeanFactory beanFactory = resolveBeanFactory(entityBeanFactory);
+		for (Pipe pipe : entityPipes) {
+			pipe.writeFromDtoToEntity(entity, dto, converters, beanFactory);
 		}
 
 	}
@@ -336,10 +529,11 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 		if (dtos instanceof Collection && entities instanceof Collection && entities.isEmpty()) {
 
 			final BeanFactory beanFactory = resolveBeanFactory(entityBeanFactory);
+			final Map<String, Object> batchConverters = prefetchParents(dtos, converters, beanFactory);
 			for (Object dto : dtos) {
 				try {
 					final Object entity = entityClass.newInstance();
-					assembleEntity(dto, entity, converters, beanFactory);
+					assembleEntity(dto, entity, batchConverters, beanFactory);
 					entities.add(entity);
 				} catch (InstantiationException exp) {
 					throw new UnableToCreateInstanceException(dtoClass.getCanonicalName(),
@@ -356,6 +550,45 @@ public final class DTOtoEntityAssemblerImpl implements Assembler, AssemblerConte
 
 	}
 
+	/*
+	 * Parents of all DTO's are retrieved in one call per parent pipe if retrievers support batches. Converters are
+	 * only copied (to replace batch retrievers) if some pipe prefetches, otherwise they are used as they are.
+	 */
+	private Map<String, Object> prefetchParents(final Collection dtos, final Map<String, Object> converters,
+			final BeanFactory entityBeanFactory) {
+		if (converters == null || converters.isEmpty() || dtos.size() < 2) {
+			return converters; // no retrievers or nothing to batch
+		}
+		List<DataPipe> prefetching = null;
+		for (Pipe pipe : entityPipes) {
+			if (pipe instanceof DataPipe && ((DataPipe) pipe).isPrefetchingParents(converters, entityBeanFactory)) {
+				if (prefetching == null) {
+					prefetching = new ArrayList<DataPipe>();
+				}
+				prefetching.add((DataPipe) pipe);
+			}
+		}
+		if (prefetching == null) {
+			return converters; // no batch retrievers
+		}
+		for (Object dto : dtos) {
+			if (!dtoClass.isInstance(dto)) {
+				return converters; // will fail validation during assembly
+			}
+		}
+		final Map<String, Object> batchConverters = new HashMap<String, Object>(converters);
+		for (DataPipe pipe : prefetching) {
+			pipe.prefetchParents(dtos, batchConverters, entityBeanFactory);
+		}
+		return new BoundConverters(batchConverters);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public AssemblySession bind(final Map<String, Object> converters, final BeanFactory beanFactory) {
+		return new BoundAssemblySession(this, converters, resolveBeanFactory(beanFactory));
+	}
+
 	private void validateDtoAndEntity(final Object dto, final Object entity)
 			throws InspectionInvalidDtoInstanceException, InspectionInvalidEntityInstanceException {
 		if (!dtoClass.isInstance(dto)) {
@@ -10,15 +10,24 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler;
 
+import java.beans.PropertyDescriptor;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
+import com.inspiresoftware.lib.dto.geda.adapter.BatchEntityRetriever;
 import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
 import com.inspiresoftware.lib.dto.geda.adapter.EntityRetriever;
 import com.inspiresoftware.lib.dto.geda.adapter.ValueConverter;
 import com.inspiresoftware.lib.dto.geda.adapter.impl.ParentEntityValueConverter;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.PrimitiveDataReader;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.PrimitiveDataWriter;
 import com.inspiresoftware.lib.dto.geda.assembler.meta.FieldPipeMetadata;
 import com.inspiresoftware.lib.dto.geda.dsl.DtoEntityContext;
 import com.inspiresoftware.lib.dto.geda.exception.AnnotationDuplicateBindingException;
@@ -58,6 +67,7 @@ class DataPipe implements Pipe {
 	private final DataReader dtoParentKeyRead;
 
 	private final AssemblerContext context;
+	private final InlineAssemblerCache assemblers;
 
 	private final DataReader dtoRead;
 	private final DataWriter dtoWrite;
@@ -65,10 +75,21 @@ class DataPipe implements Pipe {
 	private final DataReader entityRead;
 	private final DataWriter entityWrite;
 
+	private final PropertyDescriptor dtoDescriptor;
+	private final PropertyDescriptor entityDescriptor;
+
 	private final boolean readOnly;
 	private final boolean usesConverter;
 	private final boolean hasSubEntity;
 
+	private final int converterSlot;
+	private final int retrieverSlot;
+
+	private final Class<?> primitiveToDto;
+	private final Class<?> primitiveToEntity;
+
+	private volatile ParentBeanClass parentBeanClass;
+
 	private static final Object NULL = null;
 
 	/**
@@ -84,6 +105,10 @@ class DataPipe implements Pipe {
 	 *            method for reading data from Entity field
 	 * @param entityWrite
 	 *            method for writing data to Entity field
+	 * @param dtoDescriptor
+	 *            DTO field descriptor
+	 * @param entityDescriptor
+	 *            Entity field descriptor (null if entity is not a bean, e.g. map or list)
 	 * @param meta
 	 *            meta data for this pipe.
 	 *
@@ -94,15 +119,21 @@ class DataPipe implements Pipe {
 	 */
 	public DataPipe(final AssemblerContext context, final DataReader dtoRead, final DataWriter dtoWrite,
 			final DataReader dtoParentKeyRead, final DataReader entityRead, final DataWriter entityWrite,
+			final PropertyDescriptor dtoDescriptor, final PropertyDescriptor entityDescriptor,
 			final FieldPipeMetadata meta) throws AnnotationMissingBindingException,
 			AnnotationValidatingBindingException {
 
 		this.meta = meta;
+		this.dtoDescriptor = dtoDescriptor;
+		this.entityDescriptor = entityDescriptor;
 
 		usesConverter = meta.getConverterKey() != null && meta.getConverterKey().length() > 0;
 		hasSubEntity = meta.getDtoBeanKey() != null && meta.getDtoBeanKey().length() > 0;
+		converterSlot = BoundConverters.slotOf(meta.getConverterKey());
+		retrieverSlot = BoundConverters.slotOf(meta.getEntityRetrieverKey());
 
 		this.context = context;
+		this.assemblers = new InlineAssemblerCache(context);
 
 		this.dtoWrite = dtoWrite;
 		this.entityRead = entityRead;
@@ -144,6 +175,53 @@ class DataPipe implements Pipe {
 
 		}
 
+		if (!usesConverter && !hasSubEntity && !this.meta.isChild()) {
+			primitiveToDto = getPrimitiveType(this.entityRead, this.dtoWrite);
+			primitiveToEntity = readOnly ? null : getPrimitiveType(this.dtoRead, this.entityWrite);
+		} else {
+			primitiveToDto = null;
+			primitiveToEntity = null;
+		}
+
+	}
+
+	/*
+	 * Primitive type if both reader and writer support primitive access of the same type, null otherwise.
+	 */
+	private static Class<?> getPrimitiveType(final DataReader reader, final DataWriter writer) {
+		if (reader instanceof PrimitiveDataReader && writer instanceof PrimitiveDataWriter) {
+			final Class<?> type = ((PrimitiveDataReader) reader).getPrimitiveType();
+			if (type != null && type.equals(((PrimitiveDataWriter) writer).getPrimitiveType())) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * Copies primitive value without boxing.
+	 */
+	private static void copyPrimitive(final Class<?> type, final Object source, final DataReader reader,
+			final Object target, final DataWriter writer) {
+		final PrimitiveDataReader read = (PrimitiveDataReader) reader;
+		final PrimitiveDataWriter write = (PrimitiveDataWriter) writer;
+		if (type == Integer.TYPE) {
+			write.writeInt(target, read.readInt(source));
+		} else if (type == Long.TYPE) {
+			write.writeLong(target, read.readLong(source));
+		} else if (type == Boolean.TYPE) {
+			write.writeBoolean(target, read.readBoolean(source));
+		} else if (type == Double.TYPE) {
+			write.writeDouble(target, read.readDouble(source));
+		} else if (type == Float.TYPE) {
+			write.writeFloat(target, read.readFloat(source));
+		} else if (type == Short.TYPE) {
+			write.writeShort(target, read.readShort(source));
+		} else if (type == Byte.TYPE) {
+			write.writeByte(target, read.readByte(source));
+		} else {
+			write.writeChar(target, read.readChar(source));
+		}
 	}
 
 	/** {@inheritDoc} */
@@ -152,6 +230,62 @@ class DataPipe implements Pipe {
 		return meta.getEntityFieldName();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Assembler preloadAssembler(final BeanFactory beanFactory) {
+		if (!hasSubEntity || beanFactory == null) {
+			return null;
+		}
+		final Class<?> dtoBeanClass = meta.newDtoBean(beanFactory).getClass();
+		final Class<?> entityBeanClass;
+		if (meta.getEntityBeanKey() != null && meta.getEntityBeanKey().length() > 0) {
+			entityBeanClass = meta.newEntityBean(beanFactory).getClass();
+		} else {
+			entityBeanClass = entityRead.getReturnType();
+			if (entityBeanClass.isInterface() || Modifier.isAbstract(entityBeanClass.getModifiers())) {
+				return null; // actual class is only known from data
+			}
+		}
+		return assemblers.get(dtoBeanClass, entityBeanClass);
+	}
+
+	/**
+	 * @return true if this pipe is a plain copy of same type value from entity getter to dto setter (i.e. no
+	 *         conversion, sub entities or parent look ups), hence it can be replaced by direct invocation.
+	 */
+	boolean isDirectToDto() {
+		return isDirect() && entityDescriptor.getReadMethod().getReturnType()
+				.equals(dtoDescriptor.getWriteMethod().getParameterTypes()[0]);
+	}
+
+	/**
+	 * @return true if this pipe is a plain copy of same type value from dto getter to entity setter (i.e. no
+	 *         conversion, sub entities or parent look ups), hence it can be replaced by direct invocation.
+	 */
+	boolean isDirectToEntity() {
+		return !readOnly && isDirect() && dtoDescriptor.getReadMethod().getReturnType()
+				.equals(entityDescriptor.getWriteMethod().getParameterTypes()[0]);
+	}
+
+	private boolean isDirect() {
+		return !usesConverter && !hasSubEntity && !meta.isChild() && dtoDescriptor != null
+				&& entityDescriptor != null;
+	}
+
+	/**
+	 * @return DTO field descriptor
+	 */
+	PropertyDescriptor getDtoDescriptor() {
+		return dtoDescriptor;
+	}
+
+	/**
+	 * @return Entity field descriptor (null if entity is not a bean)
+	 */
+	PropertyDescriptor getEntityDescriptor() {
+		return entityDescriptor;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void writeFromEntityToDto(final Object entity, final Object dto, final Map<String, Object> converters,
@@ -167,6 +301,11 @@ class DataPipe implements Pipe {
 			return;
 		}
 
+		if (primitiveToDto != null) {
+			copyPrimitive(primitiveToDto, entity, entityRead, dto, dtoWrite);
+			return;
+		}
+
 		final Object entityData = entityRead.read(entity);
 
 		if (entityData != null) {
@@ -205,7 +344,7 @@ class DataPipe implements Pipe {
 
 		final Object newDtoObject = meta.newDtoBean(dtoBeanFactory);
 
-		final Assembler assembler = context.newAssembler(newDtoObject.getClass(), entityData.getClass());
+		final Assembler assembler = assemblers.get(newDtoObject.getClass(), entityData.getClass());
 
 		assembler.assembleDto(newDtoObject, entityData, converters, dtoBeanFactory);
 
@@ -229,6 +368,11 @@ class DataPipe implements Pipe {
 			return;
 		}
 
+		if (primitiveToEntity != null) {
+			copyPrimitive(primitiveToEntity, dto, dtoRead, entity, entityWrite);
+			return;
+		}
+
 		final Object dtoData = dtoRead.read(dto);
 
 		if (meta.isChild()) {
@@ -288,7 +432,7 @@ class DataPipe implements Pipe {
 			entityWrite.write(parentEntity, dataEntity);
 		}
 
-		final Assembler assembler = context.newAssembler(dtoValue.getClass(), dataEntity.getClass());
+		final Assembler assembler = assemblers.get(dtoValue.getClass(), dataEntity.getClass());
 		Map<String, Object> parentConverter = new HashMap<String, Object>();
 		parentConverter.put(
 				String.format(DtoEntityContext.PARENT_FORMAT, parentEntity.getClass()
@@ -313,8 +457,7 @@ class DataPipe implements Pipe {
 						dtoData.getClass() + ":" + meta.getParentEntityPrimaryKeyField(), meta.getEntityBeanKey(),
 						false);
 			}
-			final Class<?> beanClass = meta.newEntityBean(entityBeanFactory).getClass(); // overhead but need to be
-																							// stateless!!!
+			final Class<?> beanClass = getParentBeanClass(entityBeanFactory);
 			final Object entityForPk = getRetriever(converters).retrieveByPrimaryKey(returnType, beanClass, primaryKey);
 			// if we did not find anything, setting null. Maybe need to throw exception here or maybe it is retriever's
 			// job?
@@ -322,14 +465,91 @@ class DataPipe implements Pipe {
 		}
 	}
 
+	/**
+	 * @param converters
+	 *            converters passed to assembler
+	 * @param entityBeanFactory
+	 *            bean factory
+	 * @return true if this pipe writes parent objects using {@link BatchEntityRetriever}, so that parents can be
+	 *         prefetched (see {@link #prefetchParents(Collection, Map, BeanFactory)})
+	 */
+	boolean isPrefetchingParents(final Map<String, Object> converters, final BeanFactory entityBeanFactory) {
+
+		if (readOnly || !meta.isChild() || entityBeanFactory == null || meta.getEntityBeanKey() == null) {
+			return false; // write parent object will fail or do nothing anyway
+		}
+
+		return converters.get(meta.getEntityRetrieverKey()) instanceof BatchEntityRetriever;
+	}
+
+	/**
+	 * Retrieves parents of all given DTO's in one call if this pipe writes parent objects using
+	 * {@link BatchEntityRetriever}. Batch retriever in given converters is replaced by
+	 * {@link PrefetchedEntityRetriever}, so that writing parent objects for these DTO's does not go to persistence
+	 * layer for every DTO.
+	 *
+	 * @param dtos
+	 *            DTO's that entities are assembled from (all instances of the assembler DTO class)
+	 * @param batchConverters
+	 *            converters of the batch (modifiable copy)
+	 * @param entityBeanFactory
+	 *            bean factory
+	 */
+	void prefetchParents(final Collection dtos, final Map<String, Object> batchConverters,
+			final BeanFactory entityBeanFactory) {
+
+		if (readOnly || !meta.isChild() || entityBeanFactory == null || meta.getEntityBeanKey() == null) {
+			return; // write parent object will fail or do nothing anyway
+		}
+
+		final Object retriever = batchConverters.get(meta.getEntityRetrieverKey());
+		final PrefetchedEntityRetriever prefetched;
+		if (retriever instanceof PrefetchedEntityRetriever) {
+			prefetched = (PrefetchedEntityRetriever) retriever;
+		} else if (retriever instanceof BatchEntityRetriever) {
+			prefetched = new PrefetchedEntityRetriever((BatchEntityRetriever) retriever);
+			batchConverters.put(meta.getEntityRetrieverKey(), prefetched);
+		} else {
+			return;
+		}
+
+		final Set<Object> primaryKeys = new LinkedHashSet<Object>();
+		for (final Object dto : dtos) {
+			final Object dtoData = dtoRead.read(dto);
+			if (dtoData != null) {
+				final Object primaryKey = dtoParentKeyRead.read(dtoData);
+				if (primaryKey != null) {
+					primaryKeys.add(primaryKey);
+				}
+			}
+		}
+
+		if (!primaryKeys.isEmpty()) {
+			prefetched.prefetch(entityRead.getReturnType(), getParentBeanClass(entityBeanFactory), primaryKeys);
+		}
+	}
+
+	/*
+	 * Bean class is resolved by creating a bean once per bean factory (rather than for every parent object).
+	 */
+	private Class<?> getParentBeanClass(final BeanFactory entityBeanFactory) throws BeanFactoryNotFoundException,
+			BeanFactoryUnableToCreateInstanceException {
+		final ParentBeanClass resolved = parentBeanClass;
+		if (resolved != null && resolved.beanFactory.get() == entityBeanFactory) {
+			return resolved.beanClass;
+		}
+		final Class<?> beanClass = meta.newEntityBean(entityBeanFactory).getClass();
+		parentBeanClass = new ParentBeanClass(entityBeanFactory, beanClass);
+		return beanClass;
+	}
+
 	private ValueConverter getConverter(final Map<String, Object> converters) throws NotValueConverterException,
 			ValueConverterNotFoundException {
 
-		if (converters != null && !converters.isEmpty() && converters.containsKey(meta.getConverterKey())) {
-			final Object conv = converters.get(meta.getConverterKey());
-			if (conv instanceof ValueConverter) {
-				return (ValueConverter) conv;
-			}
+		final Object conv = BoundConverters.lookup(converters, converterSlot, meta.getConverterKey());
+		if (conv instanceof ValueConverter) {
+			return (ValueConverter) conv;
+		} else if (conv != null) {
 			throw new NotValueConverterException(meta.getDtoFieldName(), meta.getEntityFieldName(),
 					meta.getConverterKey());
 		}
@@ -340,11 +560,10 @@ class DataPipe implements Pipe {
 	private EntityRetriever getRetriever(final Map<String, Object> converters) throws NotEntityRetrieverException,
 			EntityRetrieverNotFoundException {
 
-		if (converters != null && !converters.isEmpty() && converters.containsKey(meta.getEntityRetrieverKey())) {
-			final Object conv = converters.get(meta.getEntityRetrieverKey());
-			if (conv instanceof EntityRetriever) {
-				return (EntityRetriever) conv;
-			}
+		final Object conv = BoundConverters.lookup(converters, retrieverSlot, meta.getEntityRetrieverKey());
+		if (conv instanceof EntityRetriever) {
+			return (EntityRetriever) conv;
+		} else if (conv != null) {
 			throw new NotEntityRetrieverException(meta.getEntityFieldName(), meta.getDtoFieldName(),
 					meta.getConverterKey());
 		}
@@ -352,4 +571,19 @@ class DataPipe implements Pipe {
 				meta.getEntityRetrieverKey());
 	}
 
+	/*
+	 * Parent bean class resolved for bean factory (factory is weakly referenced, pipes are long lived).
+	 */
+	private static final class ParentBeanClass {
+
+		private final WeakReference<BeanFactory> beanFactory;
+		private final Class<?> beanClass;
+
+		ParentBeanClass(final BeanFactory beanFactory, final Class<?> beanClass) {
+			this.beanFactory = new WeakReference<BeanFactory>(beanFactory);
+			this.beanClass = beanClass;
+		}
+
+	}
+
 }
@@ -57,7 +57,7 @@ class DataPipeBuilder extends BasePipeBuilder<FieldPipeMetadata> {
 	 */
 	@Override
 	public Pipe build(final AssemblerContext context, final Class dtoClass, final Class entityClass,
-			final PropertyDescriptor[] dtoPropertyDescriptors, final PropertyDescriptor[] entityPropertyDescriptors,
+			final PropertyIndex dtoProperties, final PropertyIndex entityProperties,
 			final FieldPipeMetadata meta, final Pipe pipe) throws InspectionPropertyNotFoundException,
 			InspectionBindingNotFoundException, InspectionScanningException, UnableToCreateInstanceException,
 			AnnotationMissingBindingException, AnnotationValidatingBindingException, GeDARuntimeException {
@@ -66,7 +66,7 @@ class DataPipeBuilder extends BasePipeBuilder<FieldPipeMetadata> {
 		final boolean isListEntity = !isMapEntity && List.class.isAssignableFrom(entityClass);
 
 		final PropertyDescriptor dtoFieldDesc = PropertyInspector.getDtoPropertyDescriptorForField(dtoClass,
-				meta.getDtoFieldName(), dtoPropertyDescriptors);
+				meta.getDtoFieldName(), dtoProperties);
 
 		final MethodSynthesizer synthesizer = context.getMethodSynthesizer();
 		final MethodSynthesizer entitySynthesizer;
@@ -81,7 +81,7 @@ class DataPipeBuilder extends BasePipeBuilder<FieldPipeMetadata> {
 		} else {
 			entitySynthesizer = synthesizer;
 			entityFieldDesc = PropertyInspector.getEntityPropertyDescriptorForField(dtoClass, entityClass,
-					meta.getDtoFieldName(), meta.getEntityFieldName(), entityPropertyDescriptors);
+					meta.getDtoFieldName(), meta.getEntityFieldName(), entityProperties);
 		}
 
 		final DataReader dtoParentReadMethod;
@@ -97,10 +97,9 @@ class DataPipeBuilder extends BasePipeBuilder<FieldPipeMetadata> {
 						+ dtoClass.getSimpleName() + ", method: " + parentGet.getName(), gre);
 			}
 
-			final PropertyDescriptor[] dtoSubPropertyDescriptors = PropertyInspector
-					.getPropertyDescriptorsForClass(returnTypeClass);
+			final PropertyIndex dtoSubProperties = PropertyInspector.getPropertyIndexForClass(returnTypeClass);
 			final PropertyDescriptor dtoParentDesc = PropertyInspector.getDtoPropertyDescriptorForField(dtoClass,
-					meta.getParentEntityPrimaryKeyField(), dtoSubPropertyDescriptors);
+					meta.getParentEntityPrimaryKeyField(), dtoSubProperties);
 			dtoParentReadMethod = context.getMethodSynthesizer().synthesizeReader(dtoParentDesc);
 
 		} else {
@@ -112,7 +111,8 @@ class DataPipeBuilder extends BasePipeBuilder<FieldPipeMetadata> {
 		return new DataPipe(context, meta.isReadOnly() ? null : synthesizer.synthesizeReader(dtoFieldDesc),
 				synthesizer.synthesizeWriter(dtoFieldDesc), dtoParentReadMethod,
 				entitySynthesizer.synthesizeReader(entityFieldDesc), meta.isReadOnly() ? null
-						: entitySynthesizer.synthesizeWriter(entityFieldDesc), meta);
+						: entitySynthesizer.synthesizeWriter(entityFieldDesc), dtoFieldDesc,
+				entitySynthesizer == synthesizer ? entityFieldDesc : null, meta);
 	}
 
 }
@@ -10,6 +10,7 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler;
 
+import java.beans.PropertyDescriptor;
 import java.util.Map;
 
 import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
@@ -54,6 +55,8 @@ class DataPipeChain implements Pipe {
 
 	private final DataReader dtoRead;
 
+	private final PropertyDescriptor entityDescriptor;
+
 	private final Pipe pipe;
 
 	/**
@@ -63,13 +66,15 @@ class DataPipeChain implements Pipe {
 	 *            method for reading data from Entity field
 	 * @param entityWrite
 	 *            method for writing data to Entity field
+	 * @param entityDescriptor
+	 *            Entity field descriptor (null if entity is not a bean, e.g. map or list)
 	 * @param pipe
 	 *            the inner pipe.
 	 * @param meta
 	 *            meta data for this data delegate
 	 */
 	public DataPipeChain(final DataReader dtoRead, final DataReader entityRead, final DataWriter entityWrite,
-			final Pipe pipe, final PipeMetadata meta) {
+			final PropertyDescriptor entityDescriptor, final Pipe pipe, final PipeMetadata meta) {
 		if (meta.isReadOnly()) {
 			this.dtoRead = null;
 		} else {
@@ -77,6 +82,7 @@ class DataPipeChain implements Pipe {
 		}
 		this.entityRead = entityRead;
 		this.entityWrite = entityWrite;
+		this.entityDescriptor = entityDescriptor;
 		this.pipe = pipe;
 		this.meta = meta;
 	}
@@ -87,6 +93,26 @@ class DataPipeChain implements Pipe {
 		return meta.getEntityFieldName() + "." + pipe.getBinding();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Assembler preloadAssembler(final BeanFactory beanFactory) {
+		return pipe.preloadAssembler(beanFactory);
+	}
+
+	/**
+	 * @return Entity field descriptor (null if entity is not a bean)
+	 */
+	PropertyDescriptor getEntityDescriptor() {
+		return entityDescriptor;
+	}
+
+	/**
+	 * @return the inner pipe
+	 */
+	Pipe getPipe() {
+		return pipe;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void writeFromDtoToEntity(final Object entity, final Object dto, final Map<String, Object> converters,
@@ -48,7 +48,7 @@ class DataPipeChainBuilder extends BasePipeBuilder<PipeMetadata> {
 	 */
 	@Override
 	public Pipe build(final AssemblerContext context, final Class dtoClass, final Class entityClass,
-			final PropertyDescriptor[] dtoPropertyDescriptors, final PropertyDescriptor[] entityPropertyDescriptors,
+			final PropertyIndex dtoProperties, final PropertyIndex entityProperties,
 			final PipeMetadata meta, final Pipe pipe) throws InspectionBindingNotFoundException,
 			InspectionPropertyNotFoundException, UnableToCreateInstanceException, GeDARuntimeException {
 
@@ -56,7 +56,7 @@ class DataPipeChainBuilder extends BasePipeBuilder<PipeMetadata> {
 		final boolean isListEntity = !isMapEntity && List.class.isAssignableFrom(entityClass);
 
 		final PropertyDescriptor dtoFieldDesc = PropertyInspector.getDtoPropertyDescriptorForField(dtoClass,
-				meta.getDtoFieldName(), dtoPropertyDescriptors);
+				meta.getDtoFieldName(), dtoProperties);
 
 		final MethodSynthesizer synthesizer = context.getMethodSynthesizer();
 		final MethodSynthesizer entitySynthesizer;
@@ -69,11 +69,11 @@ class DataPipeChainBuilder extends BasePipeBuilder<PipeMetadata> {
 				entitySynthesizer = listSynthesizer;
 			}
 			entityFieldDesc = PropertyInspector.getDtoPropertyDescriptorForField(dtoClass, meta.getDtoFieldName(),
-					dtoPropertyDescriptors);
+					dtoProperties);
 		} else {
 			entitySynthesizer = synthesizer;
 			entityFieldDesc = PropertyInspector.getEntityPropertyDescriptorForField(dtoClass, entityClass,
-					meta.getDtoFieldName(), meta.getEntityFieldName(), entityPropertyDescriptors);
+					meta.getDtoFieldName(), meta.getEntityFieldName(), entityProperties);
 		}
 
 		final DataReader entityFieldRead = entitySynthesizer.synthesizeReader(entityFieldDesc);
@@ -81,7 +81,8 @@ class DataPipeChainBuilder extends BasePipeBuilder<PipeMetadata> {
 				.synthesizeWriter(entityFieldDesc);
 
 		return new DataPipeChain(meta.isReadOnly() ? null : synthesizer.synthesizeReader(dtoFieldDesc),
-				entityFieldRead, entityFieldWrite, pipe, meta);
+				entityFieldRead, entityFieldWrite, entitySynthesizer == synthesizer ? entityFieldDesc : null, pipe,
+				meta);
 
 	}
 
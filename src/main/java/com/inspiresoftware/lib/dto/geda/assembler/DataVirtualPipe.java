@@ -54,6 +54,8 @@ class DataVirtualPipe implements Pipe {
 	private final DataReader dtoRead;
 	private final DataWriter dtoWrite;
 
+	private final int converterSlot;
+
 	private static final Object NULL = null;
 
 	/**
@@ -72,6 +74,7 @@ class DataVirtualPipe implements Pipe {
 			throws AnnotationMissingBindingException, AnnotationValidatingBindingException {
 
 		this.meta = meta;
+		this.converterSlot = BoundConverters.slotOf(meta.getConverterKey());
 
 		this.dtoWrite = dtoWrite;
 		if (meta.isReadOnly()) {
@@ -96,6 +99,12 @@ class DataVirtualPipe implements Pipe {
 		return meta.getEntityFieldName();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Assembler preloadAssembler(final BeanFactory beanFactory) {
+		return null; // virtual fields have no nested DTO
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void writeFromEntityToDto(final Object entity, final Object dto, final Map<String, Object> converters,
@@ -149,11 +158,10 @@ class DataVirtualPipe implements Pipe {
 	private ValueConverter getConverter(final Map<String, Object> converters) throws NotValueConverterException,
 	ValueConverterNotFoundException {
 
-		if (converters != null && !converters.isEmpty() && converters.containsKey(meta.getConverterKey())) {
-			final Object conv = converters.get(meta.getConverterKey());
-			if (conv instanceof ValueConverter) {
-				return (ValueConverter) conv;
-			}
+		final Object conv = BoundConverters.lookup(converters, converterSlot, meta.getConverterKey());
+		if (conv instanceof ValueConverter) {
+			return (ValueConverter) conv;
+		} else if (conv != null) {
 			throw new NotValueConverterException(meta.getDtoFieldName(), meta.getEntityFieldName(),
 					meta.getConverterKey());
 		}
@@ -53,13 +53,13 @@ class DataVirtualPipeBuilder extends BasePipeBuilder<FieldPipeMetadata> {
 	 */
 	@Override
 	public Pipe build(final AssemblerContext context, final Class dtoClass, final Class entityClass,
-			final PropertyDescriptor[] dtoPropertyDescriptors, final PropertyDescriptor[] entityPropertyDescriptors,
+			final PropertyIndex dtoProperties, final PropertyIndex entityProperties,
 			final FieldPipeMetadata meta, final Pipe pipe) throws InspectionPropertyNotFoundException,
 			InspectionBindingNotFoundException, InspectionScanningException, UnableToCreateInstanceException,
 			AnnotationMissingBindingException, AnnotationValidatingBindingException, GeDARuntimeException {
 
 		final PropertyDescriptor dtoFieldDesc = PropertyInspector.getDtoPropertyDescriptorForField(dtoClass,
-				meta.getDtoFieldName(), dtoPropertyDescriptors);
+				meta.getDtoFieldName(), dtoProperties);
 
 		final MethodSynthesizer synthesizer = context.getMethodSynthesizer();
 
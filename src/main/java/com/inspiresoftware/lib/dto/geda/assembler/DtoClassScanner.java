@@ -0,0 +1,240 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
+import com.inspiresoftware.lib.dto.geda.annotations.Dto;
+import com.inspiresoftware.lib.dto.geda.assembler.annotations.impl.AnnotationProxies;
+import com.inspiresoftware.lib.dto.geda.exception.GeDAException;
+import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
+
+/**
+ * Scanner that discovers {@link Dto} annotated classes in given packages (directories and jars of the class loader)
+ * and builds their assemblers in parallel, so that applications can warm up and detect slow or broken mappings
+ * before first conversion.
+ *
+ * Assemblers are built by {@link DTOAssembler#newAssembler(Class, ClassLoader)}, hence DTO classes must specify
+ * auto binding - those that do not are reported as skipped. Nested assemblers reachable from each DTO are built as
+ * well, but only top level assemblers are timed.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public final class DtoClassScanner {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DtoClassScanner.class);
+
+	private static final String CLASS_EXT = ".class";
+
+	private DtoClassScanner() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Find all concrete {@link Dto} annotated classes in given packages (including sub packages). Classes are loaded
+	 * without initialisation.
+	 *
+	 * @param classLoader
+	 *            class loader to scan
+	 * @param packages
+	 *            packages to scan
+	 * @return DTO classes
+	 *
+	 * @throws GeDARuntimeException
+	 *             if class path resources cannot be read
+	 */
+	public static List<Class<?>> scan(final ClassLoader classLoader, final String... packages)
+			throws GeDARuntimeException {
+
+		final Set<String> classNames = new TreeSet<String>();
+		for (final String pkg : packages) {
+			final String path = pkg.replace('.', '/');
+			try {
+				final Enumeration<URL> resources = classLoader.getResources(path);
+				while (resources.hasMoreElements()) {
+					final URL resource = resources.nextElement();
+					if ("file".equals(resource.getProtocol())) {
+						scanDirectory(new File(resource.toURI()), pkg, classNames);
+					} else if ("jar".equals(resource.getProtocol())) {
+						scanJar(resource, path, classNames);
+					} else {
+						LOG.warn("Unable to scan {}, unsupported protocol: {}", resource, resource.getProtocol());
+					}
+				}
+			} catch (IOException ioe) {
+				throw new GeDARuntimeException("Unable to scan package: " + pkg, ioe);
+			} catch (URISyntaxException use) {
+				throw new GeDARuntimeException("Unable to scan package: " + pkg, use);
+			}
+		}
+
+		final List<Class<?>> dtos = new ArrayList<Class<?>>();
+		for (final String className : classNames) {
+			final Class<?> clazz;
+			try {
+				clazz = Class.forName(className, false, classLoader);
+			} catch (ClassNotFoundException cnfe) {
+				LOG.debug("Skipping {}: {}", className, cnfe.getMessage());
+				continue;
+			} catch (LinkageError le) {
+				LOG.debug("Skipping {}: {}", className, le.getMessage());
+				continue;
+			}
+			if (AnnotationProxies.getClassAnnotationProxy(clazz).annotationExists() && !clazz.isInterface()
+					&& !Modifier.isAbstract(clazz.getModifiers())) {
+				dtos.add(clazz);
+			}
+		}
+		return dtos;
+	}
+
+	private static void scanDirectory(final File dir, final String pkg, final Set<String> classNames) {
+		final File[] files = dir.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (final File file : files) {
+			if (file.isDirectory()) {
+				scanDirectory(file, pkg + "." + file.getName(), classNames);
+			} else if (file.getName().endsWith(CLASS_EXT)) {
+				classNames.add(pkg + "." + file.getName().substring(0, file.getName().length() - CLASS_EXT.length()));
+			}
+		}
+	}
+
+	private static void scanJar(final URL resource, final String path, final Set<String> classNames)
+			throws IOException {
+		final JarURLConnection connection = (JarURLConnection) resource.openConnection();
+		connection.setUseCaches(false);
+		final JarFile jar = connection.getJarFile();
+		try {
+			final Enumeration<JarEntry> entries = jar.entries();
+			while (entries.hasMoreElements()) {
+				final String name = entries.nextElement().getName();
+				if (name.startsWith(path + "/") && name.endsWith(CLASS_EXT)) {
+					classNames.add(name.substring(0, name.length() - CLASS_EXT.length()).replace('/', '.'));
+				}
+			}
+		} finally {
+			jar.close();
+		}
+	}
+
+	/**
+	 * Scan packages with class loader of GeDA and build assemblers in common fork/join pool. Nested assemblers that
+	 * require bean keys are not built.
+	 *
+	 * @param packages
+	 *            packages to scan
+	 * @return build report
+	 *
+	 * @throws GeDARuntimeException
+	 *             if class path resources cannot be read
+	 */
+	public static AssemblerBuildReport build(final String... packages) throws GeDARuntimeException {
+		return build(DTOAssembler.class.getClassLoader(), null, ForkJoinPool.commonPool(), packages);
+	}
+
+	/**
+	 * Scan packages and build assemblers for all found DTO classes in parallel. Binding failures do not stop the
+	 * build, they are collected in the report.
+	 *
+	 * @param classLoader
+	 *            class loader to scan (also used as class loader of assemblers)
+	 * @param beanFactory
+	 *            bean factory for resolving nested DTO and entity bean keys (can be null)
+	 * @param pool
+	 *            pool to build assemblers in
+	 * @param packages
+	 *            packages to scan
+	 * @return build report
+	 *
+	 * @throws GeDARuntimeException
+	 *             if class path resources cannot be read
+	 */
+	public static AssemblerBuildReport build(final ClassLoader classLoader, final BeanFactory beanFactory,
+			final ForkJoinPool pool, final String... packages) throws GeDARuntimeException {
+
+		final AssemblerBuildReport report = new AssemblerBuildReport();
+		final Set<Assembler> visited = AssemblerPreloadTask.newVisitedSet();
+		final List<AssemblerPreloadTask> tasks = new ArrayList<AssemblerPreloadTask>();
+
+		for (final Class<?> dto : scan(classLoader, packages)) {
+			if (!hasAutobinding(dto)) {
+				report.skipped(dto);
+				continue;
+			}
+			tasks.add(new AssemblerPreloadTask(beanFactory, visited, false) {
+
+				private static final long serialVersionUID = 20131015L;
+
+				@Override
+				protected Assembler createAssembler() throws GeDAException {
+					final long start = System.nanoTime();
+					try {
+						final Assembler assembler = DTOAssembler.newAssembler(dto, classLoader);
+						report.built(dto, System.nanoTime() - start);
+						return assembler;
+					} catch (RuntimeException re) {
+						report.failed(dto, re);
+						return null;
+					}
+				}
+			});
+		}
+
+		pool.invoke(new RecursiveAction() {
+
+			private static final long serialVersionUID = 20131015L;
+
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+
+		LOG.info("{}", report);
+		return report;
+	}
+
+	private static boolean hasAutobinding(final Class<?> dto) {
+		final String[] auto = AnnotationProxies.getClassAnnotationProxy(dto).getValue("value");
+		if (auto != null) {
+			for (final String entity : auto) {
+				if (entity != null && entity.length() > 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
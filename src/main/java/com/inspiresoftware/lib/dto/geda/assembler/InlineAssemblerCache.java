@@ -0,0 +1,97 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+/**
+ * Small per pipe cache of nested assemblers keyed by (DTO class, entity class). Pipes of a graph almost always see
+ * the same one or two class pairs, so this cache lets nested assembly skip {@link AssemblerContext#newAssembler}
+ * (and hence the global assembler cache) once it is warmed up.
+ *
+ * Entries are compared by class identity and kept in an immutable array that is replaced on every put, so reads are
+ * lock free. Once the cache is full, new pairs are no longer cached and resolved through the context every time.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+final class InlineAssemblerCache {
+
+	private static final int MAX_ENTRIES = 4;
+
+	private static final Entry[] EMPTY = new Entry[0];
+
+	private final AssemblerContext context;
+
+	private volatile Entry[] entries = EMPTY;
+
+	/**
+	 * @param context
+	 *            context that resolves assemblers on cache miss
+	 */
+	InlineAssemblerCache(final AssemblerContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * @param dto
+	 *            DTO class
+	 * @param entity
+	 *            entity class
+	 * @return cached assembler or assembler resolved by the context
+	 */
+	Assembler get(final Class<?> dto, final Class<?> entity) {
+		final Entry[] current = entries;
+		for (final Entry entry : current) {
+			if (entry.dto == dto && entry.entity == entity) {
+				return entry.assembler;
+			}
+		}
+		final Assembler assembler = context.newAssembler(dto, entity);
+		if (current.length < MAX_ENTRIES) {
+			put(dto, entity, assembler);
+		}
+		return assembler;
+	}
+
+	private synchronized void put(final Class<?> dto, final Class<?> entity, final Assembler assembler) {
+		final Entry[] current = entries;
+		if (current.length >= MAX_ENTRIES) {
+			return;
+		}
+		for (final Entry entry : current) {
+			if (entry.dto == dto && entry.entity == entity) {
+				return; // another thread got here first
+			}
+		}
+		final Entry[] updated = new Entry[current.length + 1];
+		System.arraycopy(current, 0, updated, 0, current.length);
+		updated[current.length] = new Entry(dto, entity, assembler);
+		entries = updated;
+	}
+
+	/*
+	 * Immutable cache entry.
+	 */
+	private static final class Entry {
+
+		private final Class<?> dto;
+		private final Class<?> entity;
+		private final Assembler assembler;
+
+		Entry(final Class<?> dto, final Class<?> entity, final Assembler assembler) {
+			this.dto = dto;
+			this.entity = entity;
+			this.assembler = assembler;
+		}
+
+	}
+
+}
@@ -13,6 +13,8 @@ package com.inspiresoftware.lib.dto.geda.assembler;
 import java.beans.PropertyDescriptor;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -20,8 +22,11 @@ import java.util.Set;
 
 import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
 import com.inspiresoftware.lib.dto.geda.adapter.DtoToEntityMatcher;
+import com.inspiresoftware.lib.dto.geda.adapter.KeyedDtoToEntityMatcher;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.Cache;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.impl.BoundedCache;
 import com.inspiresoftware.lib.dto.geda.assembler.meta.MapPipeMetadata;
 import com.inspiresoftware.lib.dto.geda.exception.AnnotationDuplicateBindingException;
 import com.inspiresoftware.lib.dto.geda.exception.AnnotationMissingBeanKeyException;
@@ -30,6 +35,7 @@ import com.inspiresoftware.lib.dto.geda.exception.AnnotationMissingException;
 import com.inspiresoftware.lib.dto.geda.exception.AnnotationValidatingBindingException;
 import com.inspiresoftware.lib.dto.geda.exception.BeanFactoryNotFoundException;
 import com.inspiresoftware.lib.dto.geda.exception.BeanFactoryUnableToCreateInstanceException;
+import com.inspiresoftware.lib.dto.geda.exception.BeanFactoryUnableToLocateRepresentationException;
 import com.inspiresoftware.lib.dto.geda.exception.CollectionEntityGenericReturnTypeException;
 import com.inspiresoftware.lib.dto.geda.exception.DtoToEntityMatcherNotFoundException;
 import com.inspiresoftware.lib.dto.geda.exception.EntityRetrieverNotFoundException;
@@ -53,9 +59,13 @@ import com.inspiresoftware.lib.dto.geda.exception.ValueConverterNotFoundExceptio
 @SuppressWarnings("unchecked")
 class MapPipe implements Pipe {
 
+	private static final int KEY_READERS_MAX_SIZE = 32;
+
 	private final MapPipeMetadata meta;
 
 	private final AssemblerContext context;
+	private final InlineAssemblerCache assemblers;
+	private final ReturnTypeCache returnTypes = new ReturnTypeCache();
 
 	private final DataReader dtoRead;
 	private final DataWriter dtoWrite;
@@ -63,6 +73,12 @@ class MapPipe implements Pipe {
 	private final DataReader entityRead;
 	private final DataWriter entityWrite;
 
+	/*
+	 * Key readers by item class. Cache is bounded, so that pipe does not hold on to every item class (e.g. proxy
+	 * classes of a class loader that is long gone) it has ever seen.
+	 */
+	private final Cache<Class, DataReader> keyReaders = newKeyReadersCache();
+
 	/**
 	 * @param context
 	 *            assembler context
@@ -87,6 +103,7 @@ class MapPipe implements Pipe {
 		this.meta = meta;
 
 		this.context = context;
+		this.assemblers = new InlineAssemblerCache(context);
 
 		this.dtoWrite = dtoWrite;
 		this.entityRead = entityRead;
@@ -111,6 +128,19 @@ class MapPipe implements Pipe {
 		return meta.getEntityFieldName();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Assembler preloadAssembler(final BeanFactory beanFactory) {
+		if (beanFactory == null) {
+			return null;
+		}
+		final Class<?> representative = getReturnType(beanFactory);
+		if (representative == null || Object.class.equals(representative)) {
+			return null; // actual class is only known from data
+		}
+		return assemblers.get(meta.newDtoBean(beanFactory).getClass(), representative);
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void writeFromEntityToDto(final Object entity, final Object dto, final Map<String, Object> converters,
@@ -129,7 +159,7 @@ class MapPipe implements Pipe {
 
 			final Map dtos = meta.newDtoMap(dtoBeanFactory);
 
-			final Class entityRepresentative = meta.getReturnType(dtoBeanFactory);
+			final Class entityRepresentative = getReturnType(dtoBeanFactory);
 
 			Object newDto = meta.newDtoBean(dtoBeanFactory);
 
@@ -166,7 +196,7 @@ class MapPipe implements Pipe {
 
 			final Map dtos = meta.newDtoMap(dtoBeanFactory);
 
-			final Class entityRepresentative = meta.getReturnType(dtoBeanFactory);
+			final Class entityRepresentative = getReturnType(dtoBeanFactory);
 
 			Object newDto = meta.newDtoBean(dtoBeanFactory);
 
@@ -269,15 +299,19 @@ class MapPipe implements Pipe {
 		if (reader == null) {
 			if (meta.getMapKeyForCollection() != null && meta.getMapKeyForCollection().length() > 0) {
 
-				Class representative = meta.getReturnType(beanFactory);
+				Class representative = getReturnType(beanFactory);
 				if (Object.class.equals(representative) && entityItem != null) {
 					representative = entityItem.getClass();
 				}
-				final PropertyDescriptor[] itemDesc = PropertyInspector.getPropertyDescriptorsForClass(representative);
-				final PropertyDescriptor itemKeyDesc = PropertyInspector.getEntityPropertyDescriptorForField(
-						dtoItem.getClass(), representative, meta.getDtoFieldName(), meta.getMapKeyForCollection(),
-						itemDesc);
-				reader = context.getMethodSynthesizer().synthesizeReader(itemKeyDesc);
+				reader = keyReaders.get(representative);
+				if (reader == null) {
+					final PropertyIndex itemProperties = PropertyInspector.getPropertyIndexForClass(representative);
+					final PropertyDescriptor itemKeyDesc = PropertyInspector.getEntityPropertyDescriptorForField(
+							dtoItem != null ? dtoItem.getClass() : Object.class, representative,
+							meta.getDtoFieldName(), meta.getMapKeyForCollection(), itemProperties);
+					reader = context.getMethodSynthesizer().synthesizeReader(itemKeyDesc);
+					keyReaders.put(representative, reader);
+				}
 			} else {
 				throw new AnnotationValidatingBindingException(meta.getDtoFieldName(), dtoWrite.getClass()
 						.getCanonicalName(), dtoWrite.getParameterType().getSimpleName(), meta.getEntityFieldName(),
@@ -287,6 +321,22 @@ class MapPipe implements Pipe {
 		return reader;
 	}
 
+	private static Cache<Class, DataReader> newKeyReadersCache() {
+		final Cache<Class, DataReader> cache = new BoundedCache<Class, DataReader>();
+		cache.configure("maxSize", KEY_READERS_MAX_SIZE);
+		return cache;
+	}
+
+	private Class getReturnType(final BeanFactory beanFactory) throws BeanFactoryUnableToLocateRepresentationException,
+			BeanFactoryNotFoundException {
+		Class type = returnTypes.get(beanFactory);
+		if (type == null) {
+			type = meta.getReturnType(beanFactory);
+			returnTypes.put(beanFactory, type);
+		}
+		return type;
+	}
+
 	private Assembler lazyCreateAssembler(final Assembler assembler, final Object dtoItem, final Object entityItem,
 			final BeanFactory beanFactory) throws CollectionEntityGenericReturnTypeException,
 			AnnotationMissingException, InspectionScanningException, UnableToCreateInstanceException,
@@ -294,7 +344,7 @@ class MapPipe implements Pipe {
 			AnnotationValidatingBindingException, GeDARuntimeException, AnnotationDuplicateBindingException {
 		if (assembler == null) {
 
-			Class representative = meta.getReturnType(beanFactory);
+			Class representative = getReturnType(beanFactory);
 			if (Object.class.equals(representative) && entityItem != null) {
 				representative = entityItem.getClass();
 			}
@@ -304,7 +354,7 @@ class MapPipe implements Pipe {
 					throw new CollectionEntityGenericReturnTypeException(dtoItem.getClass().getCanonicalName(),
 							meta.getDtoFieldName(), representative.getCanonicalName());
 				}
-				return context.newAssembler(dtoItem.getClass(), representative);
+				return assemblers.get(dtoItem.getClass(), representative);
 			} catch (InspectionInvalidDtoInstanceException invDto) {
 				throw new CollectionEntityGenericReturnTypeException(dtoItem.getClass().getCanonicalName(),
 						meta.getDtoFieldName(), representative != null ? representative.getCanonicalName()
@@ -329,8 +379,13 @@ class MapPipe implements Pipe {
 					NotValueConverterException, ValueConverterNotFoundException, AnnotationMissingBeanKeyException,
 					DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
 
-		Assembler assembler = null;
 		final DtoToEntityMatcher matcher = meta.getDtoToEntityMatcher(converters);
+		if (matcher == null || matcher instanceof KeyedDtoToEntityMatcher) {
+			addOrUpdateItemsByKeys(converters, entityBeanFactory, original, dtos, (KeyedDtoToEntityMatcher) matcher);
+			return;
+		}
+
+		Assembler assembler = null;
 		for (Object dtoKey : dtos.keySet()) {
 
 			final Object dtoItem = dtos.get(dtoKey);
@@ -368,9 +423,18 @@ class MapPipe implements Pipe {
 					NotValueConverterException, ValueConverterNotFoundException, AnnotationMissingBeanKeyException,
 					DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
 
-		Assembler assembler = null;
 		final DtoToEntityMatcher matcher = meta.getDtoToEntityMatcher(converters);
+		if (matcher == null) {
+			addOrUpdateItemsByEqualKeys(converters, entityBeanFactory, original, dtos);
+			return;
+		} else if (matcher instanceof KeyedDtoToEntityMatcher) {
+			addOrUpdateItemsByKeys(converters, entityBeanFactory, original, dtos, (KeyedDtoToEntityMatcher) matcher);
+			return;
+		}
+
 		final boolean useKey = meta.isEntityMapKey();
+
+		Assembler assembler = null;
 		for (Object dtoKey : dtos.keySet()) {
 
 			final Object dtoItem = dtos.get(dtoKey);
@@ -414,6 +478,11 @@ class MapPipe implements Pipe {
 			final Collection original, final Map dtos) throws DtoToEntityMatcherNotFoundException,
 			NotDtoToEntityMatcherException {
 		final DtoToEntityMatcher matcher = meta.getDtoToEntityMatcher(converters);
+		if (matcher == null || matcher instanceof KeyedDtoToEntityMatcher) {
+			removeDeletedItemsByKeys(entityBeanFactory, original, dtos, (KeyedDtoToEntityMatcher) matcher);
+			return;
+		}
+
 		Iterator orIt = original.iterator();
 		while (orIt.hasNext()) { // must be iterator to avoid concurrent modification exception while #remove()
 
@@ -439,6 +508,14 @@ class MapPipe implements Pipe {
 			final Map original, final Map dtos) throws DtoToEntityMatcherNotFoundException,
 			NotDtoToEntityMatcherException {
 		final DtoToEntityMatcher matcher = meta.getDtoToEntityMatcher(converters);
+		if (matcher == null) {
+			removeDeletedItemsByEqualKeys(original, dtos);
+			return;
+		} else if (matcher instanceof KeyedDtoToEntityMatcher) {
+			removeDeletedItemsByKeys(original, dtos, (KeyedDtoToEntityMatcher) matcher);
+			return;
+		}
+
 		final List keysToRemove = new ArrayList(); // must save to avoid concurrent modification exception while
 		// #remove(key)
 		for (Object orKey : original.keySet()) {
@@ -463,4 +540,226 @@ class MapPipe implements Pipe {
 		}
 	}
 
+	/*
+	 * Key of collection item is the value of entityCollectionMapKey property, unless keyed matcher is specified.
+	 */
+	private void addOrUpdateItemsByKeys(final Map<String, Object> converters, final BeanFactory entityBeanFactory,
+			final Collection original, final Map dtos, final KeyedDtoToEntityMatcher matcher)
+					throws CollectionEntityGenericReturnTypeException, AnnotationMissingException,
+					BeanFactoryNotFoundException, BeanFactoryUnableToCreateInstanceException, InspectionScanningException,
+					UnableToCreateInstanceException, InspectionPropertyNotFoundException, InspectionBindingNotFoundException,
+					AnnotationMissingBindingException, AnnotationValidatingBindingException, GeDARuntimeException,
+					AnnotationDuplicateBindingException, InspectionInvalidDtoInstanceException,
+					InspectionInvalidEntityInstanceException, NotEntityRetrieverException, EntityRetrieverNotFoundException,
+					NotValueConverterException, ValueConverterNotFoundException, AnnotationMissingBeanKeyException,
+					DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
+
+		DataReader keyRead = null;
+		final Map index = new HashMap(original.size() * 2);
+		for (Object orItem : original) {
+			if (orItem != null) {
+				if (matcher == null) {
+					keyRead = lazyCollectionKeyRead(keyRead, null, orItem, entityBeanFactory);
+					indexItem(index, keyRead.read(orItem), orItem);
+				} else {
+					indexItem(index, matcher.getEntityKey(orItem), orItem);
+				}
+			}
+		}
+
+		Assembler assembler = null;
+		for (Map.Entry dtoEntry : (Set<Map.Entry>) dtos.entrySet()) {
+
+			final Object dtoItem = dtoEntry.getValue();
+			final Object key = matcher == null ? dtoEntry.getKey() : matcher.getDtoKey(dtoEntry.getKey());
+			final Object orItem = key != null ? index.get(key) : null;
+
+			if (orItem != null) {
+				assembler = lazyCreateAssembler(assembler, dtoItem, orItem, entityBeanFactory);
+				assembler.assembleEntity(dtoItem, orItem, converters, entityBeanFactory);
+			} else {
+				final Object newItem = meta.newEntityBean(entityBeanFactory);
+				assembler = lazyCreateAssembler(assembler, dtoItem, newItem, entityBeanFactory);
+				assembler.assembleEntity(dtoItem, newItem, converters, entityBeanFactory);
+				original.add(newItem);
+				if (matcher == null) {
+					keyRead = lazyCollectionKeyRead(keyRead, dtoItem, newItem, entityBeanFactory);
+					indexItem(index, keyRead.read(newItem), newItem);
+				} else {
+					indexItem(index, matcher.getEntityKey(newItem), newItem);
+				}
+			}
+
+		}
+	}
+
+	/*
+	 * Entity map keys (or entity beans used as keys if entityMapKey is set) are matched through the keyed matcher.
+	 */
+	private void addOrUpdateItemsByKeys(final Map<String, Object> converters, final BeanFactory entityBeanFactory,
+			final Map original, final Map dtos, final KeyedDtoToEntityMatcher matcher)
+					throws CollectionEntityGenericReturnTypeException, AnnotationMissingException,
+					BeanFactoryNotFoundException, BeanFactoryUnableToCreateInstanceException, InspectionScanningException,
+					UnableToCreateInstanceException, InspectionPropertyNotFoundException, InspectionBindingNotFoundException,
+					AnnotationMissingBindingException, AnnotationValidatingBindingException, GeDARuntimeException,
+					AnnotationDuplicateBindingException, InspectionInvalidDtoInstanceException,
+					InspectionInvalidEntityInstanceException, NotEntityRetrieverException, EntityRetrieverNotFoundException,
+					NotValueConverterException, ValueConverterNotFoundException, AnnotationMissingBeanKeyException,
+					DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
+
+		final boolean useKey = meta.isEntityMapKey();
+		final Map index = new HashMap(original.size() * 2);
+		for (Object orKey : original.keySet()) {
+			indexItem(index, matcher.getEntityKey(orKey), orKey);
+		}
+
+		Assembler assembler = null;
+		for (Map.Entry dtoEntry : (Set<Map.Entry>) dtos.entrySet()) {
+
+			final Object dtoKey = dtoEntry.getKey();
+			final Object dtoItem = dtoEntry.getValue();
+			final Object key = matcher.getDtoKey(dtoKey);
+
+			if (key != null && index.containsKey(key)) {
+				final Object orKey = index.get(key);
+				if (useKey) {
+					assembler = lazyCreateAssembler(assembler, dtoKey, orKey, entityBeanFactory);
+					assembler.assembleEntity(dtoKey, orKey, converters, entityBeanFactory);
+					original.put(orKey, dtoItem);
+				} else {
+					final Object orItem = original.get(orKey);
+					assembler = lazyCreateAssembler(assembler, dtoItem, orItem, entityBeanFactory);
+					assembler.assembleEntity(dtoItem, orItem, converters, entityBeanFactory);
+				}
+			} else if (useKey) {
+				final Object newItem = meta.newEntityBean(entityBeanFactory);
+				assembler = lazyCreateAssembler(assembler, dtoKey, newItem, entityBeanFactory);
+				assembler.assembleEntity(dtoKey, newItem, converters, entityBeanFactory);
+				original.put(newItem, dtoItem);
+				indexItem(index, matcher.getEntityKey(newItem), newItem);
+			} else {
+				final Object newItem = meta.newEntityBean(entityBeanFactory);
+				assembler = lazyCreateAssembler(assembler, dtoItem, newItem, entityBeanFactory);
+				assembler.assembleEntity(dtoItem, newItem, converters, entityBeanFactory);
+				original.put(dtoKey, newItem);
+				indexItem(index, matcher.getEntityKey(dtoKey), dtoKey);
+			}
+
+		}
+	}
+
+	/*
+	 * Both sides are maps with the same keys (entityMapKey is not set), so entity map is looked up directly.
+	 */
+	private void addOrUpdateItemsByEqualKeys(final Map<String, Object> converters,
+			final BeanFactory entityBeanFactory, final Map original, final Map dtos)
+					throws CollectionEntityGenericReturnTypeException, AnnotationMissingException,
+					BeanFactoryNotFoundException, BeanFactoryUnableToCreateInstanceException, InspectionScanningException,
+					UnableToCreateInstanceException, InspectionPropertyNotFoundException, InspectionBindingNotFoundException,
+					AnnotationMissingBindingException, AnnotationValidatingBindingException, GeDARuntimeException,
+					AnnotationDuplicateBindingException, InspectionInvalidDtoInstanceException,
+					InspectionInvalidEntityInstanceException, NotEntityRetrieverException, EntityRetrieverNotFoundException,
+					NotValueConverterException, ValueConverterNotFoundException, AnnotationMissingBeanKeyException,
+					DtoToEntityMatcherNotFoundException, NotDtoToEntityMatcherException {
+
+		Assembler assembler = null;
+		for (Map.Entry dtoEntry : (Set<Map.Entry>) dtos.entrySet()) {
+
+			final Object dtoKey = dtoEntry.getKey();
+			final Object dtoItem = dtoEntry.getValue();
+
+			if (original.containsKey(dtoKey)) {
+				final Object orItem = original.get(dtoKey);
+				assembler = lazyCreateAssembler(assembler, dtoItem, orItem, entityBeanFactory);
+				assembler.assembleEntity(dtoItem, orItem, converters, entityBeanFactory);
+			} else {
+				final Object newItem = meta.newEntityBean(entityBeanFactory);
+				assembler = lazyCreateAssembler(assembler, dtoItem, newItem, entityBeanFactory);
+				assembler.assembleEntity(dtoItem, newItem, converters, entityBeanFactory);
+				original.put(dtoKey, newItem);
+			}
+
+		}
+	}
+
+	private void indexItem(final Map index, final Object key, final Object item) {
+		if (key != null && !index.containsKey(key)) {
+			index.put(key, item);
+		}
+	}
+
+	private void removeDeletedItemsByKeys(final BeanFactory entityBeanFactory, final Collection original,
+			final Map dtos, final KeyedDtoToEntityMatcher matcher) {
+
+		final Set dtoKeys = getDtoKeys(dtos, matcher);
+
+		DataReader keyRead = null;
+		final Iterator orIt = original.iterator();
+		while (orIt.hasNext()) {
+
+			final Object orItem = orIt.next();
+
+			final Object key;
+			if (orItem == null) {
+				key = null;
+			} else if (matcher == null) {
+				keyRead = lazyCollectionKeyRead(keyRead, null, orItem, entityBeanFactory);
+				key = keyRead.read(orItem);
+			} else {
+				key = matcher.getEntityKey(orItem);
+			}
+
+			if (key == null || !dtoKeys.contains(key)) {
+				orIt.remove();
+			}
+
+		}
+	}
+
+	private void removeDeletedItemsByKeys(final Map original, final Map dtos, final KeyedDtoToEntityMatcher matcher) {
+
+		final Set dtoKeys = getDtoKeys(dtos, matcher);
+
+		final List keysToRemove = new ArrayList(); // must save to avoid concurrent modification exception while
+		// #remove(key)
+		for (Object orKey : original.keySet()) {
+
+			final Object key = matcher.getEntityKey(orKey);
+			if (key == null || !dtoKeys.contains(key)) {
+				keysToRemove.add(orKey);
+			}
+
+		}
+
+		for (Object orKey : keysToRemove) {
+			original.remove(orKey);
+		}
+	}
+
+	private void removeDeletedItemsByEqualKeys(final Map original, final Map dtos) {
+
+		final Iterator orIt = original.keySet().iterator();
+		while (orIt.hasNext()) {
+
+			if (!dtos.containsKey(orIt.next())) {
+				orIt.remove();
+			}
+
+		}
+	}
+
+	private Set getDtoKeys(final Map dtos, final KeyedDtoToEntityMatcher matcher) {
+		if (matcher == null) {
+			return dtos.keySet();
+		}
+		final Set dtoKeys = new HashSet(dtos.size() * 2);
+		for (Object dtoKey : dtos.keySet()) {
+			final Object key = matcher.getDtoKey(dtoKey);
+			if (key != null) {
+				dtoKeys.add(key);
+			}
+		}
+		return dtoKeys;
+	}
+
 }
@@ -54,13 +54,13 @@ class MapPipeBuilder extends BasePipeBuilder<MapPipeMetadata> {
 	 */
 	@Override
 	public Pipe build(final AssemblerContext context, final Class dtoClass, final Class entityClass,
-			final PropertyDescriptor[] dtoPropertyDescriptors, final PropertyDescriptor[] entityPropertyDescriptors,
+			final PropertyIndex dtoProperties, final PropertyIndex entityProperties,
 			final MapPipeMetadata meta, Pipe pipe) throws InspectionBindingNotFoundException,
 			InspectionPropertyNotFoundException, UnableToCreateInstanceException, InspectionScanningException,
 			AnnotationValidatingBindingException, GeDARuntimeException {
 
 		final PropertyDescriptor dtoFieldDesc = PropertyInspector.getDtoPropertyDescriptorForField(dtoClass,
-				meta.getDtoFieldName(), dtoPropertyDescriptors);
+				meta.getDtoFieldName(), dtoProperties);
 
 		final MethodSynthesizer synthesizer = context.getMethodSynthesizer();
 
@@ -83,7 +83,7 @@ class MapPipeBuilder extends BasePipeBuilder<MapPipeMetadata> {
 		} else {
 			entitySynthesizer = synthesizer;
 			entityFieldDesc = PropertyInspector.getEntityPropertyDescriptorForField(dtoClass, entityClass,
-					meta.getDtoFieldName(), meta.getEntityFieldName(), entityPropertyDescriptors);
+					meta.getDtoFieldName(), meta.getEntityFieldName(), entityProperties);
 		}
 
 		final DataReader entityFieldRead = entitySynthesizer.synthesizeReader(entityFieldDesc);
@@ -45,6 +45,7 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.MapPipeMetadata {
 
 	private final DtoToEntityMatcher dtoToEntityMatcher;
 	private final String dtoToEntityMatcherKey;
+	private final int dtoToEntityMatcherSlot;
 
 	/**
 	 *
@@ -100,7 +101,14 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.MapPipeMetadata {
 				this.mapKeyForCollection = mapKeyForCollection;
 				this.entityMapKey = entityMapKey;
 
-				if (dtoToEntityMatcherKey == null || dtoToEntityMatcherKey.length() == 0) {
+				if (!entityMapKey && (dtoToEntityMatcherKey == null || dtoToEntityMatcherKey.length() == 0)
+						&& (dtoToEntityMatcherClass == null || DtoToEntityMatcher.class.equals(dtoToEntityMatcherClass))) {
+					// no matcher - match by key equality (entity map keys are beans when entityMapKey is set, so
+					// those always need a matcher)
+					dtoToEntityMatcher = null;
+					this.dtoToEntityMatcherKey = null;
+					this.dtoToEntityMatcherSlot = -1;
+				} else if (dtoToEntityMatcherKey == null || dtoToEntityMatcherKey.length() == 0) {
 					if (CACHE.containsKey(dtoToEntityMatcherClass)) {
 						dtoToEntityMatcher = CACHE.get(dtoToEntityMatcherClass);
 					} else {
@@ -110,9 +118,11 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.MapPipeMetadata {
 						CACHE.put(dtoToEntityMatcherClass, dtoToEntityMatcher);
 					}
 					this.dtoToEntityMatcherKey = null;
+					this.dtoToEntityMatcherSlot = -1;
 				} else {
 					dtoToEntityMatcher = null;
 					this.dtoToEntityMatcherKey = dtoToEntityMatcherKey;
+					this.dtoToEntityMatcherSlot = BoundConverters.slotOf(dtoToEntityMatcherKey);
 				}
 
 	}
@@ -166,11 +176,7 @@ com.inspiresoftware.lib.dto.geda.assembler.meta.MapPipeMetadata {
 		if (dtoToEntityMatcherKey == null) {
 			return dtoToEntityMatcher;
 		}
-		if (converters == null) {
-			throw new DtoToEntityMatcherNotFoundException(getDtoFieldName(), getEntityFieldName(),
-					dtoToEntityMatcherKey);
-		}
-		final Object matcher = converters.get(dtoToEntityMatcherKey);
+		final Object matcher = BoundConverters.lookup(converters, dtoToEntityMatcherSlot, dtoToEntityMatcherKey);
 		if (matcher == null) {
 			throw new DtoToEntityMatcherNotFoundException(getDtoFieldName(), getEntityFieldName(),
 					dtoToEntityMatcherKey);
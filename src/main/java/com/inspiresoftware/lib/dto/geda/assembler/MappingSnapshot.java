@@ -0,0 +1,521 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.inspiresoftware.lib.dto.geda.assembler.annotations.AnnotationProxy;
+import com.inspiresoftware.lib.dto.geda.assembler.annotations.impl.AnnotationProxies;
+
+/**
+ * Snapshot of mapping metadata that assemblers are built from: property descriptors of DTO and entity classes (stored
+ * as accessor method names) and values of GeDA annotations on DTO fields. When snapshot is in use (see
+ * {@link DTOAssembler#useMappingSnapshot(MappingSnapshot)}) assemblers take this metadata from snapshot instead of
+ * introspecting classes and reading annotations, and record whatever is missing. Saved snapshot can be loaded on
+ * next start, so that only readers and writers need to be created for the assemblers.
+ *
+ * Snapshot is keyed by class names. Every entry keeps a fingerprint of its class (taken from class file location
+ * without reflection: jar entry CRC, class file size and time stamp, and the same for superclasses and interfaces),
+ * so entries of classes that changed since the snapshot was taken are discarded and classes are introspected again.
+ * DSL mappings are not recorded (only property descriptors of their classes).
+ *
+ * Loading a snapshot only accepts the types snapshot is made of, any other class in the stream fails the load.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public final class MappingSnapshot {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MappingSnapshot.class);
+
+	private static final int VERSION = 3;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/* Fingerprint of class whose class file cannot be located, such entries are never current. */
+	private static final long NO_FINGERPRINT = Long.MIN_VALUE;
+
+	private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+	static {
+		for (final Class<?> primitive : new Class<?>[] { boolean.class, byte.class, short.class, char.class,
+				int.class, long.class, float.class, double.class }) {
+			PRIMITIVES.put(primitive.getName(), primitive);
+		}
+	}
+
+	/*
+	 * The only classes that snapshot stream may contain.
+	 */
+	private static final Set<String> SERIALIZABLE = new HashSet<String>(Arrays.asList(HashMap.class.getName(),
+			String.class.getName(), String[].class.getName(), String[][].class.getName(), Long.class.getName(),
+			Boolean.class.getName(), Number.class.getName(), ClassName.class.getName()));
+
+	/*
+	 * Fingerprints are computed once per class.
+	 */
+	private static final ClassValue<Long> FINGERPRINTS = new ClassValue<Long>() {
+		@Override
+		protected Long computeValue(final Class<?> type) {
+			return Long.valueOf(computeFingerprint(type));
+		}
+	};
+
+	private static volatile MappingSnapshot active;
+
+	/*
+	 * Class name to rows of {property, read method, write method, write method parameter type}.
+	 */
+	private final ConcurrentMap<String, String[][]> descriptors;
+
+	/*
+	 * Declaring class name#field name to annotation simple name to property values.
+	 */
+	private final ConcurrentMap<String, Map<String, Map<String, Object>>> annotations;
+
+	/*
+	 * Entry key (class name or declaring class name#field name) to fingerprint of the class when entry was recorded.
+	 */
+	private final ConcurrentMap<String, Long> fingerprints;
+
+	/**
+	 * Create empty snapshot.
+	 */
+	public MappingSnapshot() {
+		this(new HashMap<String, String[][]>(), new HashMap<String, Map<String, Map<String, Object>>>(),
+				new HashMap<String, Long>());
+	}
+
+	private MappingSnapshot(final Map<String, String[][]> descriptors,
+			final Map<String, Map<String, Map<String, Object>>> annotations, final Map<String, Long> fingerprints) {
+		this.descriptors = new ConcurrentHashMap<String, String[][]>(descriptors);
+		this.annotations = new ConcurrentHashMap<String, Map<String, Map<String, Object>>>(annotations);
+		this.fingerprints = new ConcurrentHashMap<String, Long>(fingerprints);
+	}
+
+	/**
+	 * @return snapshot in use (or null)
+	 */
+	static MappingSnapshot getActive() {
+		return active;
+	}
+
+	/**
+	 * @param snapshot
+	 *            snapshot to use (or null to stop using snapshot)
+	 */
+	static void setActive(final MappingSnapshot snapshot) {
+		active = snapshot;
+	}
+
+	/**
+	 * @return number of classes and fields in this snapshot
+	 */
+	public int size() {
+		return descriptors.size() + annotations.size();
+	}
+
+	/**
+	 * Load snapshot previously written by {@link #save(OutputStream)}.
+	 *
+	 * @param in
+	 *            stream to read from (not closed)
+	 * @return snapshot
+	 *
+	 * @throws IOException
+	 *             if stream cannot be read or is not a valid snapshot
+	 */
+	@SuppressWarnings("unchecked")
+	public static MappingSnapshot load(final InputStream in) throws IOException {
+		final ObjectInputStream ois = new SnapshotInputStream(new GZIPInputStream(in));
+		final int version = ois.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported mapping snapshot version: " + version);
+		}
+		try {
+			return new MappingSnapshot((Map<String, String[][]>) ois.readObject(),
+					(Map<String, Map<String, Map<String, Object>>>) ois.readObject(),
+					(Map<String, Long>) ois.readObject());
+		} catch (ClassNotFoundException cnfe) {
+			throw new IOException("Invalid mapping snapshot", cnfe);
+		} catch (ClassCastException cce) {
+			throw new IOException("Invalid mapping snapshot", cce);
+		}
+	}
+
+	/**
+	 * Write this snapshot.
+	 *
+	 * @param out
+	 *            stream to write to (not closed)
+	 *
+	 * @throws IOException
+	 *             if stream cannot be written
+	 */
+	public void save(final OutputStream out) throws IOException {
+		final GZIPOutputStream gzip = new GZIPOutputStream(out);
+		final ObjectOutputStream oos = new ObjectOutputStream(gzip);
+		oos.writeInt(VERSION);
+		oos.writeObject(new HashMap<String, String[][]>(descriptors));
+		oos.writeObject(new HashMap<String, Map<String, Map<String, Object>>>(annotations));
+		oos.writeObject(new HashMap<String, Long>(fingerprints));
+		oos.flush();
+		gzip.finish();
+	}
+
+	/**
+	 * @param clazz
+	 *            class
+	 * @return property descriptors of the class or null if class is not in snapshot (or it has changed)
+	 */
+	PropertyDescriptor[] getDescriptors(final Class<?> clazz) {
+		final String[][] rows = descriptors.get(clazz.getName());
+		if (rows == null) {
+			return null;
+		}
+		if (!isCurrent(clazz.getName(), clazz)) {
+			LOG.debug("Class {} has changed, discarding snapshot entry", clazz.getName());
+			descriptors.remove(clazz.getName());
+			return null;
+		}
+		final PropertyDescriptor[] result = new PropertyDescriptor[rows.length];
+		for (int i = 0; i < rows.length; i++) {
+			final String[] row = rows[i];
+			try {
+				final Method read = row[1] != null ? clazz.getMethod(row[1]) : null;
+				final Method write = row[2] != null ? clazz.getMethod(row[2], resolveType(row[3],
+						clazz.getClassLoader())) : null;
+				result[i] = new PropertyDescriptor(row[0], read, write);
+			} catch (NoSuchMethodException nsme) {
+				return discard(clazz, row[0]);
+			} catch (ClassNotFoundException cnfe) {
+				return discard(clazz, row[0]);
+			} catch (IntrospectionException iexp) {
+				return discard(clazz, row[0]);
+			}
+		}
+		return result;
+	}
+
+	private PropertyDescriptor[] discard(final Class<?> clazz, final String property) {
+		LOG.debug("Property {} of {} has changed, discarding snapshot entry", property, clazz.getName());
+		descriptors.remove(clazz.getName());
+		return null;
+	}
+
+	private static Class<?> resolveType(final String name, final ClassLoader loader) throws ClassNotFoundException {
+		final Class<?> primitive = PRIMITIVES.get(name);
+		if (primitive != null) {
+			return primitive;
+		}
+		return Class.forName(name, false, loader);
+	}
+
+	/**
+	 * @param clazz
+	 *            class
+	 * @param classDescriptors
+	 *            property descriptors of the class
+	 */
+	void putDescriptors(final Class<?> clazz, final PropertyDescriptor[] classDescriptors) {
+		final String[][] rows = new String[classDescriptors.length][];
+		for (int i = 0; i < classDescriptors.length; i++) {
+			final PropertyDescriptor descriptor = classDescriptors[i];
+			final Method read = descriptor.getReadMethod();
+			final Method write = descriptor.getWriteMethod();
+			rows[i] = new String[] { descriptor.getName(), read != null ? read.getName() : null,
+					write != null ? write.getName() : null,
+					write != null ? write.getParameterTypes()[0].getName() : null };
+		}
+		fingerprints.put(clazz.getName(), FINGERPRINTS.get(clazz));
+		descriptors.put(clazz.getName(), rows);
+	}
+
+	/**
+	 * Record class that was inspected before this snapshot was put in use: its property descriptors and GeDA
+	 * annotations of fields declared by the class and its superclasses. Entries that are already in the snapshot are
+	 * kept.
+	 *
+	 * @param clazz
+	 *            class
+	 * @param classDescriptors
+	 *            property descriptors of the class
+	 */
+	void record(final Class<?> clazz, final PropertyDescriptor[] classDescriptors) {
+		if (!descriptors.containsKey(clazz.getName())) {
+			putDescriptors(clazz, classDescriptors);
+		}
+		Class<?> current = clazz;
+		while (current != null && current != Object.class) {
+			for (final Field field : current.getDeclaredFields()) {
+				if (!annotations.containsKey(fieldKey(field))) {
+					final Map<String, AnnotationProxy> proxies = AnnotationProxies.getFieldAnnotationProxy(field);
+					if (!proxies.isEmpty()) {
+						putFieldAnnotations(field, proxies);
+					}
+				}
+			}
+			current = current.getSuperclass();
+		}
+	}
+
+	/**
+	 * @param field
+	 *            DTO field
+	 * @return annotation proxies for the field or null if field is not in snapshot (or it has changed)
+	 */
+	Map<String, AnnotationProxy> getFieldAnnotations(final Field field) {
+		final String key = fieldKey(field);
+		final Map<String, Map<String, Object>> fieldAnnotations = annotations.get(key);
+		if (fieldAnnotations == null) {
+			return null;
+		}
+		if (!isCurrent(key, field.getDeclaringClass())) {
+			LOG.debug("Class {} has changed, discarding snapshot entry {}", field.getDeclaringClass().getName(), key);
+			annotations.remove(key);
+			return null;
+		}
+		final ClassLoader loader = field.getDeclaringClass().getClassLoader();
+		final Map<String, AnnotationProxy> proxies = new HashMap<String, AnnotationProxy>();
+		for (final Map.Entry<String, Map<String, Object>> annotation : fieldAnnotations.entrySet()) {
+			final Map<String, Object> values = new HashMap<String, Object>();
+			for (final Map.Entry<String, Object> value : annotation.getValue().entrySet()) {
+				if (value.getValue() instanceof ClassName) {
+					final String className = ((ClassName) value.getValue()).name;
+					try {
+						values.put(value.getKey(), Class.forName(className, false, loader));
+					} catch (ClassNotFoundException cnfe) {
+						LOG.debug("Class {} not found, discarding snapshot entry {}", className, key);
+						annotations.remove(key);
+						return null;
+					}
+				} else {
+					values.put(value.getKey(), value.getValue());
+				}
+			}
+			proxies.put(annotation.getKey(), new SnapshotAnnotationProxy(values));
+		}
+		return proxies;
+	}
+
+	/**
+	 * @param field
+	 *            DTO field
+	 * @param proxies
+	 *            annotation proxies for the field
+	 */
+	void putFieldAnnotations(final Field field, final Map<String, AnnotationProxy> proxies) {
+		final Map<String, Map<String, Object>> fieldAnnotations = new HashMap<String, Map<String, Object>>();
+		for (final Map.Entry<String, AnnotationProxy> proxy : proxies.entrySet()) {
+			final String[] properties = AnnotationProxies.getFieldAnnotationProperties(proxy.getKey());
+			if (properties == null) {
+				return; // not a GeDA annotation, cannot be recorded
+			}
+			final Map<String, Object> values = new HashMap<String, Object>();
+			for (final String property : properties) {
+				final Object value = proxy.getValue().getValue(property);
+				if (value instanceof Class) {
+					values.put(property, new ClassName(((Class<?>) value).getName()));
+				} else if (value instanceof String[]) {
+					values.put(property, ((String[]) value).clone());
+				} else {
+					values.put(property, value);
+				}
+			}
+			fieldAnnotations.put(proxy.getKey(), values);
+		}
+		fingerprints.put(fieldKey(field), FINGERPRINTS.get(field.getDeclaringClass()));
+		annotations.put(fieldKey(field), fieldAnnotations);
+	}
+
+	private static String fieldKey(final Field field) {
+		return field.getDeclaringClass().getName() + "#" + field.getName();
+	}
+
+	private boolean isCurrent(final String key, final Class<?> clazz) {
+		final Long fingerprint = FINGERPRINTS.get(clazz);
+		return fingerprint.longValue() != NO_FINGERPRINT && fingerprint.equals(fingerprints.get(key));
+	}
+
+	/*
+	 * Cheap token of the class file, which does not need reflection: CRC and size of jar entry (taken from jar
+	 * directory, class file itself is not read), size and modification time of class file in a directory, or CRC of
+	 * class file bytes in other locations. Combined with fingerprints of superclass and interfaces, since their
+	 * methods make up properties of the class too. Classes of bootstrap class loader are not tracked.
+	 */
+	private static long computeFingerprint(final Class<?> clazz) {
+		final ClassLoader loader = clazz.getClassLoader();
+		if (loader == null) {
+			return FNV_OFFSET;
+		}
+		long hash = mix(FNV_OFFSET, getClassFileToken(clazz, loader));
+		if (clazz.getSuperclass() != null) {
+			hash = mix(hash, FINGERPRINTS.get(clazz.getSuperclass()).longValue());
+		}
+		for (final Class<?> iface : clazz.getInterfaces()) {
+			hash = mix(hash, FINGERPRINTS.get(iface).longValue());
+		}
+		return hash;
+	}
+
+	private static long getClassFileToken(final Class<?> clazz, final ClassLoader loader) {
+		final URL url = loader.getResource(clazz.getName().replace('.', '/') + ".class");
+		if (url == null) {
+			return NO_FINGERPRINT;
+		}
+		InputStream is = null;
+		try {
+			final URLConnection connection = url.openConnection();
+			if (connection instanceof JarURLConnection) {
+				final JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+				if (entry != null && entry.getCrc() != -1L) {
+					return mix(entry.getCrc(), entry.getSize());
+				}
+			} else if ("file".equals(url.getProtocol())) {
+				final File file = new File(url.toURI());
+				return mix(file.lastModified(), file.length());
+			}
+			is = connection.getInputStream();
+			final CRC32 crc = new CRC32();
+			final byte[] buffer = new byte[4096];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+			return crc.getValue();
+		} catch (IOException ioe) {
+			return NO_FINGERPRINT;
+		} catch (URISyntaxException use) {
+			return NO_FINGERPRINT;
+		} catch (IllegalArgumentException iae) {
+			return NO_FINGERPRINT; // not a hierarchical file URI
+		} finally {
+			if (is != null) {
+				try {
+					is.close();
+				} catch (IOException ioe) {
+					// nothing we can do
+				}
+			}
+		}
+	}
+
+	private static long mix(final long hash, final long value) {
+		if (hash == NO_FINGERPRINT || value == NO_FINGERPRINT) {
+			return NO_FINGERPRINT;
+		}
+		long result = hash;
+		for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+			result ^= (value >>> shift) & 0xff;
+			result *= FNV_PRIME;
+		}
+		return result == NO_FINGERPRINT ? result + 1 : result;
+	}
+
+	/*
+	 * Class valued annotation property, resolved when snapshot is used.
+	 */
+	private static final class ClassName implements Serializable {
+
+		private static final long serialVersionUID = 20131015L;
+
+		private final String name;
+
+		ClassName(final String name) {
+			this.name = name;
+		}
+
+	}
+
+	/*
+	 * Annotation proxy over recorded values.
+	 */
+	private static final class SnapshotAnnotationProxy implements AnnotationProxy {
+
+		private final Map<String, Object> values;
+
+		SnapshotAnnotationProxy(final Map<String, Object> values) {
+			this.values = values;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public boolean annotationExists() {
+			return true;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T getValue(final String property) {
+			return (T) values.get(property);
+		}
+
+	}
+
+	/*
+	 * Only resolves classes that snapshot consists of, so that loading a snapshot never instantiates anything else.
+	 */
+	private static final class SnapshotInputStream extends ObjectInputStream {
+
+		SnapshotInputStream(final InputStream in) throws IOException {
+			super(in);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if (!SERIALIZABLE.contains(desc.getName())) {
+				throw new InvalidClassException(desc.getName(), "Not allowed in mapping snapshot");
+			}
+			return super.resolveClass(desc);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+			throw new InvalidClassException("Proxy classes are not allowed in mapping snapshot");
+		}
+
+	}
+
+}
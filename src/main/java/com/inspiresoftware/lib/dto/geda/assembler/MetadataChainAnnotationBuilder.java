@@ -39,7 +39,7 @@ class MetadataChainAnnotationBuilder implements MetadataChainBuilder {
 	@Override
 	public List<PipeMetadata> build(final Field dtoField) throws UnableToCreateInstanceException {
 
-		final Map<String, AnnotationProxy> dtoFieldAnn = AnnotationProxies.getFieldAnnotationProxy(dtoField);
+		final Map<String, AnnotationProxy> dtoFieldAnn = getFieldAnnotationProxy(dtoField);
 
 		if (dtoFieldAnn.isEmpty()) {
 			return null;
@@ -66,6 +66,23 @@ class MetadataChainAnnotationBuilder implements MetadataChainBuilder {
 
 	}
 
+	/*
+	 * Annotations are taken from mapping snapshot if one is in use.
+	 */
+	private static Map<String, AnnotationProxy> getFieldAnnotationProxy(final Field dtoField) {
+		final MappingSnapshot snapshot = MappingSnapshot.getActive();
+		if (snapshot == null) {
+			return AnnotationProxies.getFieldAnnotationProxy(dtoField);
+		}
+		final Map<String, AnnotationProxy> recorded = snapshot.getFieldAnnotations(dtoField);
+		if (recorded != null) {
+			return recorded;
+		}
+		final Map<String, AnnotationProxy> proxies = AnnotationProxies.getFieldAnnotationProxy(dtoField);
+		snapshot.putFieldAnnotations(dtoField, proxies);
+		return proxies;
+	}
+
 	private List<PipeMetadata> buildVirtualFieldChain(final Field dtoField, final AnnotationProxy dtoFieldAnn) {
 
 		final String[] bindings = { "#this#" + dtoField.getName() };
@@ -114,7 +131,9 @@ class MetadataChainAnnotationBuilder implements MetadataChainBuilder {
 					.getValue("entityCollectionClass"), (String) dtoCollAnn
 					.getValue("entityCollectionClassKey"), (Class) dtoCollAnn.getValue("entityGenericType"),
 					(String) dtoCollAnn.getValue("entityGenericTypeKey"), (Class) dtoCollAnn
-					.getValue("dtoToEntityMatcher"), (String) dtoCollAnn.getValue("dtoToEntityMatcherKey")));
+					.getValue("dtoToEntityMatcher"), (String) dtoCollAnn.getValue("dtoToEntityMatcherKey"),
+					(String[]) dtoCollAnn.getValue("dtoItemKeyProperties"), (String[]) dtoCollAnn
+					.getValue("entityItemKeyProperties")));
 		}
 		return metas;
 	}
@@ -133,7 +133,8 @@ class MetadataChainDSLBuilder implements MetadataChainBuilder {
 					.getValueOfDtoCollectionClassKey(), dtoCollContext.getValueOfEntityCollectionClass(),
 					dtoCollContext.getValueOfEntityCollectionClassKey(), dtoCollContext.getValueOfEntityGenericType(),
 					dtoCollContext.getValueOfEntityGenericTypeKey(), dtoCollContext.getValueOfDtoToEntityMatcher(),
-					dtoCollContext.getValueOfDtoToEntityMatcherKey()));
+					dtoCollContext.getValueOfDtoToEntityMatcherKey(), dtoCollContext.getValueOfDtoItemKeyProperties(),
+					dtoCollContext.getValueOfEntityItemKeyProperties()));
 		}
 		return metas;
 	}
@@ -23,6 +23,9 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.inspiresoftware.lib.dto.geda.assembler.extension.BatchMethodSynthesizer;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataAssembler;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataAssemblerSynthesizer;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
@@ -38,7 +41,7 @@ import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceExceptio
  * @since 1.1.2
  *
  */
-class MethodSynthesizerProxy implements MethodSynthesizer {
+class MethodSynthesizerProxy implements MethodSynthesizer, DataAssemblerSynthesizer, BatchMethodSynthesizer {
 
 	private static final String DEFAULT = "javassist";
 
@@ -52,6 +55,13 @@ class MethodSynthesizerProxy implements MethodSynthesizer {
 		FACTORY.put("reflection",
 				"com.inspiresoftware.lib.dto.geda.assembler.extension.impl.ReflectionMethodSynthesizer");
 		FACTORY.put("bcel", "com.inspiresoftware.lib.dto.geda.assembler.extension.impl.BCELMethodSynthesizer");
+		FACTORY.put("methodhandle",
+				"com.inspiresoftware.lib.dto.geda.assembler.extension.impl.MethodHandleMethodSynthesizer");
+		FACTORY.put("javaxtools",
+				"com.inspiresoftware.lib.dto.geda.assembler.extension.impl.JavaxToolsMethodSynthesizer");
+		FACTORY.put("accessor",
+				"com.inspiresoftware.lib.dto.geda.assembler.extension.impl.JavassistAccessorMethodSynthesizer");
+		FACTORY.put("tiered", "com.inspiresoftware.lib.dto.geda.assembler.extension.impl.TieredMethodSynthesizer");
 	}
 
 	private final Lock lock = new ReentrantLock();
@@ -196,6 +206,38 @@ class MethodSynthesizerProxy implements MethodSynthesizer {
 		return syn.synthesizeWriter(descriptor);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public DataAssembler synthesizeAssembler(final Class<?> dtoClass, final Class<?> entityClass,
+			final PropertyDescriptor[] dtoWriteDescriptors, final PropertyDescriptor[][] entityReadDescriptors,
+			final PropertyDescriptor[] dtoReadDescriptors, final PropertyDescriptor[] entityWriteDescriptors)
+					throws InspectionPropertyNotFoundException, UnableToCreateInstanceException, GeDARuntimeException {
+		final MethodSynthesizer syn = lazyGet(clRef.get(), null);
+		if (syn instanceof DataAssemblerSynthesizer) {
+			return ((DataAssemblerSynthesizer) syn).synthesizeAssembler(dtoClass, entityClass, dtoWriteDescriptors,
+					entityReadDescriptors, dtoReadDescriptors, entityWriteDescriptors);
+		}
+		return null;
+	}
+
+	/**
+	 * @return true if underlying synthesizer supports batch preparation (see {@link BatchMethodSynthesizer}), so that
+	 *         assemblers only scan their properties for {@link #prepare} when it has an effect.
+	 */
+	boolean supportsBatch() {
+		return lazyGet(clRef.get(), null) instanceof BatchMethodSynthesizer;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void prepare(final PropertyDescriptor[] readDescriptors, final PropertyDescriptor[] writeDescriptors)
+			throws UnableToCreateInstanceException, GeDARuntimeException {
+		final MethodSynthesizer syn = lazyGet(clRef.get(), null);
+		if (syn instanceof BatchMethodSynthesizer) {
+			((BatchMethodSynthesizer) syn).prepare(readDescriptors, writeDescriptors);
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public boolean configure(final String configuration, final Object value) throws GeDAException {
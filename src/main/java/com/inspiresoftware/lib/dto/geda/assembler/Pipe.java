@@ -23,6 +23,7 @@ import com.inspiresoftware.lib.dto.geda.exception.BeanFactoryUnableToCreateInsta
 import com.inspiresoftware.lib.dto.geda.exception.CollectionEntityGenericReturnTypeException;
 import com.inspiresoftware.lib.dto.geda.exception.DtoToEntityMatcherNotFoundException;
 import com.inspiresoftware.lib.dto.geda.exception.EntityRetrieverNotFoundException;
+import com.inspiresoftware.lib.dto.geda.exception.GeDAException;
 import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
 import com.inspiresoftware.lib.dto.geda.exception.InspectionBindingNotFoundException;
 import com.inspiresoftware.lib.dto.geda.exception.InspectionInvalidDtoInstanceException;
@@ -49,6 +50,22 @@ interface Pipe {
 	 */
 	String getBinding();
 
+	/**
+	 * Create (or look up in cache) assembler for nested DTO of this pipe ahead of conversion. Nested DTO and entity
+	 * classes are resolved by bean keys and generic return types in the same way as during conversion, so the
+	 * assembler that is created is the one conversion will use.
+	 *
+	 * @param beanFactory
+	 *            bean factory for resolving nested DTO and entity bean keys (can be null)
+	 * @return nested assembler or null if this pipe has no nested DTO or its classes cannot be resolved without data
+	 *
+	 * @throws GeDAException
+	 *             if nested classes cannot be resolved or assembler cannot be created
+	 *
+	 * @since 3.1.0
+	 */
+	Assembler preloadAssembler(final BeanFactory beanFactory) throws GeDAException;
+
 	/**
 	 * write data from entity field to dto field.
 	 *
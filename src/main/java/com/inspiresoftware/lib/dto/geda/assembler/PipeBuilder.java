@@ -10,8 +10,6 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler;
 
-import java.beans.PropertyDescriptor;
-
 import com.inspiresoftware.lib.dto.geda.assembler.meta.PipeMetadata;
 import com.inspiresoftware.lib.dto.geda.exception.GeDAException;
 
@@ -29,10 +27,10 @@ interface PipeBuilder<T extends PipeMetadata> {
 	 *            dto class
 	 * @param entityClass
 	 *            entity class
-	 * @param dtoPropertyDescriptors
-	 *            all DTO descriptors.
-	 * @param entityPropertyDescriptors
-	 *            all entity descriptors
+	 * @param dtoProperties
+	 *            all DTO properties.
+	 * @param entityProperties
+	 *            all entity properties
 	 * @param meta
 	 *            meta data for this pipe
 	 * @param pipe
@@ -44,7 +42,7 @@ interface PipeBuilder<T extends PipeMetadata> {
 	 *             in case of exceptions
 	 */
 	Pipe build(AssemblerContext context, Class dtoClass, Class entityClass,
-			PropertyDescriptor[] dtoPropertyDescriptors, PropertyDescriptor[] entityPropertyDescriptors, T meta,
+			PropertyIndex dtoProperties, PropertyIndex entityProperties, T meta,
 			Pipe pipe) throws GeDAException;
 
 }
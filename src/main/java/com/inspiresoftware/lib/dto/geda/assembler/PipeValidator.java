@@ -145,6 +145,35 @@ final class PipeValidator {
 		validateWritePipeTypes(registry, dtoRead, dtoField, entityWrite, entityField);
 	}
 
+	/**
+	 * Validates that DTO and Entity item key properties have compatible types, since keys of types that are not
+	 * assignable either way (e.g. Integer and Long) are never equal.
+	 *
+	 * @param dtoRead
+	 *            method for reading key property of DTO item
+	 * @param dtoField
+	 *            dto key property
+	 * @param entityRead
+	 *            method for reading key property of Entity item
+	 * @param entityField
+	 *            entity key property
+	 * @throws AnnotationValidatingBindingException
+	 *             if key types do not match
+	 */
+	static void validateKeyTypes(final DataReader dtoRead, final String dtoField, final DataReader entityRead,
+			final String entityField) throws AnnotationValidatingBindingException {
+
+		final Class<?> dtoKeyClass = dtoRead.getReturnType();
+		final Class<?> entityKeyClass = entityRead.getReturnType();
+
+		if (!dtoKeyClass.isAssignableFrom(entityKeyClass) && !entityKeyClass.isAssignableFrom(dtoKeyClass)
+				&& !sameDataType(dtoKeyClass, entityKeyClass)) {
+			throw new AnnotationValidatingBindingException(dtoField, dtoRead.getClass().getName(),
+					dtoKeyClass.getSimpleName(), entityField, entityRead.getClass().getName(),
+					entityKeyClass.getSimpleName(), true);
+		}
+	}
+
 	private static boolean sameDataType(final Class<?> data1, final Class<?> data2) {
 		return data1.equals(data2)
 				|| (data1.isPrimitive() && !data2.isPrimitive() && samePrimitiveDataType(data2, data1))
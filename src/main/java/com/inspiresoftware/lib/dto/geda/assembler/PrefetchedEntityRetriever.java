@@ -0,0 +1,96 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.inspiresoftware.lib.dto.geda.adapter.BatchEntityRetriever;
+import com.inspiresoftware.lib.dto.geda.adapter.EntityRetriever;
+
+/**
+ * Retriever used for a single {@link Assembler#assembleEntities} call in place of {@link BatchEntityRetriever}.
+ * Parent pipes prefetch entities for primary keys of the whole batch through it, and single entity look ups are
+ * answered from prefetched entities (primary keys that were not prefetched go to the batch retriever as usual).
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+@SuppressWarnings("unchecked")
+final class PrefetchedEntityRetriever implements EntityRetriever {
+
+	private final BatchEntityRetriever retriever;
+
+	private final List<Prefetch> prefetched = new ArrayList<Prefetch>(2);
+
+	/**
+	 * @param retriever
+	 *            batch retriever
+	 */
+	PrefetchedEntityRetriever(final BatchEntityRetriever retriever) {
+		this.retriever = retriever;
+	}
+
+	/**
+	 * Retrieve entities for given primary keys in one call.
+	 *
+	 * @param entityInterface
+	 *            interface that is used on DTO
+	 * @param entityClass
+	 *            the concrete class that is used by entity object
+	 * @param primaryKeys
+	 *            unique not null primary keys
+	 */
+	void prefetch(final Class entityInterface, final Class entityClass, final Set primaryKeys) {
+		Map<Object, Object> entities = retriever.retrieveByPrimaryKeys(entityInterface, entityClass, primaryKeys);
+		if (entities == null) {
+			entities = Collections.emptyMap();
+		}
+		prefetched.add(new Prefetch(entityInterface, entityClass, primaryKeys, entities));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Object retrieveByPrimaryKey(final Class entityInterface, final Class entityClass, final Object primaryKey) {
+		for (final Prefetch prefetch : prefetched) {
+			if (prefetch.entityInterface == entityInterface && prefetch.entityClass == entityClass
+					&& prefetch.primaryKeys.contains(primaryKey)) {
+				return prefetch.entities.get(primaryKey); // not found in batch means not found at all
+			}
+		}
+		return retriever.retrieveByPrimaryKey(entityInterface, entityClass, primaryKey);
+	}
+
+	/*
+	 * Entities retrieved for one parent type.
+	 */
+	private static final class Prefetch {
+
+		private final Class entityInterface;
+		private final Class entityClass;
+		private final Set primaryKeys;
+		private final Map<Object, Object> entities;
+
+		Prefetch(final Class entityInterface, final Class entityClass, final Set primaryKeys,
+				final Map<Object, Object> entities) {
+			this.entityInterface = entityInterface;
+			this.entityClass = entityClass;
+			this.primaryKeys = primaryKeys;
+			this.entities = entities;
+		}
+
+	}
+
+}
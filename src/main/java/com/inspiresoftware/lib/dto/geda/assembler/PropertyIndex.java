@@ -0,0 +1,136 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
+
+/**
+ * Properties of a single class indexed by name. Index is computed once per class (see
+ * {@link PropertyInspector#getPropertyIndexForClass(Class)}) and is shared by all assemblers, so looking up property
+ * for a field is constant time and bean info is never constructed twice for the same class.
+ *
+ * Interfaces may inherit getter and setter of the same property from different super interfaces, in which case
+ * indexed property combines both.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+final class PropertyIndex {
+
+	private final Class<?> clazz;
+	private final PropertyDescriptor[] descriptors;
+
+	/*
+	 * Property name to exactly matching descriptor (first one in case of duplicates).
+	 */
+	private final Map<String, PropertyDescriptor> byName;
+
+	/*
+	 * Property name to best descriptor (full get/set, getter combined with setter from other
+	 * interface or read only).
+	 */
+	private final Map<String, PropertyDescriptor> bestByName;
+
+	/*
+	 * Properties whose getter and setter cannot be combined (reported only when such property is bound).
+	 */
+	private final Set<String> uncombinable = new HashSet<String>();
+
+	/**
+	 * @param clazz
+	 *            indexed class
+	 * @param descriptors
+	 *            all descriptors of the class
+	 */
+	PropertyIndex(final Class<?> clazz, final PropertyDescriptor[] descriptors) {
+		this.clazz = clazz;
+		this.descriptors = descriptors;
+		this.byName = new HashMap<String, PropertyDescriptor>(descriptors.length * 2);
+		this.bestByName = new HashMap<String, PropertyDescriptor>(descriptors.length * 2);
+
+		final Map<String, PropertyDescriptor> reads = new HashMap<String, PropertyDescriptor>();
+		final Map<String, PropertyDescriptor> writes = new HashMap<String, PropertyDescriptor>();
+		for (final PropertyDescriptor descriptor : descriptors) {
+			final String name = descriptor.getName();
+			if (!byName.containsKey(name)) {
+				byName.put(name, descriptor);
+			}
+			if (descriptor.getReadMethod() != null && descriptor.getWriteMethod() != null) {
+				// this is full get/set - best match
+				if (!bestByName.containsKey(name)) {
+					bestByName.put(name, descriptor);
+				}
+			} else if (descriptor.getReadMethod() != null) {
+				reads.put(name, descriptor);
+			} else if (descriptor.getWriteMethod() != null) {
+				writes.put(name, descriptor);
+			}
+		}
+
+		for (final Map.Entry<String, PropertyDescriptor> read : reads.entrySet()) {
+			if (bestByName.containsKey(read.getKey())) {
+				continue;
+			}
+			final PropertyDescriptor write = writes.get(read.getKey());
+			if (write == null) {
+				bestByName.put(read.getKey(), read.getValue());
+			} else {
+				try {
+					bestByName.put(read.getKey(), new PropertyDescriptor(read.getKey(), read.getValue()
+							.getReadMethod(), write.getWriteMethod()));
+				} catch (IntrospectionException iexp) {
+					uncombinable.add(read.getKey());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return all descriptors of the class (shared, must not be modified)
+	 */
+	PropertyDescriptor[] getDescriptors() {
+		return descriptors;
+	}
+
+	/**
+	 * @param name
+	 *            property name
+	 * @return descriptor with given name (or null)
+	 */
+	PropertyDescriptor get(final String name) {
+		return byName.get(name);
+	}
+
+	/**
+	 * @param name
+	 *            property name
+	 * @return most complete readable descriptor with given name (or null if property has no getter)
+	 *
+	 * @throws GeDARuntimeException
+	 *             if getter and setter of the property come from different interfaces and cannot be combined
+	 */
+	PropertyDescriptor getReadable(final String name) throws GeDARuntimeException {
+		if (uncombinable.contains(name)) {
+			throw new GeDARuntimeException("Unable to combine get and set for [" + clazz + "#" + name
+					+ "] from different interfaces into single property descriptor");
+		}
+		return bestByName.get(name);
+	}
+
+}
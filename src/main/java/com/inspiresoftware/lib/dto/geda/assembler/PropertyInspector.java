@@ -19,7 +19,10 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
 import com.inspiresoftware.lib.dto.geda.exception.InspectionBindingNotFoundException;
@@ -40,31 +43,94 @@ final class PropertyInspector {
 		// prevent instantiation
 	}
 
+	/*
+	 * Property index per class, computed once and shared by all assemblers (class value does not prevent class
+	 * from being unloaded).
+	 */
+	private static final ClassValue<PropertyIndex> INDEX = new ClassValue<PropertyIndex>() {
+		@Override
+		protected PropertyIndex computeValue(final Class<?> type) {
+			final PropertyIndex index = new PropertyIndex(type, resolveDescriptors(type));
+			INDEXED.add(type);
+			return index;
+		}
+	};
+
+	/*
+	 * Classes that have property index, so that they can be recorded to mapping snapshot put in use after they were
+	 * indexed (weak keys do not prevent classes from being unloaded).
+	 */
+	private static final Set<Class<?>> INDEXED = Collections.newSetFromMap(Collections
+			.synchronizedMap(new WeakHashMap<Class<?>, Boolean>()));
+
+	/**
+	 * Record all classes indexed so far to snapshot (classes indexed afterwards are recorded when their index is
+	 * computed, provided that snapshot is active).
+	 *
+	 * @param snapshot
+	 *            snapshot to record to
+	 */
+	static void recordIndexed(final MappingSnapshot snapshot) {
+		for (final Class<?> clazz : INDEXED.toArray(new Class<?>[0])) {
+			snapshot.record(clazz, INDEX.get(clazz).getDescriptors());
+		}
+	}
+
 	/**
 	 * @param descriptor
 	 *            the descriptor whose get method's return type will be inspected to retrieve all descriptors for it.
-	 * @return all descriptors for specified class with deep inheritance on interfaces.
+	 * @return property index for specified class with deep inheritance on interfaces.
 	 * @throws InspectionScanningException
 	 *             if fails to get bean info from a class
 	 */
-	public static PropertyDescriptor[] getPropertyDescriptorsForClassReturnedByGet(final PropertyDescriptor descriptor)
+	public static PropertyIndex getPropertyIndexForClassReturnedByGet(final PropertyDescriptor descriptor)
 			throws InspectionScanningException {
 
 		final Method entityFieldRead = descriptor.getReadMethod();
 		final Class returnType = getClassForType(entityFieldRead.getGenericReturnType());
-		return getPropertyDescriptorsForClass(returnType);
+		return getPropertyIndexForClass(returnType);
+
+	}
 
+	/**
+	 * @param clazz
+	 *            class to inspect.
+	 * @return property index for specified class with deep inheritance on interfaces.
+	 * @throws InspectionScanningException
+	 *             if fails to get bean info from a class
+	 */
+	public static PropertyIndex getPropertyIndexForClass(final Class clazz) throws InspectionScanningException {
+		return INDEX.get(clazz);
 	}
 
 	/**
 	 * @param clazz
 	 *            class to inspect.
-	 * @return all descriptors for specified class with deep inheritance on interfaces.
+	 * @return all descriptors for specified class with deep inheritance on interfaces (shared, must not be
+	 *         modified).
 	 * @throws InspectionScanningException
 	 *             if fails to get bean info from a class
 	 */
 	public static PropertyDescriptor[] getPropertyDescriptorsForClass(final Class clazz)
 			throws InspectionScanningException {
+		return getPropertyIndexForClass(clazz).getDescriptors();
+	}
+
+	private static PropertyDescriptor[] resolveDescriptors(final Class clazz) throws InspectionScanningException {
+		final MappingSnapshot snapshot = MappingSnapshot.getActive();
+		if (snapshot == null) {
+			return introspect(clazz);
+		}
+		final PropertyDescriptor[] recorded = snapshot.getDescriptors(clazz);
+		if (recorded != null) {
+			return recorded;
+		}
+		final PropertyDescriptor[] descriptors = introspect(clazz);
+		snapshot.putDescriptors(clazz, descriptors);
+		return descriptors;
+	}
+
+	private static PropertyDescriptor[] introspect(final Class clazz) throws InspectionScanningException {
 		try {
 			PropertyDescriptor[] basic = Introspector.getBeanInfo(clazz, Introspector.USE_ALL_BEANINFO)
 					.getPropertyDescriptors();
@@ -113,45 +179,19 @@ final class PropertyInspector {
 	 *            the DTO field
 	 * @param binding
 	 *            the Entity field binding
-	 * @param entityPropertyDescriptors
-	 *            all Entity property descriptors
+	 * @param entityProperties
+	 *            all Entity properties
 	 * @return property descriptor for Entity field.
 	 * @throws InspectionBindingNotFoundException
 	 *             thrown when unable to find descriptor for field.
 	 */
 	public static PropertyDescriptor getEntityPropertyDescriptorForField(final Class dtoClass, final Class entityClass,
-			final String dtoFieldName, final String binding, final PropertyDescriptor[] entityPropertyDescriptors)
+			final String dtoFieldName, final String binding, final PropertyIndex entityProperties)
 					throws InspectionBindingNotFoundException {
 
-		PropertyDescriptor candidateRead = null;
-		PropertyDescriptor candidateWrite = null;
-
-		for (PropertyDescriptor current : entityPropertyDescriptors) {
-			if (current.getName().equals(binding)) {
-				if (current.getReadMethod() != null && current.getWriteMethod() != null) {
-					// this is full get/set - best match
-					return current;
-				} else if (current.getReadMethod() != null) {
-					// has a get - good enough for readOnly
-					candidateRead = current;
-				} else if (current.getWriteMethod() != null) {
-					// has a get - save for later if we have a read candidate
-					candidateWrite = current;
-				}
-			}
-		}
-
-		if (candidateRead != null) {
-			if (candidateWrite != null) {
-				try {
-					return new PropertyDescriptor(candidateRead.getName(), candidateRead.getReadMethod(),
-							candidateWrite.getWriteMethod());
-				} catch (IntrospectionException iexp) {
-					throw new GeDARuntimeException("Unable to combine get and set for [" + entityClass + "#" + binding
-							+ "] from different interfaces into single property descriptor");
-				}
-			}
-			return candidateRead;
+		final PropertyDescriptor descriptor = entityProperties.getReadable(binding);
+		if (descriptor != null) {
+			return descriptor;
 		}
 
 		throw new InspectionBindingNotFoundException(dtoClass.getCanonicalName(), dtoFieldName,
@@ -163,19 +203,18 @@ final class PropertyInspector {
 	 *            the DTO
 	 * @param dtoFieldName
 	 *            the DTO field
-	 * @param dtoPropertyDescriptors
-	 *            all DTO property descriptors
+	 * @param dtoProperties
+	 *            all DTO properties
 	 * @return property descriptor for DTO field.
 	 * @throws InspectionPropertyNotFoundException
 	 *             thrown when unable to find descriptor for field.
 	 */
 	public static PropertyDescriptor getDtoPropertyDescriptorForField(final Class dtoClass, final String dtoFieldName,
-			final PropertyDescriptor[] dtoPropertyDescriptors) throws InspectionPropertyNotFoundException {
+			final PropertyIndex dtoProperties) throws InspectionPropertyNotFoundException {
 
-		for (PropertyDescriptor current : dtoPropertyDescriptors) {
-			if (current.getName().equals(dtoFieldName)) {
-				return current;
-			}
+		final PropertyDescriptor descriptor = dtoProperties.get(dtoFieldName);
+		if (descriptor != null) {
+			return descriptor;
 		}
 
 		throw new InspectionPropertyNotFoundException(dtoClass.getCanonicalName(), dtoFieldName);
@@ -0,0 +1,214 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+
+import com.inspiresoftware.lib.dto.geda.adapter.KeyedDtoToEntityMatcher;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.Cache;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.impl.BoundedCache;
+import com.inspiresoftware.lib.dto.geda.assembler.meta.PipeMetadata;
+import com.inspiresoftware.lib.dto.geda.exception.AnnotationValidatingBindingException;
+import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
+import com.inspiresoftware.lib.dto.geda.exception.InspectionPropertyNotFoundException;
+import com.inspiresoftware.lib.dto.geda.exception.InspectionScanningException;
+import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceException;
+
+/**
+ * Keyed matcher that reads item keys from named properties of DTO and Entity items (see
+ * {@link com.inspiresoftware.lib.dto.geda.annotations.DtoCollection#dtoItemKeyProperties()}). Several properties make
+ * a composite key, which is null if any of its properties is null.
+ *
+ * Instance created by metadata only holds key properties. Pipe binds it to assembler's {@link MethodSynthesizer}, so
+ * that keys are read by synthesized {@link DataReader}s, and to item classes, so that DTO and Entity keys of
+ * incompatible types (e.g. Integer and Long, which are never equal) fail when the pipe is built.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+final class PropertyKeyDtoToEntityMatcher implements KeyedDtoToEntityMatcher<Object, Object> {
+
+	private static final int KEY_READERS_MAX_SIZE = 32;
+
+	private final String[] dtoKeyProperties;
+	private final String[] entityKeyProperties;
+
+	private final String dtoFieldName;
+	private final MethodSynthesizer synthesizer;
+
+	/*
+	 * Key readers by item class, bounded so that matcher does not hold on to every item class it has ever seen.
+	 */
+	private final Cache<Class, DataReader[]> dtoKeyReaders = newKeyReadersCache();
+	private final Cache<Class, DataReader[]> entityKeyReaders = newKeyReadersCache();
+
+	/*
+	 * Readers of first resolved DTO and Entity item classes, which readers of other item classes are validated
+	 * against.
+	 */
+	private volatile DataReader[] firstDtoReaders;
+	private volatile DataReader[] firstEntityReaders;
+
+	/**
+	 * @param dtoKeyProperties
+	 *            key properties of DTO item
+	 * @param entityKeyProperties
+	 *            key properties of Entity item (in the same order as DTO properties)
+	 */
+	PropertyKeyDtoToEntityMatcher(final String[] dtoKeyProperties, final String[] entityKeyProperties) {
+		this(dtoKeyProperties.clone(), entityKeyProperties.clone(), null, null);
+	}
+
+	private PropertyKeyDtoToEntityMatcher(final String[] dtoKeyProperties, final String[] entityKeyProperties,
+			final String dtoFieldName, final MethodSynthesizer synthesizer) {
+		this.dtoKeyProperties = dtoKeyProperties;
+		this.entityKeyProperties = entityKeyProperties;
+		this.dtoFieldName = dtoFieldName;
+		this.synthesizer = synthesizer;
+	}
+
+	/**
+	 * @param meta
+	 *            collection pipe metadata
+	 * @param synthesizer
+	 *            synthesizer of the assembler that builds the pipe
+	 * @param dtoItemClass
+	 *            DTO item class (or null if it is only known from data)
+	 * @param entityItemClass
+	 *            Entity item class (or null if it is only known from data)
+	 * @return matcher bound to the pipe, or null if items of this pipe are not matched by key properties
+	 *
+	 * @throws InspectionPropertyNotFoundException
+	 *             if item class does not have key property
+	 * @throws AnnotationValidatingBindingException
+	 *             if DTO and Entity key properties have incompatible types
+	 */
+	static PropertyKeyDtoToEntityMatcher bind(final PipeMetadata meta, final MethodSynthesizer synthesizer,
+			final Class dtoItemClass, final Class entityItemClass) throws InspectionPropertyNotFoundException,
+			InspectionScanningException, UnableToCreateInstanceException, AnnotationValidatingBindingException {
+		if (!(meta instanceof CollectionPipeMetadata)) {
+			return null;
+		}
+		final PropertyKeyDtoToEntityMatcher unbound = ((CollectionPipeMetadata) meta).getKeyPropertiesMatcher();
+		if (unbound == null) {
+			return null;
+		}
+		final PropertyKeyDtoToEntityMatcher bound = new PropertyKeyDtoToEntityMatcher(unbound.dtoKeyProperties,
+				unbound.entityKeyProperties, meta.getDtoFieldName(), synthesizer);
+		if (dtoItemClass != null) {
+			bound.getReaders(dtoItemClass, true);
+		}
+		if (entityItemClass != null) {
+			bound.getReaders(entityItemClass, false);
+		}
+		return bound;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean match(final Object dto, final Object entity) {
+		final Object key = getDtoKey(dto);
+		return key != null && key.equals(getEntityKey(entity));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Object getDtoKey(final Object dto) {
+		return readKey(dto, true);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Object getEntityKey(final Object entity) {
+		return readKey(entity, false);
+	}
+
+	private Object readKey(final Object item, final boolean dto) {
+		if (item == null) {
+			return null;
+		}
+		final DataReader[] readers = getReaders(item.getClass(), dto);
+		if (readers.length == 1) {
+			return readers[0].read(item);
+		}
+		final Object[] key = new Object[readers.length];
+		for (int i = 0; i < readers.length; i++) {
+			key[i] = readers[i].read(item);
+			if (key[i] == null) {
+				return null;
+			}
+		}
+		return Arrays.asList(key);
+	}
+
+	private DataReader[] getReaders(final Class clazz, final boolean dto) throws InspectionPropertyNotFoundException,
+			InspectionScanningException, UnableToCreateInstanceException, AnnotationValidatingBindingException {
+		final Cache<Class, DataReader[]> cache = dto ? dtoKeyReaders : entityKeyReaders;
+		DataReader[] readers = cache.get(clazz);
+		if (readers == null) {
+			readers = resolveReaders(clazz, dto);
+			cache.put(clazz, readers);
+		}
+		return readers;
+	}
+
+	private static Cache<Class, DataReader[]> newKeyReadersCache() {
+		final Cache<Class, DataReader[]> cache = new BoundedCache<Class, DataReader[]>();
+		cache.configure("maxSize", KEY_READERS_MAX_SIZE);
+		return cache;
+	}
+
+	private DataReader[] resolveReaders(final Class clazz, final boolean dto)
+			throws InspectionPropertyNotFoundException, InspectionScanningException,
+			UnableToCreateInstanceException, AnnotationValidatingBindingException {
+		if (synthesizer == null) {
+			throw new GeDARuntimeException("Key properties matcher of " + Arrays.toString(dtoKeyProperties)
+					+ " is used before it is bound to a pipe");
+		}
+		final String[] properties = dto ? dtoKeyProperties : entityKeyProperties;
+		final PropertyIndex index = PropertyInspector.getPropertyIndexForClass(clazz);
+		final DataReader[] readers = new DataReader[properties.length];
+		for (int i = 0; i < properties.length; i++) {
+			final PropertyDescriptor descriptor = index.getReadable(properties[i]);
+			if (descriptor == null || descriptor.getReadMethod() == null) {
+				throw new InspectionPropertyNotFoundException(clazz.getCanonicalName(), properties[i]);
+			}
+			readers[i] = synthesizer.synthesizeReader(descriptor);
+		}
+		if (dto) {
+			validateKeyTypes(readers, firstEntityReaders);
+			if (firstDtoReaders == null) {
+				firstDtoReaders = readers;
+			}
+		} else {
+			validateKeyTypes(firstDtoReaders, readers);
+			if (firstEntityReaders == null) {
+				firstEntityReaders = readers;
+			}
+		}
+		return readers;
+	}
+
+	private void validateKeyTypes(final DataReader[] dtoReaders, final DataReader[] entityReaders)
+			throws AnnotationValidatingBindingException {
+		if (dtoReaders != null && entityReaders != null) {
+			for (int i = 0; i < dtoReaders.length; i++) {
+				PipeValidator.validateKeyTypes(dtoReaders[i], dtoFieldName + "." + dtoKeyProperties[i],
+						entityReaders[i], entityKeyProperties[i]);
+			}
+		}
+	}
+
+}
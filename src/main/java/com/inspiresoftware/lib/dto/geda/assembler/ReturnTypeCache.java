@@ -0,0 +1,68 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import java.lang.ref.WeakReference;
+
+import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
+
+/**
+ * Per pipe cache of collection/map item type resolved by pipe metadata (getReturnType). Type may be declared by bean
+ * factory key, so it is cached for the last bean factory only. Pipes almost always see the same bean factory, so
+ * this lets them skip the bean factory lookup on every write.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+final class ReturnTypeCache {
+
+	private volatile Resolved resolved;
+
+	/**
+	 * @param beanFactory
+	 *            bean factory the type was resolved with
+	 * @return cached type, or null if type was not resolved with this bean factory yet
+	 */
+	Class<?> get(final BeanFactory beanFactory) {
+		final Resolved current = resolved;
+		if (current != null && current.beanFactory.get() == beanFactory) {
+			return current.type;
+		}
+		return null;
+	}
+
+	/**
+	 * @param beanFactory
+	 *            bean factory the type was resolved with
+	 * @param type
+	 *            resolved type
+	 */
+	void put(final BeanFactory beanFactory, final Class<?> type) {
+		resolved = new Resolved(beanFactory, type);
+	}
+
+	/*
+	 * Immutable cache entry. Bean factory is only weakly referenced, since pipes outlive it.
+	 */
+	private static final class Resolved {
+
+		private final WeakReference<BeanFactory> beanFactory;
+		private final Class<?> type;
+
+		Resolved(final BeanFactory beanFactory, final Class<?> type) {
+			this.beanFactory = new WeakReference<BeanFactory>(beanFactory);
+			this.type = type;
+		}
+
+	}
+
+}
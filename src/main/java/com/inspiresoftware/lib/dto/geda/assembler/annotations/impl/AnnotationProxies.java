@@ -86,7 +86,7 @@ public final class AnnotationProxies {
 		REFLECTIVE_PROPERTIES.put("com.inspiresoftware.lib.dto.geda.annotations.DtoCollection", new String[] { "value",
 				"readOnly", "entityCollectionClass", "entityCollectionClassKey", "dtoCollectionClass",
 				"dtoCollectionClassKey", "entityBeanKeys", "dtoBeanKey", "entityGenericType", "entityGenericTypeKey",
-				"dtoToEntityMatcher", "dtoToEntityMatcherKey" });
+				"dtoToEntityMatcher", "dtoToEntityMatcherKey", "dtoItemKeyProperties", "entityItemKeyProperties" });
 		REFLECTIVE_PROPERTIES.put("com.inspiresoftware.lib.dto.geda.annotations.DtoMap", new String[] { "value",
 				"readOnly", "entityMapOrCollectionClass", "entityMapOrCollectionClassKey", "dtoMapClass",
 				"dtoMapClassKey", "entityBeanKeys", "dtoBeanKey", "entityGenericType", "entityGenericTypeKey",
@@ -126,4 +126,20 @@ public final class AnnotationProxies {
 		return anns;
 	}
 
+	/**
+	 * Get names of properties of field annotation that are used by GeDA.
+	 *
+	 * @param annotation
+	 *            simple name of the annotation (as used for keys by {@link #getFieldAnnotationProxy(Field)})
+	 *
+	 * @return property names (or null if this is not a GeDA field annotation)
+	 *
+	 * @since 3.1.0
+	 */
+	public static String[] getFieldAnnotationProperties(final String annotation) {
+		final String[] properties = REFLECTIVE_PROPERTIES.get("com.inspiresoftware.lib.dto.geda.annotations."
+				+ annotation);
+		return properties != null ? properties.clone() : null;
+	}
+
 }
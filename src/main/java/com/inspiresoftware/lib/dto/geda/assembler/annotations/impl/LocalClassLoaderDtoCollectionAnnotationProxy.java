@@ -62,6 +62,10 @@ public class LocalClassLoaderDtoCollectionAnnotationProxy implements AnnotationP
 			return (T) annotation.dtoToEntityMatcher();
 		} else if ("dtoToEntityMatcherKey".equals(property)) {
 			return (T) annotation.dtoToEntityMatcherKey();
+		} else if ("dtoItemKeyProperties".equals(property)) {
+			return (T) annotation.dtoItemKeyProperties();
+		} else if ("entityItemKeyProperties".equals(property)) {
+			return (T) annotation.entityItemKeyProperties();
 		}
 		throw new GeDARuntimeException("Invalid @DtoCollection annotation proxy access via property: " + property);
 	}
@@ -10,6 +10,8 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler.dsl.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -113,6 +115,12 @@ public class DefaultDSLRegistry implements Registry, BeanFactory, BeanFactoryPro
 		return dto(representative);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Collection<DtoContext> getDtoContexts() {
+		return new ArrayList<DtoContext>(contexts.values());
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public Class getClazz(final String entityBeanKey) {
@@ -43,6 +43,9 @@ public class DtoCollectionContextImpl implements DtoCollectionContext {
 	private Class<? extends DtoToEntityMatcher> dtoToEntityMatcher;
 	private String dtoToEntityMatcherKey;
 
+	private String[] dtoItemKeyProperties;
+	private String[] entityItemKeyProperties;
+
 	public DtoCollectionContextImpl(final DtoEntityContext dtoEntityContext, final String fieldName) {
 		this.dtoEntityContext = dtoEntityContext;
 		dtoField = fieldName;
@@ -138,6 +141,20 @@ public class DtoCollectionContextImpl implements DtoCollectionContext {
 		return this;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public DtoCollectionContext dtoItemKeyProperties(final String... dtoItemKeyProperties) {
+		this.dtoItemKeyProperties = dtoItemKeyProperties;
+		return this;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public DtoCollectionContext entityItemKeyProperties(final String... entityItemKeyProperties) {
+		this.entityItemKeyProperties = entityItemKeyProperties;
+		return this;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public DtoEntityContext and() {
@@ -222,4 +239,16 @@ public class DtoCollectionContextImpl implements DtoCollectionContext {
 		return dtoToEntityMatcherKey;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public String[] getValueOfDtoItemKeyProperties() {
+		return dtoItemKeyProperties;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String[] getValueOfEntityItemKeyProperties() {
+		return entityItemKeyProperties;
+	}
+
 }
@@ -10,6 +10,8 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler.dsl.impl;
 
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -135,6 +137,16 @@ public class DtoContextByClass implements DtoContext {
 		return null;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Collection<DtoEntityContext> getEntityContexts() {
+		final Map<DtoEntityContext, Boolean> unique = new IdentityHashMap<DtoEntityContext, Boolean>();
+		for (final DtoEntityContext ctx : contexts.values()) {
+			unique.put(ctx, Boolean.TRUE);
+		}
+		return unique.keySet();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public DtoEntityContext useContextFor(final DtoEntityContext ctx, final Class entityClass) {
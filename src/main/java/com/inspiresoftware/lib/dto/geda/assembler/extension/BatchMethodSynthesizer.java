@@ -0,0 +1,46 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension;
+
+import java.beans.PropertyDescriptor;
+
+import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
+import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceException;
+
+/**
+ * Optional extension of {@link MethodSynthesizer} for synthesizers that can generate many readers and writers at
+ * once (e.g. single compilation task) more efficiently than one at a time.
+ *
+ * @author Denis Pavlov
+ * @since 3.1.0
+ *
+ */
+public interface BatchMethodSynthesizer {
+
+	/**
+	 * Prepare readers and writers for given descriptors in one go. This is only a hint - readers and writers are still
+	 * obtained via {@link MethodSynthesizer#synthesizeReader(PropertyDescriptor)} and
+	 * {@link MethodSynthesizer#synthesizeWriter(PropertyDescriptor)}, which will not need to generate anything for
+	 * prepared descriptors. Descriptors without read (or write) method are ignored.
+	 *
+	 * @param readDescriptors
+	 *            descriptors for which readers will be needed
+	 * @param writeDescriptors
+	 *            descriptors for which writers will be needed
+	 * @throws UnableToCreateInstanceException
+	 *             if unable to generate classes
+	 * @throws GeDARuntimeException
+	 *             unhandled situation with inability to determine types
+	 */
+	void prepare(PropertyDescriptor[] readDescriptors, PropertyDescriptor[] writeDescriptors)
+			throws UnableToCreateInstanceException, GeDARuntimeException;
+
+}
@@ -16,18 +16,21 @@ package com.inspiresoftware.lib.dto.geda.assembler.extension;
  * @author DPavlov
  * @since 1.1.0
  *
+ * @param <K>
+ *            key (must have well defined equals() and hashCode(), since 3.1.0 caches are keyed by full key rather
+ *            than by int hash)
  * @param <V>
  *            value
  *
  */
-public interface Cache<V> extends Configurable, DisposableContainer {
+public interface Cache<K, V> extends Configurable, DisposableContainer {
 
 	/**
 	 * @param key
 	 *            cache key
 	 * @return value or <code>null</code>
 	 */
-	V get(int key);
+	V get(K key);
 
 	/**
 	 * @param key
@@ -35,6 +38,6 @@ public interface Cache<V> extends Configurable, DisposableContainer {
 	 * @param value
 	 *            cache value
 	 */
-	void put(int key, V value);
+	void put(K key, V value);
 
 }
@@ -0,0 +1,37 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension;
+
+/**
+ * Listener notified when bounded {@link Cache} evicts an entry to make room for new one.
+ *
+ * Listener is invoked on the thread that caused the eviction, so it should be quick and must not access the cache.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ * @param <K>
+ *            key
+ * @param <V>
+ *            value
+ *
+ */
+public interface CacheEvictionListener<K, V> {
+
+	/**
+	 * @param key
+	 *            key of evicted entry
+	 * @param value
+	 *            evicted value
+	 */
+	void onEviction(K key, V value);
+
+}
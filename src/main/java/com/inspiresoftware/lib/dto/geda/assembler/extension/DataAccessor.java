@@ -0,0 +1,198 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension;
+
+/**
+ * Index based access to all getters and setters of a single class. Allows to have a single dynamic class per class
+ * instead of one {@link DataReader}/{@link DataWriter} class per property.
+ *
+ * Primitive variants allow to read and write values without boxing them into wrapper objects. Same as with
+ * {@link PrimitiveDataReader} and {@link PrimitiveDataWriter}, only the variant that corresponds to the type of the
+ * getter (setter) with given index is guaranteed not to box the value.
+ *
+ * @author Denis Pavlov
+ * @since 3.1.0
+ *
+ */
+public interface DataAccessor {
+
+	/**
+	 * @param index
+	 *            getter index
+	 * @param source
+	 *            source object
+	 * @return value returned by getter with given index
+	 */
+	Object read(int index, Object source);
+
+	/**
+	 * @param index
+	 *            setter index
+	 * @param source
+	 *            source object
+	 * @param value
+	 *            value to pass to setter with given index
+	 */
+	void write(int index, Object source, Object value);
+
+	/**
+	 * @param index
+	 *            getter index
+	 * @param source
+	 *            source object
+	 * @return value returned by getter with given index
+	 */
+	boolean readBoolean(int index, Object source);
+
+	/**
+	 * @param index
+	 *            getter index
+	 * @param source
+	 *            source object
+	 * @return value returned by getter with given index
+	 */
+	byte readByte(int index, Object source);
+
+	/**
+	 * @param index
+	 *            getter index
+	 * @param source
+	 *            source object
+	 * @return value returned by getter with given index
+	 */
+	short readShort(int index, Object source);
+
+	/**
+	 * @param index
+	 *            getter index
+	 * @param source
+	 *            source object
+	 * @return value returned by getter with given index
+	 */
+	char readChar(int index, Object source);
+
+	/**
+	 * @param index
+	 *            getter index
+	 * @param source
+	 *            source object
+	 * @return value returned by getter with given index
+	 */
+	int readInt(int index, Object source);
+
+	/**
+	 * @param index
+	 *            getter index
+	 * @param source
+	 *            source object
+	 * @return value returned by getter with given index
+	 */
+	long readLong(int index, Object source);
+
+	/**
+	 * @param index
+	 *            getter index
+	 * @param source
+	 *            source object
+	 * @return value returned by getter with given index
+	 */
+	float readFloat(int index, Object source);
+
+	/**
+	 * @param index
+	 *            getter index
+	 * @param source
+	 *            source object
+	 * @return value returned by getter with given index
+	 */
+	double readDouble(int index, Object source);
+
+	/**
+	 * @param index
+	 *            setter index
+	 * @param source
+	 *            source object
+	 * @param value
+	 *            value to pass to setter with given index
+	 */
+	void writeBoolean(int index, Object source, boolean value);
+
+	/**
+	 * @param index
+	 *            setter index
+	 * @param source
+	 *            source object
+	 * @param value
+	 *            value to pass to setter with given index
+	 */
+	void writeByte(int index, Object source, byte value);
+
+	/**
+	 * @param index
+	 *            setter index
+	 * @param source
+	 *            source object
+	 * @param value
+	 *            value to pass to setter with given index
+	 */
+	void writeShort(int index, Object source, short value);
+
+	/**
+	 * @param index
+	 *            setter index
+	 * @param source
+	 *            source object
+	 * @param value
+	 *            value to pass to setter with given index
+	 */
+	void writeChar(int index, Object source, char value);
+
+	/**
+	 * @param index
+	 *            setter index
+	 * @param source
+	 *            source object
+	 * @param value
+	 *            value to pass to setter with given index
+	 */
+	void writeInt(int index, Object source, int value);
+
+	/**
+	 * @param index
+	 *            setter index
+	 * @param source
+	 *            source object
+	 * @param value
+	 *            value to pass to setter with given index
+	 */
+	void writeLong(int index, Object source, long value);
+
+	/**
+	 * @param index
+	 *            setter index
+	 * @param source
+	 *            source object
+	 * @param value
+	 *            value to pass to setter with given index
+	 */
+	void writeFloat(int index, Object source, float value);
+
+	/**
+	 * @param index
+	 *            setter index
+	 * @param source
+	 *            source object
+	 * @param value
+	 *            value to pass to setter with given index
+	 */
+	void writeDouble(int index, Object source, double value);
+
+}
@@ -0,0 +1,43 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension;
+
+/**
+ * Data assembler is an interface to allow dynamic classes to be built for copying all simple fields between
+ * DTO and Entity in a single straight-line method (i.e. without going through individual data pipes).
+ *
+ * @author Denis Pavlov
+ * @since 3.1.0
+ *
+ */
+public interface DataAssembler {
+
+	/**
+	 * Copies data from entity getters to dto setters.
+	 *
+	 * @param dto
+	 *            the dto instance whose setters are to be invoked
+	 * @param entity
+	 *            the entity instance whose getters are to be invoked
+	 */
+	void assembleDto(Object dto, Object entity);
+
+	/**
+	 * Copies data from dto getters to entity setters.
+	 *
+	 * @param dto
+	 *            the dto instance whose getters are to be invoked
+	 * @param entity
+	 *            the entity instance whose setters are to be invoked
+	 */
+	void assembleEntity(Object dto, Object entity);
+
+}
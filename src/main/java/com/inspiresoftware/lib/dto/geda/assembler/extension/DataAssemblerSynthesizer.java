@@ -0,0 +1,59 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension;
+
+import java.beans.PropertyDescriptor;
+
+import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
+import com.inspiresoftware.lib.dto.geda.exception.InspectionPropertyNotFoundException;
+import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceException;
+
+/**
+ * Optional extension of {@link MethodSynthesizer} that allows to create a single dynamic class per DTO/Entity pair
+ * that copies all simple fields with straight-line getter/setter calls.
+ *
+ * @author Denis Pavlov
+ * @since 3.1.0
+ *
+ */
+public interface DataAssemblerSynthesizer {
+
+	/**
+	 * Create dynamic class.
+	 *
+	 * @param dtoClass
+	 *            dto class
+	 * @param entityClass
+	 *            entity class
+	 * @param dtoWriteDescriptors
+	 *            descriptors whose write methods receive values on dto (entity to dto direction)
+	 * @param entityReadDescriptors
+	 *            read paths on entity for each dto write descriptor. Each path is a chain of descriptors to be
+	 *            read from entity (nested entities are navigated null safely)
+	 * @param dtoReadDescriptors
+	 *            descriptors whose read methods provide values from dto (dto to entity direction)
+	 * @param entityWriteDescriptors
+	 *            descriptors whose write methods receive values on entity for each dto read descriptor
+	 * @return data assembler instance or null if this synthesizer does not support (or is not configured to
+	 *         support) assembler generation.
+	 * @throws InspectionPropertyNotFoundException
+	 *             if property cannot be located
+	 * @throws UnableToCreateInstanceException
+	 *             if unable to create instance of data assembler
+	 * @throws GeDARuntimeException
+	 *             unhandled situation with inability to determine types
+	 */
+	DataAssembler synthesizeAssembler(Class<?> dtoClass, Class<?> entityClass,
+			PropertyDescriptor[] dtoWriteDescriptors, PropertyDescriptor[][] entityReadDescriptors,
+			PropertyDescriptor[] dtoReadDescriptors, PropertyDescriptor[] entityWriteDescriptors)
+					throws InspectionPropertyNotFoundException, UnableToCreateInstanceException, GeDARuntimeException;
+
+}
@@ -0,0 +1,85 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension;
+
+/**
+ * Data reader for getters that return primitive value. Allows to read the value without boxing it into a wrapper
+ * object. Only the variant that corresponds to {@link #getPrimitiveType()} is guaranteed not to box the value.
+ *
+ * @author Denis Pavlov
+ * @since 3.1.0
+ *
+ */
+public interface PrimitiveDataReader extends DataReader {
+
+	/**
+	 * @return primitive type returned by getter (e.g. int.class), whereas {@link #getReturnType()} returns the
+	 *         wrapper class.
+	 */
+	Class<?> getPrimitiveType();
+
+	/**
+	 * @param source
+	 *            the source object instance which getter is to be invoked
+	 * @return data returned by getter.
+	 */
+	boolean readBoolean(Object source);
+
+	/**
+	 * @param source
+	 *            the source object instance which getter is to be invoked
+	 * @return data returned by getter.
+	 */
+	byte readByte(Object source);
+
+	/**
+	 * @param source
+	 *            the source object instance which getter is to be invoked
+	 * @return data returned by getter.
+	 */
+	short readShort(Object source);
+
+	/**
+	 * @param source
+	 *            the source object instance which getter is to be invoked
+	 * @return data returned by getter.
+	 */
+	char readChar(Object source);
+
+	/**
+	 * @param source
+	 *            the source object instance which getter is to be invoked
+	 * @return data returned by getter.
+	 */
+	int readInt(Object source);
+
+	/**
+	 * @param source
+	 *            the source object instance which getter is to be invoked
+	 * @return data returned by getter.
+	 */
+	long readLong(Object source);
+
+	/**
+	 * @param source
+	 *            the source object instance which getter is to be invoked
+	 * @return data returned by getter.
+	 */
+	float readFloat(Object source);
+
+	/**
+	 * @param source
+	 *            the source object instance which getter is to be invoked
+	 * @return data returned by getter.
+	 */
+	double readDouble(Object source);
+
+}
@@ -0,0 +1,93 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension;
+
+/**
+ * Data writer for setters that accept primitive value. Allows to write the value without unboxing it from a wrapper
+ * object. Only the variant that corresponds to {@link #getPrimitiveType()} is guaranteed not to box the value.
+ *
+ * @author Denis Pavlov
+ * @since 3.1.0
+ *
+ */
+public interface PrimitiveDataWriter extends DataWriter {
+
+	/**
+	 * @return primitive type accepted by setter (e.g. int.class), whereas {@link #getParameterType()} returns the
+	 *         wrapper class.
+	 */
+	Class<?> getPrimitiveType();
+
+	/**
+	 * @param source
+	 *            the source object instance which setter is to be invoked
+	 * @param value
+	 *            value to set
+	 */
+	void writeBoolean(Object source, boolean value);
+
+	/**
+	 * @param source
+	 *            the source object instance which setter is to be invoked
+	 * @param value
+	 *            value to set
+	 */
+	void writeByte(Object source, byte value);
+
+	/**
+	 * @param source
+	 *            the source object instance which setter is to be invoked
+	 * @param value
+	 *            value to set
+	 */
+	void writeShort(Object source, short value);
+
+	/**
+	 * @param source
+	 *            the source object instance which setter is to be invoked
+	 * @param value
+	 *            value to set
+	 */
+	void writeChar(Object source, char value);
+
+	/**
+	 * @param source
+	 *            the source object instance which setter is to be invoked
+	 * @param value
+	 *            value to set
+	 */
+	void writeInt(Object source, int value);
+
+	/**
+	 * @param source
+	 *            the source object instance which setter is to be invoked
+	 * @param value
+	 *            value to set
+	 */
+	void writeLong(Object source, long value);
+
+	/**
+	 * @param source
+	 *            the source object instance which setter is to be invoked
+	 * @param value
+	 *            value to set
+	 */
+	void writeFloat(Object source, float value);
+
+	/**
+	 * @param source
+	 *            the source object instance which setter is to be invoked
+	 * @param value
+	 *            value to set
+	 */
+	void writeDouble(Object source, double value);
+
+}
@@ -12,11 +12,17 @@ package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
 
 import java.beans.PropertyDescriptor;
 import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -25,6 +31,8 @@ import org.slf4j.LoggerFactory;
 
 import com.inspiresoftware.lib.dto.geda.assembler.SynthesizerUtils;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.Cache;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataAssembler;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataAssemblerSynthesizer;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
@@ -39,15 +47,28 @@ import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceExceptio
  * @author DPavlov
  * @since 1.1.2
  */
-public abstract class AbstractMethodSynthesizer extends SynthesizerUtils implements MethodSynthesizer {
+public abstract class AbstractMethodSynthesizer extends SynthesizerUtils implements MethodSynthesizer,
+		DataAssemblerSynthesizer {
 
 	private static final Logger LOG = LoggerFactory.getLogger(AbstractMethodSynthesizer.class);
 
-	private final Lock readLock = new ReentrantLock();
-	private final Lock writeLock = new ReentrantLock();
+	/**
+	 * Readers and writers that are being generated at the moment, keyed by class name. Only one thread generates a
+	 * class for a given name, others wait for the result. Distinct classes are generated in parallel.
+	 */
+	private final ConcurrentMap<String, FutureTask<Object>> inFlight =
+			new ConcurrentHashMap<String, FutureTask<Object>>();
+	private final Lock assemblerLock = new ReentrantLock();
 	private static final int MAX_COMPILE_TRIES = 3;
 
-	private Reference<ClassLoader> loader;
+	/** Sequence for data assembler class names (same DTO/Entity pair may have different bindings). */
+	private static final AtomicInteger ASSEMBLER_SEQUENCE = new AtomicInteger(0);
+
+	private boolean synthesizeAssemblers = false;
+	private final Map<String, DataAssembler> assemblers = new HashMap<String, DataAssembler>();
+
+	private volatile Reference<ClassLoader> loader;
+	private final Reference<ClassLoader> parentLoader;
 
 	/**
 	 * The <code>int</code> value representing the <code>public</code> modifier.
@@ -104,10 +125,13 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 		}
 	}
 
-	/** DataReaders instances cache. */
-	private static final Cache<Object> READER_CACHE = new SoftReferenceCache<Object>();
+	/**
+	 * DataReaders instances cache. Caches are per synthesizer, since generated classes may be defined in synthesizer's
+	 * own class loader, which must become unreachable once this synthesizer releases resources.
+	 */
+	private final Cache<String, Object> readerCache = new SoftReferenceCache<String, Object>();
 	/** DataWriters instances cache. */
-	private static final Cache<Object> WRITER_CACHE = new SoftReferenceCache<Object>();
+	private final Cache<String, Object> writerCache = new SoftReferenceCache<String, Object>();
 
 	/**
 	 * Primitive to wrapper conversion map.
@@ -154,6 +178,24 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 		WRAPPER_TO_PRIMITIVE.put("char", ".charValue()");
 	}
 
+	/**
+	 * @param primitiveTypeName
+	 *            primitive type name (e.g. "int")
+	 * @return name of primitive read method variant (e.g. "readInt")
+	 */
+	protected static String getPrimitiveReadMethodName(final String primitiveTypeName) {
+		return "read" + Character.toUpperCase(primitiveTypeName.charAt(0)) + primitiveTypeName.substring(1);
+	}
+
+	/**
+	 * @param primitiveTypeName
+	 *            primitive type name (e.g. "int")
+	 * @return name of primitive write method variant (e.g. "writeInt")
+	 */
+	protected static String getPrimitiveWriteMethodName(final String primitiveTypeName) {
+		return "write" + Character.toUpperCase(primitiveTypeName.charAt(0)) + primitiveTypeName.substring(1);
+	}
+
 	/**
 	 * Default constructor synthesizers. This set a template for auto class generation. It is a requirement to provide a
 	 * valid class loader to which files will be loaded. This in effect like a visitor pattern whereby we generate
@@ -166,18 +208,21 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 	 */
 	public AbstractMethodSynthesizer(final ClassLoader classLoader) {
 		super();
+		parentLoader = new WeakReference<ClassLoader>(classLoader);
 		loader = initialiseClassLoaderWeakReference(classLoader);
 	}
 
 	/**
 	 * Hook for sub classes to assign correct class loader reference. We must maintain only weak reference to the class
-	 * loader.
+	 * loader. Sub classes may wrap the class loader into a child class loader that only holds generated classes (e.g.
+	 * {@link ByteClassLoader}), so that generated classes can be unloaded. Such child class loader is recreated by
+	 * invoking this hook again if it had been garbage collected while parent class loader is still alive.
 	 *
 	 * @param classLoader
 	 *            class loader to contribute generated files to.
 	 */
 	protected Reference<ClassLoader> initialiseClassLoaderWeakReference(final ClassLoader classLoader) {
-		return new SoftReference<ClassLoader>(classLoader);
+		return new WeakReference<ClassLoader>(classLoader);
 	}
 
 	/**
@@ -198,6 +243,10 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 	 */
 	@Override
 	public boolean configure(final String configuration, final Object value) throws GeDAException {
+		if ("synthesizeAssemblers".equals(configuration) && isAssemblerSynthesisSupported()) {
+			synthesizeAssemblers = Boolean.valueOf(String.valueOf(value));
+			return true;
+		}
 		return false;
 	}
 
@@ -205,14 +254,14 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 	 * @param cleanUpReaderCycle reader cache clean up cycle
 	 */
 	private boolean setCleanUpReaderCycle(final Object cleanUpReaderCycle) throws GeDAException {
-		return READER_CACHE.configure("cleanUpCycle", cleanUpReaderCycle);
+		return readerCache.configure("cleanUpCycle", cleanUpReaderCycle);
 	}
 
 	/*
 	 * @param cleanUpWriterCycle writer cache clean up cycle
 	 */
 	private boolean setCleanUpWriterCycle(final Object cleanUpWriterCycle) throws GeDAException {
-		return WRITER_CACHE.configure("cleanUpCycle", cleanUpWriterCycle);
+		return writerCache.configure("cleanUpCycle", cleanUpWriterCycle);
 	}
 
 	/**
@@ -335,34 +384,90 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 
 		DataReader reader;
 
-		reader = getFromCacheOrCreateFromClassLoader(readerClassName, READER_CACHE, getClassLoader());
+		beforeClassLookup(readerClassName, readMethod);
+		reader = getFromCacheOrCreateFromClassLoader(readerClassName, readerCache, getClassLoader());
 
 		if (reader == null) {
-			readLock.lock();
-			final MakeContext ctx = new MakeContext(DataReader.class.getCanonicalName());
-			try {
-				do {
-					reader = makeReaderClass(getClassLoader(), readMethod, readerClassName, sourceClassNameFull,
-							sourceClassGetterMethodName, readMethod.getGenericReturnType(), ctx);
-					if (reader == null) {
-						reader = getFromCacheOrCreateFromClassLoader(readerClassName, READER_CACHE, getClassLoader());
-					} else {
-						READER_CACHE.put(readerClassName.hashCode(), reader);
+			reader = (DataReader) singleFlight(readerClassName, new Callable<Object>() {
+				@Override
+				public Object call() throws Exception {
+					DataReader made = getFromCacheOrCreateFromClassLoader(readerClassName, readerCache,
+							getClassLoader());
+					final MakeContext ctx = new MakeContext(DataReader.class.getCanonicalName());
+					while (made == null) {
+						made = makeReaderClass(getClassLoader(), readMethod, readerClassName, sourceClassNameFull,
+								sourceClassGetterMethodName, readMethod.getGenericReturnType(), ctx);
+						if (made == null) {
+							made = getFromCacheOrCreateFromClassLoader(readerClassName, readerCache,
+									getClassLoader());
+						} else {
+							readerCache.put(readerClassName, made);
+						}
 					}
-				} while (reader == null);
-			} finally {
-				readLock.unlock();
-			}
+					return made;
+				}
+			});
 		}
 		return reader;
 	}
 
+	/**
+	 * Hook invoked before class loader is asked for reader or writer class, so that synthesizers that reuse class
+	 * files can check they were generated for the same accessor method. Does nothing by default.
+	 *
+	 * @param className
+	 *            name of the reader or writer class
+	 * @param method
+	 *            accessor method that the class should invoke
+	 */
+	protected void beforeClassLookup(final String className, final Method method) {
+		// nothing to check by default
+	}
+
+	/*
+	 * Runs generation of the class unless other thread is already generating class with the same name, in which case
+	 * waits for its result. Generation re-checks cache and class loader, since other thread may have finished between
+	 * the cache miss and registration of the task.
+	 */
+	private Object singleFlight(final String className, final Callable<Object> generation)
+			throws UnableToCreateInstanceException, GeDARuntimeException {
+
+		FutureTask<Object> task = inFlight.get(className);
+		if (task == null) {
+			final FutureTask<Object> newTask = new FutureTask<Object>(generation);
+			task = inFlight.putIfAbsent(className, newTask);
+			if (task == null) {
+				task = newTask;
+				try {
+					newTask.run();
+				} finally {
+					inFlight.remove(className, newTask);
+				}
+			}
+		}
+
+		try {
+			return task.get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new UnableToCreateInstanceException(className, "Interrupted while waiting for: " + className, ie);
+		} catch (ExecutionException ee) {
+			final Throwable cause = ee.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause; // GeDA exceptions are runtime exceptions
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new UnableToCreateInstanceException(className, "Unable to create instance of: " + className, cause);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
-	private <T> T getFromCacheOrCreateFromClassLoader(final String className, final Cache<Object> cache,
+	private <T> T getFromCacheOrCreateFromClassLoader(final String className, final Cache<String, Object> cache,
 			final ClassLoader classLoader) throws UnableToCreateInstanceException {
 		Object instance;
 
-		instance = cache.get(className.hashCode());
+		instance = cache.get(className);
 		if (instance != null) {
 			return (T) instance;
 		}
@@ -517,23 +622,28 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 
 		DataWriter writer;
 
-		writer = getFromCacheOrCreateFromClassLoader(writerClassName, WRITER_CACHE, getClassLoader());
+		beforeClassLookup(writerClassName, writeMethod);
+		writer = getFromCacheOrCreateFromClassLoader(writerClassName, writerCache, getClassLoader());
 		if (writer == null) {
-			writeLock.lock();
-			final MakeContext ctx = new MakeContext(DataWriter.class.getCanonicalName());
-			try {
-				do {
-					writer = makeWriterClass(getClassLoader(), writeMethod, writerClassName, classNameFull, methodName,
-							writeMethod.getParameterTypes()[0], ctx);
-					if (writer == null) {
-						writer = getFromCacheOrCreateFromClassLoader(writerClassName, WRITER_CACHE, getClassLoader());
-					} else {
-						WRITER_CACHE.put(writerClassName.hashCode(), writer);
+			writer = (DataWriter) singleFlight(writerClassName, new Callable<Object>() {
+				@Override
+				public Object call() throws Exception {
+					DataWriter made = getFromCacheOrCreateFromClassLoader(writerClassName, writerCache,
+							getClassLoader());
+					final MakeContext ctx = new MakeContext(DataWriter.class.getCanonicalName());
+					while (made == null) {
+						made = makeWriterClass(getClassLoader(), writeMethod, writerClassName, classNameFull,
+								methodName, writeMethod.getParameterTypes()[0], ctx);
+						if (made == null) {
+							made = getFromCacheOrCreateFromClassLoader(writerClassName, writerCache,
+									getClassLoader());
+						} else {
+							writerCache.put(writerClassName, made);
+						}
 					}
-				} while (writer == null);
-			} finally {
-				writeLock.unlock();
-			}
+					return made;
+				}
+			});
 		}
 		return writer;
 	}
@@ -567,13 +677,116 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 			final Class<?> sourceClassSetterMethodArgumentClass, final MakeContext ctx)
 					throws UnableToCreateInstanceException;
 
+	/**
+	 * @return true if this synthesizer is capable of generating {@link DataAssembler}s, in which case assembler
+	 *         generation can be enabled by "synthesizeAssemblers" configuration.
+	 */
+	protected boolean isAssemblerSynthesisSupported() {
+		return false;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public DataAssembler synthesizeAssembler(final Class<?> dtoClass, final Class<?> entityClass,
+			final PropertyDescriptor[] dtoWriteDescriptors, final PropertyDescriptor[][] entityReadDescriptors,
+			final PropertyDescriptor[] dtoReadDescriptors, final PropertyDescriptor[] entityWriteDescriptors)
+					throws InspectionPropertyNotFoundException, UnableToCreateInstanceException, GeDARuntimeException {
+
+		if (!synthesizeAssemblers) {
+			return null;
+		}
+
+		final StringBuilder signature = new StringBuilder(dtoClass.getName()).append('>')
+				.append(entityClass.getName()).append(':');
+		for (int i = 0; i < dtoWriteDescriptors.length; i++) {
+			preMakeWriterValidation(dtoWriteDescriptors[i]);
+			signature.append(dtoWriteDescriptors[i].getWriteMethod()).append('=');
+			for (final PropertyDescriptor entityRead : entityReadDescriptors[i]) {
+				preMakeReaderValidation(entityRead);
+				signature.append(entityRead.getReadMethod()).append('.');
+			}
+			signature.append(';');
+		}
+		signature.append('<');
+		for (int i = 0; i < dtoReadDescriptors.length; i++) {
+			preMakeReaderValidation(dtoReadDescriptors[i]);
+			preMakeWriterValidation(entityWriteDescriptors[i]);
+			signature.append(entityWriteDescriptors[i].getWriteMethod()).append('=')
+			.append(dtoReadDescriptors[i].getReadMethod()).append(';');
+		}
+
+		final String key = signature.toString();
+
+		assemblerLock.lock();
+		try {
+			DataAssembler assembler = assemblers.get(key);
+			if (assembler == null) {
+				final MakeContext ctx = new MakeContext(DataAssembler.class.getCanonicalName());
+				do {
+					final String assemblerClassName = generateClassName("DataAssembler", dtoClass.getCanonicalName(),
+							entityClass.getSimpleName() + ASSEMBLER_SEQUENCE.incrementAndGet());
+					assembler = makeAssemblerClass(getClassLoader(), assemblerClassName, dtoWriteDescriptors,
+							entityReadDescriptors, dtoReadDescriptors, entityWriteDescriptors, ctx);
+				} while (assembler == null);
+				assemblers.put(key, assembler);
+			}
+			return assembler;
+		} finally {
+			assemblerLock.unlock();
+		}
+	}
+
+	/**
+	 * Method to be overridden by specific synthesizer that support data assemblers - contains the low level code to
+	 * actually generating Class object.
+	 *
+	 * @param loader
+	 *            class loader
+	 * @param assemblerClassName
+	 *            name of the assembler class
+	 * @param dtoWriteDescriptors
+	 *            dto setters for entity to dto direction
+	 * @param entityReadDescriptors
+	 *            entity getter paths for entity to dto direction
+	 * @param dtoReadDescriptors
+	 *            dto getters for dto to entity direction
+	 * @param entityWriteDescriptors
+	 *            entity setters for dto to entity direction
+	 * @param ctx
+	 *            compilation context. Need to invoke .next() for every unsuccessful compilation attempt.
+	 *
+	 * @return data assembler instance
+	 *
+	 * @throws UnableToCreateInstanceException
+	 *             whenever there is a problem creating an instance of the generated class
+	 * @throws GeDARuntimeException
+	 *             if this synthesizer does not support data assemblers
+	 */
+	protected DataAssembler makeAssemblerClass(final ClassLoader loader, final String assemblerClassName,
+			final PropertyDescriptor[] dtoWriteDescriptors, final PropertyDescriptor[][] entityReadDescriptors,
+			final PropertyDescriptor[] dtoReadDescriptors, final PropertyDescriptor[] entityWriteDescriptors,
+			final MakeContext ctx) throws UnableToCreateInstanceException, GeDARuntimeException {
+		throw new GeDARuntimeException(getClass().getCanonicalName() + " does not support data assemblers");
+	}
+
 	/**
 	 * Class loader reference.
 	 */
 	protected ClassLoader getClassLoader() {
 		ClassLoader cl = loader.get();
-		if (cl == null) { // Cl was garbage collected - something gone really wrong
-			throw new GeDARuntimeException("Class loader has been gc'ed");
+		if (cl == null) {
+			synchronized (parentLoader) {
+				cl = loader.get();
+				if (cl == null) {
+					final ClassLoader parent = parentLoader.get();
+					if (parent == null) { // Cl was garbage collected - something gone really wrong
+						throw new GeDARuntimeException("Class loader has been gc'ed");
+					}
+					// only child class loader with generated classes was collected
+					loader = initialiseClassLoaderWeakReference(parent);
+					cl = loader.get();
+				}
+			}
 		}
 		return cl;
 	}
@@ -592,6 +805,30 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 		}
 	}
 
+	/**
+	 * @param readMethod
+	 *            getter method
+	 * @return name of the data reader class that is generated for given getter
+	 */
+	protected final String generateReaderClassName(final Method readMethod) {
+		return generateClassName("DataReader", getValidDeclaringClass(readMethod).getCanonicalName(),
+				readMethod.getName());
+	}
+
+	/**
+	 * @param writeMethod
+	 *            setter method
+	 * @return name of the data writer class that is generated for given setter
+	 */
+	protected final String generateWriterClassName(final Method writeMethod) {
+		return generateClassName("DataWriter", getValidDeclaringClass(writeMethod).getCanonicalName(),
+				writeMethod.getName());
+	}
+
+	/*
+	 * Build time generated readers and writers (see DtoAnnotationProcessor in processor module) use the same names,
+	 * so that createInstanceFromClassLoader() finds them on class path.
+	 */
 	private String generateClassName(final String prefix, final String declaringClass, final String methodName) {
 		return declaringClass + prefix + "M" + methodName + "ID" + getSynthesizerId();
 	}
@@ -643,6 +880,15 @@ public abstract class AbstractMethodSynthesizer extends SynthesizerUtils impleme
 	/** {@inheritDoc} */
 	@Override
 	public void releaseResources() {
+		assemblerLock.lock();
+		try {
+			assemblers.clear();
+		} finally {
+			assemblerLock.unlock();
+		}
+		readerCache.releaseResources();
+		writerCache.releaseResources();
+		parentLoader.clear();
 		loader.clear();
 	}
 
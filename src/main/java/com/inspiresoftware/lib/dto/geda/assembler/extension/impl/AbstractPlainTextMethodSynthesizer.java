@@ -10,12 +10,17 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
 
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.PrimitiveDataReader;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.PrimitiveDataWriter;
 import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
 
 /**
@@ -28,6 +33,12 @@ public abstract class AbstractPlainTextMethodSynthesizer extends AbstractMethodS
 
 	private static final Logger LOG = LoggerFactory.getLogger(AbstractPlainTextMethodSynthesizer.class);
 
+	/*
+	 * Primitive types in order of DataAccessor primitive methods.
+	 */
+	private static final String[] PRIMITIVES = { "boolean", "byte", "short", "char", "int", "long", "float",
+		"double" };
+
 	protected AbstractPlainTextMethodSynthesizer(final ClassLoader classLoader) {
 		super(classLoader);
 	}
@@ -57,19 +68,10 @@ public abstract class AbstractPlainTextMethodSynthesizer extends AbstractMethodS
 
 		final ReturnTypeContext returnType = getReturnTypeContext(readerClassName, sourceClassGetterMethodReturnType);
 
-		readMethodCode.append("public Object read(Object source) {\n").append("final ").append(sourceClassNameFull)
-		.append(" clazz = (").append(sourceClassNameFull).append(") source;\n");
-		if (!returnType.isPrimitive()) {
-			readMethodCode.append("return clazz.").append(sourceClassGetterMethodName).append("();\n").append("}");
-		} else {
-			readMethodCode.append("return ");
-			appendValueOf(returnType.getMethodReturnTypePrimitiveName(), readMethodCode, "clazz."
-					+ sourceClassGetterMethodName + "()");
-			readMethodCode.append(";\n}");
-		}
-
-		getReturnTypeMethodCode.append("public Class getReturnType() {\n").append("return ")
-		.append(returnType.getMethodReturnType()).append(".class;\n").append("}");
+		AccessorSourceGenerator.appendReadMethod(readMethodCode, sourceClassNameFull, sourceClassGetterMethodName,
+				returnType.getMethodReturnTypePrimitiveName());
+		AccessorSourceGenerator.appendTypeMethod(getReturnTypeMethodCode, AccessorSourceGenerator.RAW_CLASS,
+				"getReturnType", returnType.getMethodReturnType());
 
 		LOG.debug("Creating DataReader Class: \n{}\n{}\n", readMethodCode, getReturnTypeMethodCode);
 	}
@@ -97,35 +99,347 @@ public abstract class AbstractPlainTextMethodSynthesizer extends AbstractMethodS
 
 		final ArgumentTypeContext argType = getArgumentTypeContext(sourceClassSetterMethodArgumentClass);
 
-		writeMethodCode.append("public void write(Object source, Object value) {\n").append("final ")
-		.append(sourceClassNameFull).append(" clazz = (").append(sourceClassNameFull).append(") source;\n")
-		.append("clazz.").append(sourceClassSetterMethodName).append("(");
-		if (!argType.isPrimitive()) {
-			writeMethodCode.append("(").append(argType.getMethodArgType()).append(") value");
-		} else {
-			appendPrimitiveValue(argType.getMethodArgPrimitiveName(), writeMethodCode, "value");
+		AccessorSourceGenerator.appendWriteMethod(writeMethodCode, sourceClassNameFull, sourceClassSetterMethodName,
+				argType.getMethodArgType(), argType.getMethodArgPrimitiveName());
+		AccessorSourceGenerator.appendTypeMethod(getParameterTypeMethodCode, AccessorSourceGenerator.RAW_CLASS,
+				"getParameterType", argType.getMethodArgType());
+
+		LOG.debug("Creating DataWriter Class: \n{}\n{}\n", writeMethodCode, getParameterTypeMethodCode);
+
+	}
+
+	/**
+	 * Generates plain text source code for primitive data reader methods (i.e. {@link PrimitiveDataReader} methods
+	 * that are not implemented by {@link AbstractPrimitiveDataReader}).
+	 *
+	 * @param getPrimitiveTypeMethodCode
+	 *            string builder that hold source for method
+	 * @param readPrimitiveMethodCode
+	 *            string builder that hold source for method
+	 * @param sourceClassNameFull
+	 *            name of the class of source object (i.e. whose getter will be invoked)
+	 * @param sourceClassGetterMethodName
+	 *            name of the getter method to be invoked on the source object
+	 * @param sourceClassGetterMethodReturnType
+	 *            class name of the return type to be returned
+	 * @return true if getter returns primitive (and methods were generated), false otherwise
+	 */
+	protected final boolean generatePrimitiveReaderMethods(final StringBuilder getPrimitiveTypeMethodCode,
+			final StringBuilder readPrimitiveMethodCode, final String sourceClassNameFull,
+			final String sourceClassGetterMethodName, final Type sourceClassGetterMethodReturnType) {
+
+		if (!(sourceClassGetterMethodReturnType instanceof Class)
+				|| !((Class<?>) sourceClassGetterMethodReturnType).isPrimitive()) {
+			return false;
 		}
-		writeMethodCode.append(");\n}");
 
-		getParameterTypeMethodCode.append("public Class getParameterType() {\n").append("return ")
-		.append(argType.getMethodArgType()).append(".class;\n").append("}");
+		final String primitive = ((Class<?>) sourceClassGetterMethodReturnType).getCanonicalName();
 
-		LOG.debug("Creating DataWriter Class: \n{}\n{}\n", writeMethodCode, getParameterTypeMethodCode);
+		AccessorSourceGenerator.appendGetPrimitiveTypeMethod(getPrimitiveTypeMethodCode,
+				AccessorSourceGenerator.RAW_CLASS, primitive);
+		AccessorSourceGenerator.appendReadPrimitiveMethod(readPrimitiveMethodCode, sourceClassNameFull,
+				sourceClassGetterMethodName, primitive);
+
+		LOG.debug("Creating PrimitiveDataReader methods: \n{}\n{}\n", getPrimitiveTypeMethodCode,
+				readPrimitiveMethodCode);
+		return true;
+	}
+
+	/**
+	 * Generates plain text source code for primitive data writer methods (i.e. {@link PrimitiveDataWriter} methods
+	 * that are not implemented by {@link AbstractPrimitiveDataWriter}).
+	 *
+	 * @param getPrimitiveTypeMethodCode
+	 *            string builder that hold source for method
+	 * @param writePrimitiveMethodCode
+	 *            string builder that hold source for method
+	 * @param sourceClassNameFull
+	 *            name of the class of source object (i.e. whose setter will be invoked)
+	 * @param sourceClassSetterMethodName
+	 *            name of the setter method to be invoked on the source object
+	 * @param sourceClassSetterMethodArgumentClass
+	 *            class name of the argument type passed to setter
+	 * @return true if setter accepts primitive (and methods were generated), false otherwise
+	 */
+	protected final boolean generatePrimitiveWriterMethods(final StringBuilder getPrimitiveTypeMethodCode,
+			final StringBuilder writePrimitiveMethodCode, final String sourceClassNameFull,
+			final String sourceClassSetterMethodName, final Class<?> sourceClassSetterMethodArgumentClass) {
+
+		if (!sourceClassSetterMethodArgumentClass.isPrimitive()) {
+			return false;
+		}
+
+		final String primitive = sourceClassSetterMethodArgumentClass.getCanonicalName();
+
+		AccessorSourceGenerator.appendGetPrimitiveTypeMethod(getPrimitiveTypeMethodCode,
+				AccessorSourceGenerator.RAW_CLASS, primitive);
+		AccessorSourceGenerator.appendWritePrimitiveMethod(writePrimitiveMethodCode, sourceClassNameFull,
+				sourceClassSetterMethodName, primitive);
+
+		LOG.debug("Creating PrimitiveDataWriter methods: \n{}\n{}\n", getPrimitiveTypeMethodCode,
+				writePrimitiveMethodCode);
+		return true;
+	}
+
+	/**
+	 * Generates plain text source code of a complete data reader class (primitive getters produce
+	 * {@link AbstractPrimitiveDataReader} subclass).
+	 *
+	 * @param readerClassName
+	 *            full name of the reader class
+	 * @param sourceClassNameFull
+	 *            name of the class of source object (i.e. whose getter will be invoked)
+	 * @param sourceClassGetterMethodName
+	 *            name of the getter method to be invoked on the source object
+	 * @param sourceClassGetterMethodReturnType
+	 *            class name of the return type to be returned
+	 * @return class source
+	 * @throws GeDARuntimeException
+	 *             any exceptions during compilation
+	 */
+	protected final String generateReaderClassSource(final String readerClassName, final String sourceClassNameFull,
+			final String sourceClassGetterMethodName, final Type sourceClassGetterMethodReturnType)
+					throws GeDARuntimeException {
 
+		final ReturnTypeContext returnType = getReturnTypeContext(readerClassName, sourceClassGetterMethodReturnType);
+
+		final String source = AccessorSourceGenerator.generateReaderSource(readerClassName, sourceClassNameFull,
+				sourceClassGetterMethodName, returnType.getMethodReturnType(),
+				returnType.getMethodReturnTypePrimitiveName());
+
+		LOG.debug("Creating DataReader Class: \n{}\n", source);
+		return source;
 	}
 
-	private void appendValueOf(final String primitiveTypeName, final StringBuilder toAppendTo, final String valueOf) {
+	/**
+	 * Generates plain text source code of a complete data writer class (primitive setters produce
+	 * {@link AbstractPrimitiveDataWriter} subclass).
+	 *
+	 * @param writerClassName
+	 *            full name of the writer class
+	 * @param sourceClassNameFull
+	 *            name of the class of source object (i.e. whose setter will be invoked)
+	 * @param sourceClassSetterMethodName
+	 *            name of the setter method to be invoked on the source object
+	 * @param sourceClassSetterMethodArgumentClass
+	 *            class name of the argument type passed to setter
+	 * @return class source
+	 */
+	protected final String generateWriterClassSource(final String writerClassName, final String sourceClassNameFull,
+			final String sourceClassSetterMethodName, final Class<?> sourceClassSetterMethodArgumentClass) {
+
+		final ArgumentTypeContext argType = getArgumentTypeContext(sourceClassSetterMethodArgumentClass);
 
-		toAppendTo.append(PRIMITIVE_TO_WRAPPER.get(primitiveTypeName)).append(".valueOf(").append(valueOf).append(")");
+		final String source = AccessorSourceGenerator.generateWriterSource(writerClassName, sourceClassNameFull,
+				sourceClassSetterMethodName, argType.getMethodArgType(), argType.getMethodArgPrimitiveName());
 
+		LOG.debug("Creating DataWriter Class: \n{}\n", source);
+		return source;
 	}
 
-	private void appendPrimitiveValue(final String primitiveTypeName, final StringBuilder toAppendTo,
-			final String valueOf) {
+	/**
+	 * Generates plain text source code for {@link com.inspiresoftware.lib.dto.geda.assembler.extension.DataAccessor}
+	 * methods, which dispatch getter/setter invocation by index (index is the position of method in the array).
+	 *
+	 * @param readMethodCode
+	 *            string builder that hold source for method
+	 * @param writeMethodCode
+	 *            string builder that hold source for method
+	 * @param sourceClassNameFull
+	 *            name of the class of source object (i.e. whose getters and setters will be invoked)
+	 * @param getters
+	 *            getters of source class
+	 * @param setters
+	 *            setters of source class
+	 */
+	protected final void generateAccessorMethods(final StringBuilder readMethodCode,
+			final StringBuilder writeMethodCode, final String sourceClassNameFull, final Method[] getters,
+			final Method[] setters) {
+
+		readMethodCode.append("public Object read(int index, Object source) {\n").append("final ")
+		.append(sourceClassNameFull).append(" clazz = (").append(sourceClassNameFull).append(") source;\n");
+		if (getters.length > 0) {
+			readMethodCode.append("switch (index) {\n");
+			for (int i = 0; i < getters.length; i++) {
+				final Class<?> returnType = getters[i].getReturnType();
+				readMethodCode.append("case ").append(i).append(": return ");
+				if (returnType.isPrimitive()) {
+					AccessorSourceGenerator.appendValueOf(readMethodCode, returnType.getCanonicalName(), "clazz."
+							+ getters[i].getName() + "()");
+				} else {
+					readMethodCode.append("clazz.").append(getters[i].getName()).append("()");
+				}
+				readMethodCode.append(";\n");
+			}
+			readMethodCode.append("}\n");
+		}
+		readMethodCode.append("throw new IllegalArgumentException(\"Unknown getter index: \" + index);\n}");
 
-		toAppendTo.append("((").append(PRIMITIVE_TO_WRAPPER.get(primitiveTypeName)).append(") ").append(valueOf)
-		.append(")").append(WRAPPER_TO_PRIMITIVE.get(primitiveTypeName));
+		writeMethodCode.append("public void write(int index, Object source, Object value) {\n").append("final ")
+		.append(sourceClassNameFull).append(" clazz = (").append(sourceClassNameFull).append(") source;\n");
+		if (setters.length > 0) {
+			writeMethodCode.append("switch (index) {\n");
+			for (int i = 0; i < setters.length; i++) {
+				final Class<?> argType = setters[i].getParameterTypes()[0];
+				writeMethodCode.append("case ").append(i).append(": clazz.").append(setters[i].getName()).append("(");
+				if (argType.isPrimitive()) {
+					AccessorSourceGenerator.appendPrimitiveValue(writeMethodCode, argType.getCanonicalName(), "value");
+				} else {
+					writeMethodCode.append("(").append(argType.getCanonicalName()).append(") value");
+				}
+				writeMethodCode.append(");\nreturn;\n");
+			}
+			writeMethodCode.append("}\n");
+		}
+		writeMethodCode.append("throw new IllegalArgumentException(\"Unknown setter index: \" + index);\n}");
+
+		LOG.debug("Creating DataAccessor Class: \n{}\n{}\n", readMethodCode, writeMethodCode);
+	}
+
+	/**
+	 * Generates plain text source code for primitive
+	 * {@link com.inspiresoftware.lib.dto.geda.assembler.extension.DataAccessor} methods (read and write method per
+	 * primitive type). Each method dispatches by index to getters/setters of its primitive type without boxing, any
+	 * other index goes through boxing read/write methods (so these must be added to the class first).
+	 *
+	 * @param methodCodes
+	 *            list to add source of methods to
+	 * @param sourceClassNameFull
+	 *            name of the class of source object (i.e. whose getters and setters will be invoked)
+	 * @param getters
+	 *            getters of source class
+	 * @param setters
+	 *            setters of source class
+	 */
+	protected final void generatePrimitiveAccessorMethods(final List<String> methodCodes,
+			final String sourceClassNameFull, final Method[] getters, final Method[] setters) {
+
+		for (final String primitive : PRIMITIVES) {
+
+			final StringBuilder readMethodCode = new StringBuilder();
+			readMethodCode.append("public ").append(primitive).append(' ')
+			.append(getPrimitiveReadMethodName(primitive)).append("(int index, Object source) {\n");
+			boolean cases = false;
+			for (int i = 0; i < getters.length; i++) {
+				if (getters[i].getReturnType().getCanonicalName().equals(primitive)) {
+					if (!cases) {
+						readMethodCode.append("switch (index) {\n");
+						cases = true;
+					}
+					readMethodCode.append("case ").append(i).append(": return ((").append(sourceClassNameFull)
+					.append(") source).").append(getters[i].getName()).append("();\n");
+				}
+			}
+			if (cases) {
+				readMethodCode.append("}\n");
+			}
+			readMethodCode.append("return ((").append(getBoxedSupertype(primitive))
+			.append(") read(index, source))").append(WRAPPER_TO_PRIMITIVE.get(primitive)).append(";\n}");
+			methodCodes.add(readMethodCode.toString());
+
+			final StringBuilder writeMethodCode = new StringBuilder();
+			writeMethodCode.append("public void ").append(getPrimitiveWriteMethodName(primitive))
+			.append("(int index, Object source, ").append(primitive).append(" value) {\n");
+			cases = false;
+			for (int i = 0; i < setters.length; i++) {
+				if (setters[i].getParameterTypes()[0].getCanonicalName().equals(primitive)) {
+					if (!cases) {
+						writeMethodCode.append("switch (index) {\n");
+						cases = true;
+					}
+					writeMethodCode.append("case ").append(i).append(": ((").append(sourceClassNameFull)
+					.append(") source).").append(setters[i].getName()).append("(value);\nreturn;\n");
+				}
+			}
+			if (cases) {
+				writeMethodCode.append("}\n");
+			}
+			writeMethodCode.append("write(index, source, ");
+			AccessorSourceGenerator.appendValueOf(writeMethodCode, primitive, "value");
+			writeMethodCode.append(");\n}");
+			methodCodes.add(writeMethodCode.toString());
+		}
+
+		LOG.debug("Creating primitive DataAccessor methods: \n{}\n", methodCodes);
+	}
+
+	/*
+	 * Type to unbox read value from, same as AbstractPrimitiveDataReader (numbers are converted).
+	 */
+	private static String getBoxedSupertype(final String primitive) {
+		if ("boolean".equals(primitive)) {
+			return Boolean.class.getCanonicalName();
+		} else if ("char".equals(primitive)) {
+			return Character.class.getCanonicalName();
+		}
+		return Number.class.getCanonicalName();
+	}
+
+	/**
+	 * Generates plain text source code for data assembler methods. Since values are passed directly from getter to
+	 * setter all bindings must have exactly the same types on both sides.
+	 *
+	 * @param assembleDtoMethodCode
+	 *            string builder that hold source for entity to dto method
+	 * @param assembleEntityMethodCode
+	 *            string builder that hold source for dto to entity method
+	 * @param dtoWriteDescriptors
+	 *            dto setters for entity to dto direction
+	 * @param entityReadDescriptors
+	 *            entity getter paths for entity to dto direction
+	 * @param dtoReadDescriptors
+	 *            dto getters for dto to entity direction
+	 * @param entityWriteDescriptors
+	 *            entity setters for dto to entity direction
+	 */
+	protected final void generateAssemblerMethods(final StringBuilder assembleDtoMethodCode,
+			final StringBuilder assembleEntityMethodCode, final PropertyDescriptor[] dtoWriteDescriptors,
+			final PropertyDescriptor[][] entityReadDescriptors, final PropertyDescriptor[] dtoReadDescriptors,
+			final PropertyDescriptor[] entityWriteDescriptors) {
+
+		assembleDtoMethodCode.append("public void assembleDto(Object dto, Object entity) {\n");
+		for (int i = 0; i < dtoWriteDescriptors.length; i++) {
+			final PropertyDescriptor[] path = entityReadDescriptors[i];
+			String source = "entity";
+			int depth = 0;
+			for (; depth < path.length - 1; depth++) {
+				final String var = "v" + i + "_" + depth;
+				assembleDtoMethodCode.append("final Object ").append(var).append(" = ");
+				appendGetter(assembleDtoMethodCode, path[depth], source);
+				assembleDtoMethodCode.append(";\n").append("if (").append(var).append(" != null) {\n");
+				source = var;
+			}
+			appendCast(assembleDtoMethodCode, dtoWriteDescriptors[i].getWriteMethod(), "dto");
+			assembleDtoMethodCode.append(".").append(dtoWriteDescriptors[i].getWriteMethod().getName()).append("(");
+			appendGetter(assembleDtoMethodCode, path[depth], source);
+			assembleDtoMethodCode.append(");\n");
+			for (int close = 0; close < path.length - 1; close++) {
+				assembleDtoMethodCode.append("}\n");
+			}
+		}
+		assembleDtoMethodCode.append("}");
+
+		assembleEntityMethodCode.append("public void assembleEntity(Object dto, Object entity) {\n");
+		for (int i = 0; i < dtoReadDescriptors.length; i++) {
+			appendCast(assembleEntityMethodCode, entityWriteDescriptors[i].getWriteMethod(), "entity");
+			assembleEntityMethodCode.append(".").append(entityWriteDescriptors[i].getWriteMethod().getName())
+			.append("(");
+			appendGetter(assembleEntityMethodCode, dtoReadDescriptors[i], "dto");
+			assembleEntityMethodCode.append(");\n");
+		}
+		assembleEntityMethodCode.append("}");
+
+		LOG.debug("Creating DataAssembler Class: \n{}\n{}\n", assembleDtoMethodCode, assembleEntityMethodCode);
+	}
+
+	private void appendGetter(final StringBuilder toAppendTo, final PropertyDescriptor descriptor, final String source) {
+		appendCast(toAppendTo, descriptor.getReadMethod(), source);
+		toAppendTo.append(".").append(descriptor.getReadMethod().getName()).append("()");
+	}
 
+	private void appendCast(final StringBuilder toAppendTo, final Method method, final String source) {
+		toAppendTo.append("((").append(getValidDeclaringClass(method).getCanonicalName()).append(") ").append(source)
+		.append(")");
 	}
 
 }
@@ -0,0 +1,73 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import com.inspiresoftware.lib.dto.geda.assembler.extension.PrimitiveDataReader;
+
+/**
+ * Base class for synthesized primitive data readers. Synthesizers override the variant that corresponds to the
+ * primitive type of the getter, all other variants fall back to boxed {@link #read(Object)}.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public abstract class AbstractPrimitiveDataReader implements PrimitiveDataReader {
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean readBoolean(final Object source) {
+		return ((Boolean) read(source)).booleanValue();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public byte readByte(final Object source) {
+		return ((Number) read(source)).byteValue();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public short readShort(final Object source) {
+		return ((Number) read(source)).shortValue();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public char readChar(final Object source) {
+		return ((Character) read(source)).charValue();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int readInt(final Object source) {
+		return ((Number) read(source)).intValue();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public long readLong(final Object source) {
+		return ((Number) read(source)).longValue();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public float readFloat(final Object source) {
+		return ((Number) read(source)).floatValue();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double readDouble(final Object source) {
+		return ((Number) read(source)).doubleValue();
+	}
+
+}
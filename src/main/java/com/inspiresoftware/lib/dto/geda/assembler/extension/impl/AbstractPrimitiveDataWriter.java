@@ -0,0 +1,73 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import com.inspiresoftware.lib.dto.geda.assembler.extension.PrimitiveDataWriter;
+
+/**
+ * Base class for synthesized primitive data writers. Synthesizers override the variant that corresponds to the
+ * primitive type of the setter, all other variants fall back to boxed {@link #write(Object, Object)}.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public abstract class AbstractPrimitiveDataWriter implements PrimitiveDataWriter {
+
+	/** {@inheritDoc} */
+	@Override
+	public void writeBoolean(final Object source, final boolean value) {
+		write(source, Boolean.valueOf(value));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void writeByte(final Object source, final byte value) {
+		write(source, Byte.valueOf(value));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void writeShort(final Object source, final short value) {
+		write(source, Short.valueOf(value));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void writeChar(final Object source, final char value) {
+		write(source, Character.valueOf(value));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void writeInt(final Object source, final int value) {
+		write(source, Integer.valueOf(value));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void writeLong(final Object source, final long value) {
+		write(source, Long.valueOf(value));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void writeFloat(final Object source, final float value) {
+		write(source, Float.valueOf(value));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void writeDouble(final Object source, final double value) {
+		write(source, Double.valueOf(value));
+	}
+
+}
@@ -0,0 +1,216 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
+
+/**
+ * Generates plain text source of {@link DataReader} and {@link DataWriter} classes and their methods. This is the
+ * single source template used by plain text method synthesizers at runtime and by the compile time annotation
+ * processor, so classes produced by either are interchangeable.
+ *
+ * All types are passed by name: return/argument type is a canonical name (wrapper name for primitives) and primitive
+ * is the primitive name (or null if the type is not primitive).
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public final class AccessorSourceGenerator {
+
+	/* Class type for method fragments compiled by javassist, which does not understand generics. */
+	static final String RAW_CLASS = "Class";
+
+	/* Class type for complete class sources compiled by javac. */
+	static final String WILDCARD_CLASS = "Class<?>";
+
+	private AccessorSourceGenerator() {
+		// no instance
+	}
+
+	/**
+	 * @param readerClassName
+	 *            full name of the reader class
+	 * @param sourceClassNameFull
+	 *            name of the class of source object (i.e. whose getter will be invoked)
+	 * @param sourceClassGetterMethodName
+	 *            name of the getter method to be invoked on the source object
+	 * @param returnType
+	 *            canonical name of the return type (wrapper name for primitives)
+	 * @param primitive
+	 *            primitive name of the return type (or null if this is not primitive)
+	 * @return source code of the reader class (primitive getters produce {@link AbstractPrimitiveDataReader}
+	 *         subclass)
+	 */
+	public static String generateReaderSource(final String readerClassName, final String sourceClassNameFull,
+			final String sourceClassGetterMethodName, final String returnType, final String primitive) {
+
+		final StringBuilder source = new StringBuilder();
+		appendClassDeclaration(source, readerClassName, primitive != null,
+				AbstractPrimitiveDataReader.class.getCanonicalName(), DataReader.class.getCanonicalName());
+		if (primitive != null) {
+			appendGetPrimitiveTypeMethod(source, WILDCARD_CLASS, primitive);
+			source.append('\n');
+			appendReadPrimitiveMethod(source, sourceClassNameFull, sourceClassGetterMethodName, primitive);
+			source.append('\n');
+		}
+		appendTypeMethod(source, WILDCARD_CLASS, "getReturnType", returnType);
+		source.append('\n');
+		appendReadMethod(source, sourceClassNameFull, sourceClassGetterMethodName, primitive);
+		source.append("\n}\n");
+		return source.toString();
+	}
+
+	/**
+	 * @param writerClassName
+	 *            full name of the writer class
+	 * @param sourceClassNameFull
+	 *            name of the class of source object (i.e. whose setter will be invoked)
+	 * @param sourceClassSetterMethodName
+	 *            name of the setter method to be invoked on the source object
+	 * @param argumentType
+	 *            canonical name of the argument type (wrapper name for primitives)
+	 * @param primitive
+	 *            primitive name of the argument type (or null if this is not primitive)
+	 * @return source code of the writer class (primitive setters produce {@link AbstractPrimitiveDataWriter}
+	 *         subclass)
+	 */
+	public static String generateWriterSource(final String writerClassName, final String sourceClassNameFull,
+			final String sourceClassSetterMethodName, final String argumentType, final String primitive) {
+
+		final StringBuilder source = new StringBuilder();
+		appendClassDeclaration(source, writerClassName, primitive != null,
+				AbstractPrimitiveDataWriter.class.getCanonicalName(), DataWriter.class.getCanonicalName());
+		if (primitive != null) {
+			appendGetPrimitiveTypeMethod(source, WILDCARD_CLASS, primitive);
+			source.append('\n');
+			appendWritePrimitiveMethod(source, sourceClassNameFull, sourceClassSetterMethodName, primitive);
+			source.append('\n');
+		}
+		appendTypeMethod(source, WILDCARD_CLASS, "getParameterType", argumentType);
+		source.append('\n');
+		appendWriteMethod(source, sourceClassNameFull, sourceClassSetterMethodName, argumentType, primitive);
+		source.append("\n}\n");
+		return source.toString();
+	}
+
+	/*
+	 * Appends DataReader.read(Object) method.
+	 */
+	static void appendReadMethod(final StringBuilder code, final String sourceClassNameFull,
+			final String sourceClassGetterMethodName, final String primitive) {
+
+		code.append("public Object read(Object source) {\n").append("final ").append(sourceClassNameFull)
+		.append(" clazz = (").append(sourceClassNameFull).append(") source;\n").append("return ");
+		if (primitive == null) {
+			code.append("clazz.").append(sourceClassGetterMethodName).append("()");
+		} else {
+			appendValueOf(code, primitive, "clazz." + sourceClassGetterMethodName + "()");
+		}
+		code.append(";\n}");
+	}
+
+	/*
+	 * Appends DataWriter.write(Object, Object) method.
+	 */
+	static void appendWriteMethod(final StringBuilder code, final String sourceClassNameFull,
+			final String sourceClassSetterMethodName, final String argumentType, final String primitive) {
+
+		code.append("public void write(Object source, Object value) {\n").append("final ")
+		.append(sourceClassNameFull).append(" clazz = (").append(sourceClassNameFull).append(") source;\n")
+		.append("clazz.").append(sourceClassSetterMethodName).append("(");
+		if (primitive == null) {
+			code.append("(").append(argumentType).append(") value");
+		} else {
+			appendPrimitiveValue(code, primitive, "value");
+		}
+		code.append(");\n}");
+	}
+
+	/*
+	 * Appends getReturnType()/getParameterType() method.
+	 */
+	static void appendTypeMethod(final StringBuilder code, final String classType, final String methodName,
+			final String typeName) {
+
+		code.append("public ").append(classType).append(' ').append(methodName).append("() {\n").append("return ")
+		.append(typeName).append(".class;\n").append("}");
+	}
+
+	/*
+	 * Appends PrimitiveDataReader/PrimitiveDataWriter.getPrimitiveType() method.
+	 */
+	static void appendGetPrimitiveTypeMethod(final StringBuilder code, final String classType,
+			final String primitive) {
+
+		code.append("public ").append(classType).append(" getPrimitiveType() {\n").append("return ")
+		.append(AbstractMethodSynthesizer.PRIMITIVE_TO_WRAPPER.get(primitive)).append(".TYPE;\n").append("}");
+	}
+
+	/*
+	 * Appends PrimitiveDataReader.readXxx(Object) method.
+	 */
+	static void appendReadPrimitiveMethod(final StringBuilder code, final String sourceClassNameFull,
+			final String sourceClassGetterMethodName, final String primitive) {
+
+		code.append("public ").append(primitive).append(' ')
+		.append(AbstractMethodSynthesizer.getPrimitiveReadMethodName(primitive)).append("(Object source) {\n")
+		.append("return ((").append(sourceClassNameFull).append(") source).").append(sourceClassGetterMethodName)
+		.append("();\n}");
+	}
+
+	/*
+	 * Appends PrimitiveDataWriter.writeXxx(Object, xxx) method.
+	 */
+	static void appendWritePrimitiveMethod(final StringBuilder code, final String sourceClassNameFull,
+			final String sourceClassSetterMethodName, final String primitive) {
+
+		code.append("public void ").append(AbstractMethodSynthesizer.getPrimitiveWriteMethodName(primitive))
+		.append("(Object source, ").append(primitive).append(" value) {\n").append("((")
+		.append(sourceClassNameFull).append(") source).").append(sourceClassSetterMethodName)
+		.append("(value);\n}");
+	}
+
+	/*
+	 * Appends boxing of primitive expression (e.g. java.lang.Integer.valueOf(expr)).
+	 */
+	static void appendValueOf(final StringBuilder code, final String primitive, final String valueOf) {
+
+		code.append(AbstractMethodSynthesizer.PRIMITIVE_TO_WRAPPER.get(primitive)).append(".valueOf(")
+		.append(valueOf).append(")");
+	}
+
+	/*
+	 * Appends unboxing of wrapper expression (e.g. ((java.lang.Integer) expr).intValue()).
+	 */
+	static void appendPrimitiveValue(final StringBuilder code, final String primitive, final String valueOf) {
+
+		code.append("((").append(AbstractMethodSynthesizer.PRIMITIVE_TO_WRAPPER.get(primitive)).append(") ")
+		.append(valueOf).append(")").append(AbstractMethodSynthesizer.WRAPPER_TO_PRIMITIVE.get(primitive));
+	}
+
+	private static void appendClassDeclaration(final StringBuilder code, final String fullClassName,
+			final boolean primitive, final String primitiveSuperclass, final String plainInterface) {
+		final int namePos = fullClassName.lastIndexOf('.');
+		final String packageName = fullClassName.substring(0, namePos);
+		final String className = fullClassName.substring(namePos + 1);
+
+		code.append("package ").append(packageName).append(";\n").append("public class ").append(className);
+		if (primitive) {
+			code.append(" extends ").append(primitiveSuperclass);
+		} else {
+			code.append(" implements ").append(plainInterface);
+		}
+		code.append(" {\n");
+	}
+
+}
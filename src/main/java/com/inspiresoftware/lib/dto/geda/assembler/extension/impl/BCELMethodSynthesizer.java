@@ -17,7 +17,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -58,6 +58,8 @@ BaseDirectoryProvider {
 
 	private String baseDir = null;
 
+	private SynthesizedClassManifest manifest;
+
 	/**
 	 * Primitive to wrapper conversion map.
 	 */
@@ -98,11 +100,11 @@ BaseDirectoryProvider {
 
 	/** {@inheritDoc} */
 	@Override
-	protected SoftReference<ClassLoader> initialiseClassLoaderWeakReference(final ClassLoader classLoader) {
+	protected WeakReference<ClassLoader> initialiseClassLoaderWeakReference(final ClassLoader classLoader) {
 		if (baseDir == null) {
-			return new SoftReference<ClassLoader>(new ByteClassLoader(classLoader));
+			return new WeakReference<ClassLoader>(new ByteClassLoader(classLoader));
 		}
-		return new SoftReference<ClassLoader>(new FileClassLoader(classLoader, this));
+		return new WeakReference<ClassLoader>(new FileClassLoader(classLoader, this, manifest));
 	}
 
 	/** {@inheritDoc} */
@@ -121,8 +123,8 @@ BaseDirectoryProvider {
 	 * Load class as byte array.
 	 */
 	@SuppressWarnings("unchecked")
-	private <T> T loadClass(final ClassLoader loader, final String className, final ClassGen cg) throws IOException,
-	InstantiationException, IllegalAccessException {
+	private <T> T loadClass(final ClassLoader loader, final String className, final java.lang.reflect.Method method,
+			final ClassGen cg) throws IOException, InstantiationException, IllegalAccessException {
 		if (baseDir == null) {
 			final ByteArrayOutputStream out = new ByteArrayOutputStream();
 			cg.getJavaClass().dump(out);
@@ -132,7 +134,9 @@ BaseDirectoryProvider {
 
 		final String readerSimpleName = className.substring(className.lastIndexOf('.') + 1);
 		final File clazz = new File(baseDir + readerSimpleName + ".class");
-		clazz.deleteOnExit();
+		if (manifest == null) {
+			clazz.deleteOnExit();
+		}
 
 		LOG.debug("Attempt to create source file: {}", clazz.getAbsolutePath());
 
@@ -149,6 +153,10 @@ BaseDirectoryProvider {
 
 		LOG.debug("Successfully created source file: {}", clazz.getAbsolutePath());
 
+		if (manifest != null) {
+			manifest.register(className, method);
+		}
+
 		try {
 			final Class<?> clazzF = loader.loadClass(className);
 			return (T) clazzF.newInstance();
@@ -178,8 +186,9 @@ BaseDirectoryProvider {
 
 			final ReturnTypeContext rtc = getReturnTypeContext(readerClassName, sourceClassGetterMethodReturnType);
 
-			final ClassGen cg = new ClassGen(readerClassName, "java.lang.Object", "<generated>",
-					ACC_PUBLIC | ACC_SUPER, new String[] { DataReader.class.getCanonicalName() });
+			final ClassGen cg = new ClassGen(readerClassName, rtc.isPrimitive() ? AbstractPrimitiveDataReader.class
+					.getCanonicalName() : "java.lang.Object", "<generated>", ACC_PUBLIC | ACC_SUPER,
+					new String[] { DataReader.class.getCanonicalName() });
 			final ConstantPoolGen cp = cg.getConstantPool(); // cg creates constant pool
 			cg.setMajor(MAJOR);
 			cg.setMinor(MINOR);
@@ -242,7 +251,34 @@ BaseDirectoryProvider {
 
 			il.dispose();
 
-			return loadClass(loader, readerClassName, cg);
+			if (rtc.isPrimitive()) {
+				final String primitive = rtc.getMethodReturnTypePrimitiveName();
+				final org.apache.bcel.generic.Type primitiveType = PRIMITIVE_TO_TYPE.get(primitive);
+
+				addPrimitiveTypeMethod(cg, cp, factory, il, readerClassName, rtc.getMethodReturnType());
+
+				// read primitive method
+				final MethodGen readPrimitive = new MethodGen(ACC_PUBLIC, primitiveType,
+						new org.apache.bcel.generic.Type[] { // argument types
+						org.apache.bcel.generic.Type.OBJECT }, new String[] { "source" },
+						getPrimitiveReadMethodName(primitive), readerClassName, il, cp);
+				il.append(new ALOAD(1));
+				il.append(factory.createCast(readPrimitive.getArgumentType(0), sourceClassType));
+				il.append(factory.createInvoke(sourceClassNameFull, sourceClassGetterMethodName, primitiveType,
+						org.apache.bcel.generic.Type.NO_ARGS,
+						readMethod.getDeclaringClass().isInterface() ? Constants.INVOKEINTERFACE : Constants.INVOKEVIRTUAL));
+				il.append(InstructionFactory.createReturn(primitiveType));
+				readPrimitive.setMaxStack();
+				cg.addMethod(readPrimitive.getMethod());
+
+				if (LOG.isDebugEnabled()) {
+					LOG.debug("read primitive method:\n{}", readPrimitive.getMethod().getCode().toString(true));
+				}
+
+				il.dispose();
+			}
+
+			return loadClass(loader, readerClassName, readMethod, cg);
 
 		} catch (Exception ite) {
 			throw new UnableToCreateInstanceException(readerClassName, "Unable to instantiate class: "
@@ -263,8 +299,9 @@ BaseDirectoryProvider {
 
 			final ArgumentTypeContext atc = getArgumentTypeContext(sourceClassSetterMethodArgumentClass);
 
-			final ClassGen cg = new ClassGen(writerClassName, "java.lang.Object", "<generated>",
-					ACC_PUBLIC | ACC_SUPER, new String[] { DataWriter.class.getCanonicalName() });
+			final ClassGen cg = new ClassGen(writerClassName, atc.isPrimitive() ? AbstractPrimitiveDataWriter.class
+					.getCanonicalName() : "java.lang.Object", "<generated>", ACC_PUBLIC | ACC_SUPER,
+					new String[] { DataWriter.class.getCanonicalName() });
 			final ConstantPoolGen cp = cg.getConstantPool(); // cg creates constant pool
 			cg.setMajor(MAJOR);
 			cg.setMinor(MINOR);
@@ -336,7 +373,35 @@ BaseDirectoryProvider {
 
 			il.dispose();
 
-			return loadClass(loader, writerClassName, cg);
+			if (atc.isPrimitive()) {
+				final String primitive = atc.getMethodArgPrimitiveName();
+				final org.apache.bcel.generic.Type primitiveType = PRIMITIVE_TO_TYPE.get(primitive);
+
+				addPrimitiveTypeMethod(cg, cp, factory, il, writerClassName, atc.getMethodArgType());
+
+				// write primitive method
+				final MethodGen writePrimitive = new MethodGen(ACC_PUBLIC, org.apache.bcel.generic.Type.VOID,
+						new org.apache.bcel.generic.Type[] { // argument types
+						org.apache.bcel.generic.Type.OBJECT, primitiveType }, new String[] { "source", "value" },
+						getPrimitiveWriteMethodName(primitive), writerClassName, il, cp);
+				il.append(new ALOAD(1)); // source
+				il.append(factory.createCast(writePrimitive.getArgumentType(0), sourceClassType));
+				il.append(InstructionFactory.createLoad(primitiveType, 2)); // value
+				il.append(factory.createInvoke(sourceClassNameFull, sourceClassSetterMethodName,
+						org.apache.bcel.generic.Type.VOID, new org.apache.bcel.generic.Type[] { primitiveType },
+						writeMethod.getDeclaringClass().isInterface() ? Constants.INVOKEINTERFACE : Constants.INVOKEVIRTUAL));
+				il.append(InstructionFactory.RETURN);
+				writePrimitive.setMaxStack();
+				cg.addMethod(writePrimitive.getMethod());
+
+				if (LOG.isDebugEnabled()) {
+					LOG.debug("write primitive method:\n{}", writePrimitive.getMethod().getCode().toString(true));
+				}
+
+				il.dispose();
+			}
+
+			return loadClass(loader, writerClassName, writeMethod, cg);
 
 		} catch (Exception ite) {
 			throw new UnableToCreateInstanceException(writerClassName, "Unable to instantiate class: "
@@ -345,10 +410,32 @@ BaseDirectoryProvider {
 
 	}
 
+	/*
+	 * Adds getPrimitiveType() method that returns TYPE constant of the wrapper class.
+	 */
+	private void addPrimitiveTypeMethod(final ClassGen cg, final ConstantPoolGen cp, final InstructionFactory factory,
+			final InstructionList il, final String className, final String wrapperClassName) {
+		final MethodGen primitiveType = new MethodGen(ACC_PUBLIC, org.apache.bcel.generic.Type.CLASS,
+				org.apache.bcel.generic.Type.NO_ARGS, null, "getPrimitiveType", className, il, cp);
+		il.append(factory.createFieldAccess(wrapperClassName, "TYPE", org.apache.bcel.generic.Type.CLASS,
+				Constants.GETSTATIC));
+		il.append(InstructionFactory.ARETURN);
+		primitiveType.setMaxStack();
+		cg.addMethod(primitiveType.getMethod());
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("primitive type method:\n{}", primitiveType.getMethod().getCode().toString(true));
+		}
+
+		il.dispose();
+	}
+
 	/**
 	 * @param configuration
 	 *            configuration name baseDir - allows to set the directory where newly generated temp files for classes
-	 *            will reside until the system exits. readerCleanUpCycle - allows to set clean up cycle for soft cache
+	 *            will reside until the system exits. persistent - if true class files in baseDir are kept on exit and
+	 *            reused on next start (as long as declaring classes do not change, see
+	 *            {@link SynthesizedClassManifest}). readerCleanUpCycle - allows to set clean up cycle for soft cache
 	 *            of readers writerCleanUpCycle - allows to set clean up cycle for soft cache of writers
 	 * @param value
 	 *            value to set
@@ -368,8 +455,33 @@ BaseDirectoryProvider {
 			LOG.info("Setting class loader base dir to: {}", baseDir);
 			enhanceClassLoader();
 			return true;
+		} else if ("persistent".equals(configuration)) {
+			if (manifest != null) {
+				manifest.flush();
+			}
+			manifest = Boolean.valueOf(String.valueOf(value)) ? new SynthesizedClassManifest(this) : null;
+			LOG.info("Setting persistent class files to: {}", manifest != null);
+			enhanceClassLoader();
+			return true;
 		}
 		return super.configure(configuration, value);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	protected void beforeClassLookup(final String className, final java.lang.reflect.Method method) {
+		if (manifest != null) {
+			manifest.expect(className, method);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void releaseResources() {
+		if (manifest != null) {
+			manifest.flush();
+		}
+		super.releaseResources();
+	}
+
 }
@@ -0,0 +1,200 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.inspiresoftware.lib.dto.geda.assembler.extension.Cache;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.CacheEvictionListener;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DisposableContainer;
+import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceException;
+
+/**
+ * Size bounded cache with strong references. Once the number of entries exceeds maximum size, least recently used
+ * (lru) or least frequently used (lfu) entries are evicted and eviction listener (if any) is notified.
+ *
+ * Reads are lock free and share no counters: lru records access time of the entry at most once per millisecond and
+ * lfu counts hits of the entry. Eviction scans entries under lock. Since eviction only happens on put, this is
+ * cheap for caches that are mostly read (such as assembler caches).
+ *
+ * Configurations:
+ * <ul>
+ * <li>maxSize - maximum number of entries (default 1000)</li>
+ * <li>policy - lru (default) or lfu</li>
+ * <li>evictionListener - {@link CacheEvictionListener} instance or class name</li>
+ * </ul>
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ * @param <K>
+ *            key
+ * @param <V>
+ *            value
+ *
+ */
+public class BoundedCache<K, V> implements Cache<K, V> {
+
+	/**
+	 * Least recently used eviction policy.
+	 */
+	public static final String LRU = "lru";
+
+	/**
+	 * Least frequently used eviction policy.
+	 */
+	public static final String LFU = "lfu";
+
+	private static final int DEFAULT_MAX_SIZE = 1000;
+
+	private static final long TOUCH_RESOLUTION = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final ConcurrentMap<K, Entry<V>> cache = new ConcurrentHashMap<K, Entry<V>>();
+
+	private volatile int maxSize = DEFAULT_MAX_SIZE;
+	private volatile boolean lfu;
+	private volatile CacheEvictionListener<K, V> evictionListener;
+
+	/** {@inheritDoc} */
+	@Override
+	public V get(final K key) {
+		final Entry<V> entry = cache.get(key);
+		if (entry != null) {
+			entry.touch(System.nanoTime(), lfu);
+			return entry.value;
+		}
+		return null;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void put(final K key, final V value) {
+		cache.put(key, new Entry<V>(value, System.nanoTime()));
+		if (cache.size() > maxSize) {
+			evict(key);
+		}
+	}
+
+	/*
+	 * Evicts coldest entries, except for the one just put (it has no hits yet, so lfu would always pick it).
+	 */
+	private synchronized void evict(final K retained) {
+		while (cache.size() > maxSize) {
+			Map.Entry<K, Entry<V>> victim = null;
+			for (final Map.Entry<K, Entry<V>> candidate : cache.entrySet()) {
+				if (candidate.getKey().equals(retained)) {
+					continue;
+				}
+				if (victim == null || isColder(candidate.getValue(), victim.getValue())) {
+					victim = candidate;
+				}
+			}
+			if (victim == null) {
+				return;
+			}
+			if (cache.remove(victim.getKey(), victim.getValue())) {
+				final CacheEvictionListener<K, V> listener = evictionListener;
+				if (listener != null) {
+					listener.onEviction(victim.getKey(), victim.getValue().value);
+				}
+			}
+		}
+	}
+
+	private boolean isColder(final Entry<V> candidate, final Entry<V> victim) {
+		if (lfu && candidate.hits != victim.hits) {
+			return candidate.hits < victim.hits;
+		}
+		return candidate.lastAccess - victim.lastAccess < 0;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean configure(final String configuration, final Object value) throws UnableToCreateInstanceException {
+		if ("maxSize".equals(configuration)) {
+			maxSize = Integer.valueOf(String.valueOf(value));
+			if (cache.size() > maxSize) {
+				evict(null);
+			}
+			return true;
+		} else if ("policy".equals(configuration)) {
+			final String policy = String.valueOf(value);
+			if (LFU.equals(policy)) {
+				lfu = true;
+				return true;
+			} else if (LRU.equals(policy)) {
+				lfu = false;
+				return true;
+			}
+			return false;
+		} else if ("evictionListener".equals(configuration)) {
+			if (value == null || value instanceof CacheEvictionListener) {
+				evictionListener = (CacheEvictionListener<K, V>) value;
+			} else {
+				final String className = String.valueOf(value);
+				try {
+					evictionListener = (CacheEvictionListener<K, V>) Class.forName(className).newInstance();
+				} catch (Exception exp) {
+					throw new UnableToCreateInstanceException(className, "Unable to create eviction listener: "
+							+ className, exp);
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void releaseResources() {
+		final Iterator<Entry<V>> it = cache.values().iterator();
+		while (it.hasNext()) {
+			final Object obj = it.next().value;
+			it.remove();
+			if (obj instanceof DisposableContainer) {
+				((DisposableContainer) obj).releaseResources();
+			}
+		}
+	}
+
+	/*
+	 * Cached value with access statistics. Statistics are updated without synchronization on purpose - eviction
+	 * only needs them to be approximate. Access time is only written once it is older than touch resolution, so
+	 * that frequent hits of the same entry do not keep writing to it.
+	 */
+	private static final class Entry<V> {
+
+		private final V value;
+		private volatile long lastAccess;
+		private volatile int hits;
+
+		Entry(final V value, final long lastAccess) {
+			this.value = value;
+			this.lastAccess = lastAccess;
+		}
+
+		void touch(final long time, final boolean countHit) {
+			if (time - lastAccess > TOUCH_RESOLUTION) {
+				lastAccess = time;
+			}
+			if (countHit) {
+				hits++;
+			}
+		}
+
+	}
+
+}
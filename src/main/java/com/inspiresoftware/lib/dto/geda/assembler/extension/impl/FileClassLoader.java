@@ -19,7 +19,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ClassLoader that loads classes from specified directory.
+ * ClassLoader that loads classes from specified directory. By default class files are temporary and deleted on exit,
+ * if {@link SynthesizedClassManifest} is specified class files are kept and only reused if they are valid according to
+ * manifest.
  *
  * @author denispavlov
  *
@@ -30,6 +32,8 @@ public class FileClassLoader extends ByteClassLoader {
 
 	private final BaseDirectoryProvider directoryProvider;
 
+	private final SynthesizedClassManifest manifest;
+
 	/**
 	 * @param parent
 	 *            parent class loader
@@ -37,8 +41,23 @@ public class FileClassLoader extends ByteClassLoader {
 	 *            directory provider for this class loader
 	 */
 	public FileClassLoader(final ClassLoader parent, final BaseDirectoryProvider directoryProvider) {
-		super(parent);
+		this(parent, directoryProvider, null);
+	}
+
+	/**
+	 * @param parent
+	 *            parent class loader (if parent is another file class loader its parent is used instead, so that
+	 *            files are not read by loaders with different configuration)
+	 * @param directoryProvider
+	 *            directory provider for this class loader
+	 * @param manifest
+	 *            manifest of persistent classes (or null if class files are temporary)
+	 */
+	public FileClassLoader(final ClassLoader parent, final BaseDirectoryProvider directoryProvider,
+			final SynthesizedClassManifest manifest) {
+		super(parent instanceof FileClassLoader ? parent.getParent() : parent);
 		this.directoryProvider = directoryProvider;
+		this.manifest = manifest;
 	}
 
 	/** {@inheritDoc} */
@@ -56,7 +75,14 @@ public class FileClassLoader extends ByteClassLoader {
 		final String filename = baseDir + readerSimpleName + ".class";
 		try {
 			final File file = new File(filename);
-			file.deleteOnExit();
+			if (manifest == null) {
+				file.deleteOnExit();
+			} else if (!manifest.isValid(name, getParent())) {
+				if (file.exists() && file.delete()) {
+					LOG.debug("Deleted stale class file: {}", file.getAbsolutePath());
+				}
+				throw new ClassNotFoundException("No valid class: " + name + " located at " + filename);
+			}
 
 			if (LOG.isDebugEnabled()) {
 				LOG.debug("Trying to read class file: {}", file.getAbsolutePath());
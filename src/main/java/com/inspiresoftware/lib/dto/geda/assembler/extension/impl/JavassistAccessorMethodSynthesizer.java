@@ -0,0 +1,517 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javassist.CannotCompileException;
+import javassist.CtClass;
+import javassist.CtMethod;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataAccessor;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.PrimitiveDataReader;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.PrimitiveDataWriter;
+import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
+import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceException;
+
+/**
+ * Javassist implementation that generates a single {@link DataAccessor} class per declaring class (with index based
+ * dispatch to all its getters and setters) instead of a class per property. Readers and writers are thin views over
+ * the accessor (views of primitive properties are primitive readers/writers backed by primitive accessor methods, so
+ * values are not boxed). This reduces number of generated classes (and hence metaspace and synthesis time) at the
+ * cost of a switch per invocation.
+ *
+ * Properties whose types are not public, and all properties of classes whose accessor could not be generated, fall
+ * back to class per property generation.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class JavassistAccessorMethodSynthesizer extends JavassistMethodSynthesizer implements MethodSynthesizer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(JavassistAccessorMethodSynthesizer.class);
+
+	private static final Comparator<Method> METHOD_ORDER = new Comparator<Method>() {
+		@Override
+		public int compare(final Method m1, final Method m2) {
+			final int byName = m1.getName().compareTo(m2.getName());
+			if (byName != 0) {
+				return byName;
+			}
+			return signature(m1).compareTo(signature(m2));
+		}
+	};
+
+	private final ConcurrentMap<Class<?>, FutureTask<AccessorContext>> accessors =
+			new ConcurrentHashMap<Class<?>, FutureTask<AccessorContext>>();
+
+	/**
+	 * Default constructor that adds GeDA path to pool for generating files.
+	 *
+	 * @param classLoader
+	 *            class loader
+	 */
+	public JavassistAccessorMethodSynthesizer(final ClassLoader classLoader) {
+		super(classLoader);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected String getSynthesizerId() {
+		return "accessor";
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected DataReader makeReaderClass(final ClassLoader loader, final Method readMethod,
+			final String readerClassName, final String sourceClassNameFull, final String sourceClassGetterMethodName,
+			final Type sourceClassGetterMethodReturnType, final MakeContext ctx)
+					throws UnableToCreateInstanceException, GeDARuntimeException {
+
+		final AccessorContext accessor = getAccessor(loader, getValidDeclaringClass(readMethod), ctx);
+		final Integer index = accessor != null ? accessor.getters.get(signature(readMethod)) : null;
+		if (index == null) {
+			return super.makeReaderClass(loader, readMethod, readerClassName, sourceClassNameFull,
+					sourceClassGetterMethodName, sourceClassGetterMethodReturnType, ctx);
+		}
+
+		final ReturnTypeContext rtc = getReturnTypeContext(readerClassName, sourceClassGetterMethodReturnType);
+		if (rtc.isPrimitive()) {
+			return new AccessorPrimitiveDataReader(accessor.accessor, index.intValue(),
+					PRIMITIVE_TO_WRAPPER_CLASS.get(rtc.getMethodReturnTypePrimitiveName()), rtc.getClazz());
+		}
+
+		return new AccessorDataReader(accessor.accessor, index.intValue(), rtc.getClazz());
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected DataWriter makeWriterClass(final ClassLoader loader, final Method writeMethod,
+			final String writerClassName, final String sourceClassNameFull, final String sourceClassSetterMethodName,
+			final Class<?> sourceClassSetterMethodArgumentClass, final MakeContext ctx)
+					throws UnableToCreateInstanceException {
+
+		final AccessorContext accessor = getAccessor(loader, getValidDeclaringClass(writeMethod), ctx);
+		final Integer index = accessor != null ? accessor.setters.get(signature(writeMethod)) : null;
+		if (index == null) {
+			return super.makeWriterClass(loader, writeMethod, writerClassName, sourceClassNameFull,
+					sourceClassSetterMethodName, sourceClassSetterMethodArgumentClass, ctx);
+		}
+
+		if (sourceClassSetterMethodArgumentClass.isPrimitive()) {
+			return new AccessorPrimitiveDataWriter(accessor.accessor, index.intValue(),
+					PRIMITIVE_TO_WRAPPER_CLASS.get(sourceClassSetterMethodArgumentClass.getCanonicalName()),
+					sourceClassSetterMethodArgumentClass);
+		}
+
+		return new AccessorDataWriter(accessor.accessor, index.intValue(), sourceClassSetterMethodArgumentClass);
+	}
+
+	/*
+	 * Accessor class is generated once per declaring class: concurrent requests for the same class wait for the first
+	 * one, while accessors of different classes are generated in parallel. Unsuccessful generation is remembered as null
+	 * result, so that remaining properties of the class go straight to class per property generation.
+	 */
+	private AccessorContext getAccessor(final ClassLoader loader, final Class<?> declaring, final MakeContext ctx)
+			throws UnableToCreateInstanceException {
+
+		FutureTask<AccessorContext> task = accessors.get(declaring);
+		if (task == null) {
+			final FutureTask<AccessorContext> newTask = new FutureTask<AccessorContext>(new Callable<AccessorContext>() {
+				@Override
+				public AccessorContext call() throws Exception {
+					final Method[] getters = getAccessibleMethods(declaring, true);
+					final Method[] setters = getAccessibleMethods(declaring, false);
+					final String accessorClassName = declaring.getCanonicalName() + "DataAccessorID"
+							+ getSynthesizerId();
+
+					final DataAccessor instance = makeAccessorClass(loader, accessorClassName,
+							declaring.getCanonicalName(), getters, setters, ctx);
+					if (instance == null) {
+						return null;
+					}
+					return new AccessorContext(instance, getters, setters);
+				}
+			});
+			task = accessors.putIfAbsent(declaring, newTask);
+			if (task == null) {
+				task = newTask;
+				newTask.run();
+			}
+		}
+
+		try {
+			return task.get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new UnableToCreateInstanceException(declaring.getName(), "Interrupted while waiting for accessor of: "
+					+ declaring.getName(), ie);
+		} catch (ExecutionException ee) {
+			accessors.remove(declaring, task); // exceptions are not remembered, next property will retry
+			final Throwable cause = ee.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause; // GeDA exceptions are runtime exceptions
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new UnableToCreateInstanceException(declaring.getName(), "Unable to create accessor of: "
+					+ declaring.getName(), cause);
+		}
+	}
+
+	private DataAccessor makeAccessorClass(final ClassLoader loader, final String accessorClassName,
+			final String sourceClassNameFull, final Method[] getters, final Method[] setters, final MakeContext ctx)
+					throws UnableToCreateInstanceException {
+
+		try {
+			// class could have been defined before accessors cache was released
+			return (DataAccessor) Class.forName(accessorClassName, true, loader).newInstance();
+		} catch (ClassNotFoundException cnfe) {
+			// need to generate
+		} catch (Exception exp) {
+			throw new UnableToCreateInstanceException(accessorClassName, "Unable to instantiate class: "
+					+ accessorClassName, exp);
+		}
+
+		final CtClass ctClass = getClassPool().makeClass(accessorClassName);
+		final StringBuilder readMethodCode = new StringBuilder();
+		final StringBuilder writeMethodCode = new StringBuilder();
+		final List<String> primitiveMethodCodes = new ArrayList<String>();
+		try {
+			ctClass.setInterfaces(new CtClass[] { getClassPool().get(DataAccessor.class.getCanonicalName()) });
+
+			generateAccessorMethods(readMethodCode, writeMethodCode, sourceClassNameFull, getters, setters);
+
+			CtMethod methodRead = CtMethod.make(readMethodCode.toString(), ctClass);
+			ctClass.addMethod(methodRead);
+
+			CtMethod methodWrite = CtMethod.make(writeMethodCode.toString(), ctClass);
+			ctClass.addMethod(methodWrite);
+
+			generatePrimitiveAccessorMethods(primitiveMethodCodes, sourceClassNameFull, getters, setters);
+			for (final String primitiveMethodCode : primitiveMethodCodes) {
+				ctClass.addMethod(CtMethod.make(primitiveMethodCode, ctClass));
+			}
+			ctClass.detach();
+
+			return (DataAccessor) ctClass.toClass(loader, DataAccessor.class.getProtectionDomain()).newInstance();
+
+		} catch (CannotCompileException cce) {
+			ctx.next(cce, readMethodCode.toString() + "\n\n" + writeMethodCode.toString() + "\n\n"
+					+ primitiveMethodCodes);
+
+			LOG.warn("Unable to create accessor class: {}, falling back to class per property", accessorClassName);
+
+			return null;
+		} catch (Exception ite) {
+			throw new UnableToCreateInstanceException(accessorClassName, "Unable to instantiate class: "
+					+ accessorClassName, ite);
+		}
+	}
+
+	/*
+	 * Public getters (or setters) of the class, whose types are visible to generated code. Methods are sorted so that
+	 * indexes are stable for the same class.
+	 */
+	private static Method[] getAccessibleMethods(final Class<?> declaring, final boolean getters) {
+		final List<Method> methods = new ArrayList<Method>();
+		for (final Method method : declaring.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers()) || method.isBridge()
+					|| method.getDeclaringClass().equals(Object.class)) {
+				continue;
+			}
+			final String name = method.getName();
+			if (getters) {
+				if (method.getParameterTypes().length == 0 && !method.getReturnType().equals(Void.TYPE)
+						&& (name.startsWith("get") || name.startsWith("is")) && isPublicType(method.getReturnType())) {
+					methods.add(method);
+				}
+			} else {
+				if (method.getParameterTypes().length == 1 && name.startsWith("set")
+						&& isPublicType(method.getParameterTypes()[0])) {
+					methods.add(method);
+				}
+			}
+		}
+		final Method[] sorted = methods.toArray(new Method[methods.size()]);
+		Arrays.sort(sorted, METHOD_ORDER);
+		return sorted;
+	}
+
+	private static boolean isPublicType(final Class<?> type) {
+		Class<?> component = type;
+		while (component.isArray()) {
+			component = component.getComponentType();
+		}
+		if (component.isPrimitive()) {
+			return true;
+		}
+		for (Class<?> current = component; current != null; current = current.getDeclaringClass()) {
+			if (!Modifier.isPublic(current.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String signature(final Method method) {
+		final StringBuilder signature = new StringBuilder(method.getName()).append('(');
+		for (final Class<?> param : method.getParameterTypes()) {
+			signature.append(param.getName()).append(',');
+		}
+		return signature.append(')').toString();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void releaseResources() {
+		accessors.clear();
+		super.releaseResources();
+	}
+
+	/*
+	 * Generated accessor with method indexes.
+	 */
+	private static final class AccessorContext {
+
+		private final DataAccessor accessor;
+		private final Map<String, Integer> getters = new HashMap<String, Integer>();
+		private final Map<String, Integer> setters = new HashMap<String, Integer>();
+
+		AccessorContext(final DataAccessor accessor, final Method[] getters, final Method[] setters) {
+			this.accessor = accessor;
+			for (int i = 0; i < getters.length; i++) {
+				this.getters.put(signature(getters[i]), Integer.valueOf(i));
+			}
+			for (int i = 0; i < setters.length; i++) {
+				this.setters.put(signature(setters[i]), Integer.valueOf(i));
+			}
+		}
+
+	}
+
+	/*
+	 * Reader view of accessor.
+	 */
+	private static class AccessorDataReader implements DataReader {
+
+		protected final DataAccessor accessor;
+		protected final int index;
+		private final Class<?> returnType;
+
+		AccessorDataReader(final DataAccessor accessor, final int index, final Class<?> returnType) {
+			this.accessor = accessor;
+			this.index = index;
+			this.returnType = returnType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Object read(final Object source) {
+			return accessor.read(index, source);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Class<?> getReturnType() {
+			return returnType;
+		}
+
+	}
+
+	/*
+	 * Writer view of accessor.
+	 */
+	private static class AccessorDataWriter implements DataWriter {
+
+		protected final DataAccessor accessor;
+		protected final int index;
+		private final Class<?> parameterType;
+
+		AccessorDataWriter(final DataAccessor accessor, final int index, final Class<?> parameterType) {
+			this.accessor = accessor;
+			this.index = index;
+			this.parameterType = parameterType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void write(final Object source, final Object value) {
+			accessor.write(index, source, value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Class<?> getParameterType() {
+			return parameterType;
+		}
+
+	}
+
+	/*
+	 * Primitive reader view of accessor.
+	 */
+	private static final class AccessorPrimitiveDataReader extends AccessorDataReader implements PrimitiveDataReader {
+
+		private final Class<?> primitiveType;
+
+		AccessorPrimitiveDataReader(final DataAccessor accessor, final int index, final Class<?> returnType,
+				final Class<?> primitiveType) {
+			super(accessor, index, returnType);
+			this.primitiveType = primitiveType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Class<?> getPrimitiveType() {
+			return primitiveType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public boolean readBoolean(final Object source) {
+			return accessor.readBoolean(index, source);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public byte readByte(final Object source) {
+			return accessor.readByte(index, source);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public short readShort(final Object source) {
+			return accessor.readShort(index, source);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public char readChar(final Object source) {
+			return accessor.readChar(index, source);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int readInt(final Object source) {
+			return accessor.readInt(index, source);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public long readLong(final Object source) {
+			return accessor.readLong(index, source);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public float readFloat(final Object source) {
+			return accessor.readFloat(index, source);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public double readDouble(final Object source) {
+			return accessor.readDouble(index, source);
+		}
+
+	}
+
+	/*
+	 * Primitive writer view of accessor.
+	 */
+	private static final class AccessorPrimitiveDataWriter extends AccessorDataWriter implements PrimitiveDataWriter {
+
+		private final Class<?> primitiveType;
+
+		AccessorPrimitiveDataWriter(final DataAccessor accessor, final int index, final Class<?> parameterType,
+				final Class<?> primitiveType) {
+			super(accessor, index, parameterType);
+			this.primitiveType = primitiveType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Class<?> getPrimitiveType() {
+			return primitiveType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void writeBoolean(final Object source, final boolean value) {
+			accessor.writeBoolean(index, source, value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void writeByte(final Object source, final byte value) {
+			accessor.writeByte(index, source, value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void writeShort(final Object source, final short value) {
+			accessor.writeShort(index, source, value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void writeChar(final Object source, final char value) {
+			accessor.writeChar(index, source, value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void writeInt(final Object source, final int value) {
+			accessor.writeInt(index, source, value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void writeLong(final Object source, final long value) {
+			accessor.writeLong(index, source, value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void writeFloat(final Object source, final float value) {
+			accessor.writeFloat(index, source, value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void writeDouble(final Object source, final double value) {
+			accessor.writeDouble(index, source, value);
+		}
+
+	}
+
+}
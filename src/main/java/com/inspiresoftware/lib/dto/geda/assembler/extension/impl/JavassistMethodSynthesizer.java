@@ -10,6 +10,9 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
 
+import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 
@@ -22,6 +25,7 @@ import javassist.LoaderClassPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataAssembler;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
@@ -30,6 +34,9 @@ import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceExceptio
 
 /**
  * Javassist implementation.
+ * <p/>
+ * Supports "synthesizeAssemblers" configuration, which enables generation of {@link DataAssembler}s that copy all
+ * simple fields of DTO/Entity pair in a single class.
  *
  * @author DPavlov
  * @since 1.1.0
@@ -58,7 +65,21 @@ public class JavassistMethodSynthesizer extends AbstractPlainTextMethodSynthesiz
 	 *            this synthesizer's pool
 	 */
 	protected void appendClassPath(final ClassPool pool) {
-		pool.appendClassPath(new LoaderClassPath(getClassLoader()));
+		// parent of generated classes loader, which outlives the loader if the latter is collected and recreated
+		pool.appendClassPath(new LoaderClassPath(getClassLoader().getParent()));
+	}
+
+	/**
+	 * Generated classes are defined in a child {@link ByteClassLoader}, rather than in given class loader, so that
+	 * they can be unloaded after {@link #releaseResources()}.
+	 *
+	 * @param classLoader
+	 *            class loader that generated classes will use
+	 * @return reference to child class loader
+	 */
+	@Override
+	protected Reference<ClassLoader> initialiseClassLoaderWeakReference(final ClassLoader classLoader) {
+		return new WeakReference<ClassLoader>(new ByteClassLoader(classLoader));
 	}
 
 	/**
@@ -86,13 +107,28 @@ public class JavassistMethodSynthesizer extends AbstractPlainTextMethodSynthesiz
 		final CtClass ctClass = pool.makeClass(readerClassName);
 		final StringBuilder readMethodCode = new StringBuilder();
 		final StringBuilder getReturnTypeMethodCode = new StringBuilder();
+		final StringBuilder getPrimitiveTypeMethodCode = new StringBuilder();
+		final StringBuilder readPrimitiveMethodCode = new StringBuilder();
 		try {
 
-			ctClass.setInterfaces(new CtClass[] { pool.get(DataReader.class.getCanonicalName()) });
-
 			generateReaderMethods(readMethodCode, getReturnTypeMethodCode, readerClassName, sourceClassNameFull,
 					sourceClassGetterMethodName, sourceClassGetterMethodReturnType);
 
+			if (generatePrimitiveReaderMethods(getPrimitiveTypeMethodCode, readPrimitiveMethodCode,
+					sourceClassNameFull, sourceClassGetterMethodName, sourceClassGetterMethodReturnType)) {
+
+				ctClass.setSuperclass(pool.get(AbstractPrimitiveDataReader.class.getCanonicalName()));
+
+				CtMethod methodGetPrimitiveType = CtMethod.make(getPrimitiveTypeMethodCode.toString(), ctClass);
+				ctClass.addMethod(methodGetPrimitiveType);
+
+				CtMethod methodReadPrimitive = CtMethod.make(readPrimitiveMethodCode.toString(), ctClass);
+				ctClass.addMethod(methodReadPrimitive);
+
+			} else {
+				ctClass.setInterfaces(new CtClass[] { pool.get(DataReader.class.getCanonicalName()) });
+			}
+
 			CtMethod methodRead = CtMethod.make(readMethodCode.toString(), ctClass);
 			ctClass.addMethod(methodRead);
 
@@ -106,7 +142,8 @@ public class JavassistMethodSynthesizer extends AbstractPlainTextMethodSynthesiz
 			return reader;
 
 		} catch (CannotCompileException cce) {
-			ctx.next(cce, readMethodCode.toString() + "\n\n" + getReturnTypeMethodCode.toString());
+			ctx.next(cce, readMethodCode.toString() + "\n\n" + getReturnTypeMethodCode.toString() + "\n\n"
+					+ getPrimitiveTypeMethodCode.toString() + "\n\n" + readPrimitiveMethodCode.toString());
 
 			LOG.warn("Unable to create method in class: {}... possibly class already loaded", readerClassName);
 
@@ -127,12 +164,27 @@ public class JavassistMethodSynthesizer extends AbstractPlainTextMethodSynthesiz
 		final CtClass ctClass = pool.makeClass(writerClassName);
 		final StringBuilder writeMethodCode = new StringBuilder();
 		final StringBuilder getParameterTypeMethodCode = new StringBuilder();
+		final StringBuilder getPrimitiveTypeMethodCode = new StringBuilder();
+		final StringBuilder writePrimitiveMethodCode = new StringBuilder();
 		try {
-			ctClass.setInterfaces(new CtClass[] { pool.get(DataWriter.class.getCanonicalName()) });
-
 			generateWriterMethods(writeMethodCode, getParameterTypeMethodCode, writerClassName, sourceClassNameFull,
 					sourceClassSetterMethodName, sourceClassSetterMethodArgumentClass);
 
+			if (generatePrimitiveWriterMethods(getPrimitiveTypeMethodCode, writePrimitiveMethodCode,
+					sourceClassNameFull, sourceClassSetterMethodName, sourceClassSetterMethodArgumentClass)) {
+
+				ctClass.setSuperclass(pool.get(AbstractPrimitiveDataWriter.class.getCanonicalName()));
+
+				CtMethod methodGetPrimitiveType = CtMethod.make(getPrimitiveTypeMethodCode.toString(), ctClass);
+				ctClass.addMethod(methodGetPrimitiveType);
+
+				CtMethod methodWritePrimitive = CtMethod.make(writePrimitiveMethodCode.toString(), ctClass);
+				ctClass.addMethod(methodWritePrimitive);
+
+			} else {
+				ctClass.setInterfaces(new CtClass[] { pool.get(DataWriter.class.getCanonicalName()) });
+			}
+
 			CtMethod methodWrite = CtMethod.make(writeMethodCode.toString(), ctClass);
 			ctClass.addMethod(methodWrite);
 
@@ -146,7 +198,8 @@ public class JavassistMethodSynthesizer extends AbstractPlainTextMethodSynthesiz
 			return writer;
 
 		} catch (CannotCompileException cce) {
-			ctx.next(cce, writeMethodCode.toString() + "\n\n" + getParameterTypeMethodCode.toString());
+			ctx.next(cce, writeMethodCode.toString() + "\n\n" + getParameterTypeMethodCode.toString() + "\n\n"
+					+ getPrimitiveTypeMethodCode.toString() + "\n\n" + writePrimitiveMethodCode.toString());
 
 			LOG.warn("Unable to create method in class: {}... possibly class had been loaded", writerClassName);
 
@@ -157,6 +210,52 @@ public class JavassistMethodSynthesizer extends AbstractPlainTextMethodSynthesiz
 		}
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	protected boolean isAssemblerSynthesisSupported() {
+		return true;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected DataAssembler makeAssemblerClass(final ClassLoader loader, final String assemblerClassName,
+			final PropertyDescriptor[] dtoWriteDescriptors, final PropertyDescriptor[][] entityReadDescriptors,
+			final PropertyDescriptor[] dtoReadDescriptors, final PropertyDescriptor[] entityWriteDescriptors,
+			final MakeContext ctx) throws UnableToCreateInstanceException, GeDARuntimeException {
+
+		final CtClass ctClass = pool.makeClass(assemblerClassName);
+		final StringBuilder assembleDtoMethodCode = new StringBuilder();
+		final StringBuilder assembleEntityMethodCode = new StringBuilder();
+		try {
+			ctClass.setInterfaces(new CtClass[] { pool.get(DataAssembler.class.getCanonicalName()) });
+
+			generateAssemblerMethods(assembleDtoMethodCode, assembleEntityMethodCode, dtoWriteDescriptors,
+					entityReadDescriptors, dtoReadDescriptors, entityWriteDescriptors);
+
+			CtMethod methodAssembleDto = CtMethod.make(assembleDtoMethodCode.toString(), ctClass);
+			ctClass.addMethod(methodAssembleDto);
+
+			CtMethod methodAssembleEntity = CtMethod.make(assembleEntityMethodCode.toString(), ctClass);
+			ctClass.addMethod(methodAssembleEntity);
+			ctClass.detach();
+
+			final DataAssembler assembler = (DataAssembler) ctClass.toClass(loader,
+					DataAssembler.class.getProtectionDomain()).newInstance();
+
+			return assembler;
+
+		} catch (CannotCompileException cce) {
+			ctx.next(cce, assembleDtoMethodCode.toString() + "\n\n" + assembleEntityMethodCode.toString());
+
+			LOG.warn("Unable to create method in class: {}... possibly class already loaded", assemblerClassName);
+
+			return null;
+		} catch (Exception ite) {
+			throw new UnableToCreateInstanceException(assemblerClassName, "Unable to instantiate class: "
+					+ assemblerClassName, ite);
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void releaseResources() {
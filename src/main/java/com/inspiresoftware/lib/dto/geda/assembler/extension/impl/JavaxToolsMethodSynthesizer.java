@@ -0,0 +1,412 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import java.beans.PropertyDescriptor;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.inspiresoftware.lib.dto.geda.assembler.extension.BatchMethodSynthesizer;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
+import com.inspiresoftware.lib.dto.geda.exception.GeDAException;
+import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
+import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceException;
+
+/**
+ * javax.tools implementation of method synthesizer. Sources are compiled in memory (no files are written) and class
+ * bytes are loaded directly. Supports {@link BatchMethodSynthesizer}, so that all readers and writers of an assembler
+ * can be compiled with a single compilation task.
+ *
+ * Requires JDK (i.e. {@link ToolProvider#getSystemJavaCompiler()} must be available).
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class JavaxToolsMethodSynthesizer extends AbstractPlainTextMethodSynthesizer implements MethodSynthesizer,
+BatchMethodSynthesizer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(JavaxToolsMethodSynthesizer.class);
+
+	private final JavaCompiler compiler;
+
+	private final Map<String, byte[]> compiled = new HashMap<String, byte[]>();
+	private final Set<String> known = new HashSet<String>();
+
+	/**
+	 * javax.tools synthesizer constructor.
+	 *
+	 * @param classLoader
+	 *            class loader
+	 */
+	public JavaxToolsMethodSynthesizer(final ClassLoader classLoader) {
+		super(classLoader);
+		compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			throw new GeDARuntimeException("System java compiler is not available (JDK is required)");
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected String getSynthesizerId() {
+		return "javaxtools";
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected WeakReference<ClassLoader> initialiseClassLoaderWeakReference(final ClassLoader classLoader) {
+		return new WeakReference<ClassLoader>(new ByteClassLoader(classLoader));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void prepare(final PropertyDescriptor[] readDescriptors, final PropertyDescriptor[] writeDescriptors)
+			throws UnableToCreateInstanceException, GeDARuntimeException {
+
+		final Map<String, String> sources = new LinkedHashMap<String, String>();
+
+		for (final PropertyDescriptor descriptor : readDescriptors) {
+			final Method readMethod = descriptor.getReadMethod();
+			if (readMethod == null) {
+				continue;
+			}
+			try {
+				preMakeReaderValidation(descriptor);
+				final String readerClassName = generateReaderClassName(readMethod);
+				if (!isKnown(readerClassName)) {
+					sources.put(readerClassName, generateReaderClassSource(readerClassName,
+							getValidDeclaringClass(readMethod).getCanonicalName(), readMethod.getName(),
+							readMethod.getGenericReturnType()));
+				}
+			} catch (GeDAException geda) {
+				LOG.debug("Skipping reader for {}: {}", readMethod, geda.getMessage());
+			}
+		}
+
+		for (final PropertyDescriptor descriptor : writeDescriptors) {
+			final Method writeMethod = descriptor.getWriteMethod();
+			if (writeMethod == null) {
+				continue;
+			}
+			try {
+				preMakeWriterValidation(descriptor);
+				final String writerClassName = generateWriterClassName(writeMethod);
+				if (!isKnown(writerClassName)) {
+					sources.put(writerClassName, generateWriterClassSource(writerClassName,
+							getValidDeclaringClass(writeMethod).getCanonicalName(), writeMethod.getName(),
+							writeMethod.getParameterTypes()[0]));
+				}
+			} catch (GeDAException geda) {
+				LOG.debug("Skipping writer for {}: {}", writeMethod, geda.getMessage());
+			}
+		}
+
+		if (sources.isEmpty()) {
+			return;
+		}
+
+		final Map<String, byte[]> classes = compile(sources);
+		if (classes == null) {
+			LOG.debug("Batch compilation of {} classes failed, classes will be compiled one at a time", sources.size());
+			return;
+		}
+		synchronized (compiled) {
+			for (final Map.Entry<String, byte[]> entry : classes.entrySet()) {
+				if (known.add(entry.getKey())) {
+					compiled.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+	/*
+	 * Class is known if it was already compiled by this synthesizer or is available on class path (e.g. generated at
+	 * build time).
+	 */
+	private boolean isKnown(final String className) {
+		synchronized (compiled) {
+			if (known.contains(className)) {
+				return true;
+			}
+		}
+		return getClassLoader().getResource(className.replace('.', '/') + ".class") != null;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected DataReader makeReaderClass(final ClassLoader loader, final Method readMethod,
+			final String readerClassName, final String sourceClassNameFull, final String sourceClassGetterMethodName,
+			final Type sourceClassGetterMethodReturnType, final MakeContext ctx) throws UnableToCreateInstanceException {
+
+		try {
+			byte[] bytes = takeCompiled(readerClassName);
+			if (bytes == null) {
+				final String source = generateReaderClassSource(readerClassName, sourceClassNameFull,
+						sourceClassGetterMethodName, sourceClassGetterMethodReturnType);
+				bytes = compileOne(readerClassName, source);
+				if (bytes == null) {
+					ctx.next(null, source);
+					return null;
+				}
+			}
+			final Class<?> readerClass = ((ByteClassLoader) loader).loadClass(readerClassName, bytes);
+			return (DataReader) readerClass.newInstance();
+		} catch (UnableToCreateInstanceException rethrow) {
+			throw rethrow;
+		} catch (Exception ite) {
+			throw new UnableToCreateInstanceException(readerClassName, "Unable to instantiate class: "
+					+ readerClassName, ite);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected DataWriter makeWriterClass(final ClassLoader loader, final Method writeMethod,
+			final String writerClassName, final String sourceClassNameFull, final String sourceClassSetterMethodName,
+			final Class<?> sourceClassSetterMethodArgumentClass, final MakeContext ctx)
+					throws UnableToCreateInstanceException {
+
+		try {
+			byte[] bytes = takeCompiled(writerClassName);
+			if (bytes == null) {
+				final String source = generateWriterClassSource(writerClassName, sourceClassNameFull,
+						sourceClassSetterMethodName, sourceClassSetterMethodArgumentClass);
+				bytes = compileOne(writerClassName, source);
+				if (bytes == null) {
+					ctx.next(null, source);
+					return null;
+				}
+			}
+			final Class<?> writerClass = ((ByteClassLoader) loader).loadClass(writerClassName, bytes);
+			return (DataWriter) writerClass.newInstance();
+		} catch (UnableToCreateInstanceException rethrow) {
+			throw rethrow;
+		} catch (Exception ite) {
+			throw new UnableToCreateInstanceException(writerClassName, "Unable to instantiate class: "
+					+ writerClassName, ite);
+		}
+	}
+
+	private byte[] takeCompiled(final String className) {
+		synchronized (compiled) {
+			return compiled.remove(className);
+		}
+	}
+
+	private byte[] compileOne(final String className, final String source) {
+		final Map<String, String> sources = new HashMap<String, String>();
+		sources.put(className, source);
+		final Map<String, byte[]> classes = compile(sources);
+		if (classes == null) {
+			return null;
+		}
+		synchronized (compiled) {
+			known.add(className);
+		}
+		return classes.get(className);
+	}
+
+	/*
+	 * Compiles all sources in single compilation task.
+	 *
+	 * @return class bytes by class name or null if compilation failed
+	 */
+	private Map<String, byte[]> compile(final Map<String, String> sources) {
+
+		final List<JavaFileObject> units = new ArrayList<JavaFileObject>();
+		for (final Map.Entry<String, String> source : sources.entrySet()) {
+			units.add(new MemorySourceFile(source.getKey(), source.getValue()));
+		}
+
+		final List<String> options = new ArrayList<String>();
+		options.add("-proc:none");
+		options.add("-g:none");
+		options.add("-nowarn");
+		options.add("-classpath");
+		options.add(getCompilerClassPath());
+
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		final MemoryFileManager fileManager = new MemoryFileManager(compiler.getStandardFileManager(diagnostics,
+				null, null));
+
+		try {
+			final boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, units).call();
+			if (!success) {
+				if (LOG.isDebugEnabled()) {
+					for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+						LOG.debug("Compilation error: {}", diagnostic.getMessage(null));
+					}
+				}
+				return null;
+			}
+			return fileManager.getClasses();
+		} finally {
+			try {
+				fileManager.close();
+			} catch (IOException ioe) {
+				LOG.warn("Unable to close compiler file manager: {}", ioe.getMessage());
+			}
+		}
+	}
+
+	/*
+	 * Class path for compilation: GeDA classes, system class path and all URLs of the class loader hierarchy.
+	 */
+	private String getCompilerClassPath() {
+		final Set<String> entries = new LinkedHashSet<String>();
+		final CodeSource geda = DataReader.class.getProtectionDomain().getCodeSource();
+		if (geda != null) {
+			addClassPathEntry(entries, geda.getLocation());
+		}
+		ClassLoader cl = getClassLoader();
+		while (cl != null) {
+			if (cl instanceof URLClassLoader) {
+				for (final URL url : ((URLClassLoader) cl).getURLs()) {
+					addClassPathEntry(entries, url);
+				}
+			}
+			cl = cl.getParent();
+		}
+		final StringBuilder classPath = new StringBuilder(System.getProperty("java.class.path", ""));
+		for (final String entry : entries) {
+			classPath.append(File.pathSeparatorChar).append(entry);
+		}
+		return classPath.toString();
+	}
+
+	private void addClassPathEntry(final Set<String> entries, final URL url) {
+		if (url != null && "file".equals(url.getProtocol())) {
+			try {
+				entries.add(new File(url.toURI()).getAbsolutePath());
+			} catch (Exception exp) {
+				entries.add(url.getPath());
+			}
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void releaseResources() {
+		synchronized (compiled) {
+			compiled.clear();
+			known.clear();
+		}
+		super.releaseResources();
+	}
+
+	/*
+	 * Source held in memory.
+	 */
+	private static final class MemorySourceFile extends SimpleJavaFileObject {
+
+		private final String source;
+
+		MemorySourceFile(final String className, final String source) {
+			super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.source = source;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+			return source;
+		}
+
+	}
+
+	/*
+	 * Class bytes held in memory.
+	 */
+	private static final class MemoryClassFile extends SimpleJavaFileObject {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		MemoryClassFile(final String className) {
+			super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public OutputStream openOutputStream() {
+			return bytes;
+		}
+
+		byte[] getBytes() {
+			return bytes.toByteArray();
+		}
+
+	}
+
+	/*
+	 * File manager that keeps all compiled classes in memory.
+	 */
+	private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, MemoryClassFile> classes = new LinkedHashMap<String, MemoryClassFile>();
+
+		MemoryFileManager(final StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public JavaFileObject getJavaFileForOutput(final Location location, final String className, final Kind kind,
+				final FileObject sibling) {
+			final MemoryClassFile file = new MemoryClassFile(className);
+			classes.put(className, file);
+			return file;
+		}
+
+		Map<String, byte[]> getClasses() {
+			final Map<String, byte[]> bytes = new HashMap<String, byte[]>();
+			for (final Map.Entry<String, MemoryClassFile> entry : classes.entrySet()) {
+				bytes.put(entry.getKey(), entry.getValue().getBytes());
+			}
+			return bytes;
+		}
+
+	}
+
+}
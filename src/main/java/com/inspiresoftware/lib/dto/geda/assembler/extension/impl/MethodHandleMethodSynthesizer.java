@@ -0,0 +1,281 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
+import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
+import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceException;
+
+/**
+ * Method handle implementation of method synthesizer. Uses {@link LambdaMetafactory} to spin getter/setter functions
+ * that invoke accessor directly (same as generated code would) but without any compilation or byte code library
+ * dependencies. If lambda cannot be created (e.g. entity class is not visible to GeDA class loader) plain
+ * {@link MethodHandle} is used instead, which is still considerably faster than reflection.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class MethodHandleMethodSynthesizer extends AbstractMethodSynthesizer implements MethodSynthesizer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MethodHandleMethodSynthesizer.class);
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static final MethodType GETTER_SAM = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_SAM = MethodType.methodType(void.class, Object.class, Object.class);
+
+	/**
+	 * Functional interface for getter lambdas.
+	 */
+	public interface Getter {
+
+		/**
+		 * @param source
+		 *            source object
+		 * @return value returned by getter
+		 */
+		Object get(Object source);
+
+	}
+
+	/**
+	 * Functional interface for setter lambdas.
+	 */
+	public interface Setter {
+
+		/**
+		 * @param source
+		 *            source object
+		 * @param value
+		 *            value to set
+		 */
+		void set(Object source, Object value);
+
+	}
+
+	public MethodHandleMethodSynthesizer(final ClassLoader classLoader) {
+		super(classLoader);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected String getSynthesizerId() {
+		return "methodhandle";
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected DataReader makeReaderClass(final ClassLoader loader, final Method readMethod,
+			final String readerClassName, final String sourceClassNameFull, final String sourceClassGetterMethodName,
+			final Type sourceClassGetterMethodReturnType, final MakeContext ctx)
+					throws UnableToCreateInstanceException, GeDARuntimeException {
+
+		final Class<?> returnType;
+
+		if (sourceClassGetterMethodReturnType instanceof Class) {
+			final Class<?> rcl = ((Class<?>) sourceClassGetterMethodReturnType);
+			if (rcl.isPrimitive()) {
+				returnType = PRIMITIVE_TO_WRAPPER_CLASS.get(rcl.getCanonicalName());
+			} else {
+				returnType = (Class<?>) sourceClassGetterMethodReturnType;
+			}
+		} else if (sourceClassGetterMethodReturnType instanceof ParameterizedType) {
+			returnType = (Class<?>) ((ParameterizedType) sourceClassGetterMethodReturnType).getRawType();
+		} else if (sourceClassGetterMethodReturnType instanceof TypeVariable) {
+			returnType = Object.class; // generics
+		} else {
+			returnType = Object.class; // default
+		}
+
+		final Getter getter;
+		try {
+			final Class<?> declaring = getValidDeclaringClass(readMethod);
+			final Method method = declaring.getMethod(readMethod.getName());
+			getter = makeGetter(declaring, method);
+		} catch (Exception exp) {
+			ctx.next(exp, readerClassName);
+			return null;
+		}
+
+		return new DataReader() {
+
+			private final Getter function = getter;
+			private final Class<?> type = returnType;
+
+			@Override
+			public Class<?> getReturnType() {
+				return type;
+			}
+
+			@Override
+			public Object read(final Object source) {
+				return function.get(source);
+			}
+
+		};
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected DataWriter makeWriterClass(final ClassLoader loader, final Method writeMethod,
+			final String writerClassName, final String sourceClassNameFull, final String sourceClassSetterMethodName,
+			final Class<?> sourceClassSetterMethodArgumentClass, final MakeContext ctx)
+					throws UnableToCreateInstanceException {
+
+		final Class<?> argType;
+		if (sourceClassSetterMethodArgumentClass.isPrimitive()) {
+			argType = PRIMITIVE_TO_WRAPPER_CLASS.get(sourceClassSetterMethodArgumentClass.getCanonicalName());
+		} else {
+			argType = sourceClassSetterMethodArgumentClass;
+		}
+
+		final Setter setter;
+		try {
+			final Class<?> declaring = getValidDeclaringClass(writeMethod);
+			final Method method = declaring.getMethod(writeMethod.getName(), writeMethod.getParameterTypes());
+			setter = makeSetter(declaring, method, argType);
+		} catch (Exception exp) {
+			ctx.next(exp, writerClassName);
+			return null;
+		}
+
+		return new DataWriter() {
+
+			private final Setter function = setter;
+			private final Class<?> type = argType;
+
+			@Override
+			public Class<?> getParameterType() {
+				return type;
+			}
+
+			@Override
+			public void write(final Object source, final Object value) {
+				function.set(source, value);
+			}
+
+		};
+	}
+
+	private Getter makeGetter(final Class<?> declaring, final Method method) throws IllegalAccessException {
+
+		final MethodHandle handle = LOOKUP.unreflect(method);
+
+		if (isVisibleToLambda(declaring) && isVisibleToLambda(method.getReturnType())) {
+			try {
+				final Class<?> returnType = wrap(method.getReturnType());
+				final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Getter.class),
+						GETTER_SAM, handle, MethodType.methodType(returnType, declaring));
+				return (Getter) site.getTarget().invoke();
+			} catch (Throwable thr) {
+				LOG.debug("Unable to create getter lambda for {}, falling back to method handle: {}", method,
+						thr.getMessage());
+			}
+		}
+
+		final MethodHandle generic = handle.asType(GETTER_SAM);
+		return new Getter() {
+			@Override
+			public Object get(final Object source) {
+				try {
+					return generic.invokeExact(source);
+				} catch (RuntimeException rte) {
+					throw rte;
+				} catch (Error err) {
+					throw err;
+				} catch (Throwable thr) {
+					throw new GeDARuntimeException(thr.getMessage(), thr);
+				}
+			}
+		};
+	}
+
+	private Setter makeSetter(final Class<?> declaring, final Method method, final Class<?> argType)
+			throws IllegalAccessException {
+
+		final MethodHandle handle = LOOKUP.unreflect(method);
+
+		if (isVisibleToLambda(declaring) && isVisibleToLambda(argType)) {
+			try {
+				final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "set", MethodType.methodType(Setter.class),
+						SETTER_SAM, handle, MethodType.methodType(void.class, declaring, argType));
+				return (Setter) site.getTarget().invoke();
+			} catch (Throwable thr) {
+				LOG.debug("Unable to create setter lambda for {}, falling back to method handle: {}", method,
+						thr.getMessage());
+			}
+		}
+
+		final MethodHandle generic = handle.asType(SETTER_SAM);
+		return new Setter() {
+			@Override
+			public void set(final Object source, final Object value) {
+				try {
+					generic.invokeExact(source, value);
+				} catch (RuntimeException rte) {
+					throw rte;
+				} catch (Error err) {
+					throw err;
+				} catch (Throwable thr) {
+					throw new GeDARuntimeException(thr.getMessage(), thr);
+				}
+			}
+		};
+	}
+
+	/*
+	 * Lambda classes are defined in the namespace of this synthesizer, hence all the types they link against
+	 * must resolve to the same classes from GeDA class loader.
+	 */
+	private static boolean isVisibleToLambda(final Class<?> clazz) {
+		if (clazz.isPrimitive()) {
+			return true;
+		}
+		Class<?> type = clazz;
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		if (type.isPrimitive()) {
+			return true;
+		}
+		try {
+			return Class.forName(type.getName(), false, MethodHandleMethodSynthesizer.class.getClassLoader()) == type;
+		} catch (ClassNotFoundException cnfe) {
+			return false;
+		} catch (LinkageError le) {
+			return false;
+		}
+	}
+
+	private static Class<?> wrap(final Class<?> clazz) {
+		if (clazz.isPrimitive()) {
+			return PRIMITIVE_TO_WRAPPER_CLASS.get(clazz.getCanonicalName());
+		}
+		return clazz;
+	}
+
+}
@@ -10,8 +10,14 @@
 
 package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
 
+import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.inspiresoftware.lib.dto.geda.assembler.extension.Cache;
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DisposableContainer;
@@ -19,22 +25,44 @@ import com.inspiresoftware.lib.dto.geda.assembler.extension.DisposableContainer;
 /**
  * GC friendly implementation of cache using SoftReferences.
  *
+ * Reads are lock free. Entries are keyed by full key (not its hash), so distinct keys never share a value. Entries
+ * whose values were garbage collected are expunged through reference queue on subsequent reads and puts.
+ *
+ * Since 3.1.0 cache can retain a hot core: configuration hotCoreSize (default 0) sets the number of frequently read
+ * values that are also held by strong references, so that they survive heap pressure and are not rebuilt exactly
+ * when the system is under load. Other values are still released by GC as before. Only a sample of reads (about one
+ * in {@value #HOT_CORE_SAMPLING}) tries to retain its value, and a value takes at most one slot of the hot core, so
+ * reads of a single hot value neither contend on the hot core nor push other values out of it.
+ *
  * @author DPavlov
  * @since 1.1.0
  *
+ * @param <K>
+ *            key
  * @param <V>
  *            value
  *
  */
-public class SoftReferenceCache<V> implements Cache<V> {
+public class SoftReferenceCache<K, V> implements Cache<K, V> {
 
-	private final IntHashTable<SoftReference<V>> cache = new IntHashTable<SoftReference<V>>();
+	private final ConcurrentMap<K, KeyedSoftReference<K, V>> cache =
+			new ConcurrentHashMap<K, KeyedSoftReference<K, V>>();
 
 	private final ReferenceQueue<V> cacheQueue = new ReferenceQueue<V>();
 
 	/**
-	 * Simple soft references cache that allows efficient access via int hash key. Hash should be well defined as bad
-	 * hashes will degrade performance.
+	 * One in this many reads of a value that is not in the hot core tries to retain it.
+	 */
+	static final int HOT_CORE_SAMPLING = 16;
+
+	/*
+	 * Strong references to hot values (null if hot core is disabled).
+	 */
+	private volatile HotCore hotCore;
+
+	/**
+	 * Simple soft references cache that allows efficient concurrent access via key. Key should have well defined
+	 * equals() and hashCode() as bad hashes will degrade performance.
 	 */
 	public SoftReferenceCache() {
 
@@ -42,16 +70,19 @@ public class SoftReferenceCache<V> implements Cache<V> {
 
 	/** {@inheritDoc} */
 	@Override
-	public V get(final int key) {
-		SoftReference<V> val = cache.get(key);
+	public V get(final K key) {
+		final KeyedSoftReference<K, V> val = cache.get(key);
 		if (val != null) {
 			final V obj = val.get();
 			if (obj == null) {
-				synchronized (this) {
-					cache.remove(key);
-				}
+				cache.remove(key, val);
+				expungeStaleEntries();
 				return null;
 			}
+			final HotCore core = hotCore;
+			if (core != null && !val.hot && ThreadLocalRandom.current().nextInt(HOT_CORE_SAMPLING) == 0) {
+				core.retain(val, obj);
+			}
 			return obj;
 		}
 		return null;
@@ -59,38 +90,114 @@ public class SoftReferenceCache<V> implements Cache<V> {
 
 	/** {@inheritDoc} */
 	@Override
-	public void put(final int key, final V value) {
-		synchronized (this) {
-			final SoftReference<V> ref = new SoftReference<V>(value, cacheQueue);
-			cache.put(key, ref);
+	public void put(final K key, final V value) {
+		expungeStaleEntries();
+		cache.put(key, new KeyedSoftReference<K, V>(key, value, cacheQueue));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void expungeStaleEntries() {
+		Reference<? extends V> ref;
+		while ((ref = cacheQueue.poll()) != null) {
+			final KeyedSoftReference<K, V> stale = (KeyedSoftReference<K, V>) ref;
+			cache.remove(stale.key, stale);
 		}
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public boolean configure(final String configuration, final Object value) {
+		if ("hotCoreSize".equals(configuration)) {
+			final int size = Integer.valueOf(String.valueOf(value));
+			final HotCore old = hotCore;
+			hotCore = size > 0 ? new HotCore(size) : null;
+			if (old != null) {
+				old.clear();
+			}
+			return true;
+		}
 		return false;
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void releaseResources() {
-		synchronized (this) {
-			int[] keys = cache.keysArray();
-			for (int index = 0; index < keys.length; index++) {
-				int key = keys[index];
-				if (key != 0) {
-					final SoftReference<V> ref = cache.remove(key);
-					final Object obj = ref.get();
-					if (obj instanceof DisposableContainer) {
-						((DisposableContainer) obj).releaseResources();
-					}
-					ref.clear();
-				}
+		final HotCore core = hotCore;
+		if (core != null) {
+			core.clear();
+		}
+		final Iterator<Map.Entry<K, KeyedSoftReference<K, V>>> it = cache.entrySet().iterator();
+		while (it.hasNext()) {
+			final KeyedSoftReference<K, V> ref = it.next().getValue();
+			it.remove();
+			final Object obj = ref.get();
+			if (obj instanceof DisposableContainer) {
+				((DisposableContainer) obj).releaseResources();
+			}
+			ref.clear();
+		}
+		expungeStaleEntries();
+	}
+
+	/*
+	 * Soft reference that remembers its key, so that entry can be removed once value is collected.
+	 */
+	private static final class KeyedSoftReference<K, V> extends SoftReference<V> {
+
+		private final K key;
+
+		/*
+		 * True while value is held by hot core.
+		 */
+		private volatile boolean hot;
+
+		KeyedSoftReference(final K key, final V value, final ReferenceQueue<? super V> queue) {
+			super(value, queue);
+			this.key = key;
+		}
+
+	}
+
+	/*
+	 * Ring of strong references to hot values. Retention only happens on sampled reads of values that are not held
+	 * yet, so the lock is rarely taken. Value that is pushed out of the ring can be retained again later.
+	 */
+	private static final class HotCore {
+
+		private final Object[] values;
+		private final KeyedSoftReference<?, ?>[] owners;
+		private int cursor;
+
+		HotCore(final int size) {
+			values = new Object[size];
+			owners = new KeyedSoftReference<?, ?>[size];
+		}
+
+		synchronized void retain(final KeyedSoftReference<?, ?> owner, final Object value) {
+			if (owner.hot) {
+				return;
 			}
-			while (cacheQueue.poll() != null) {
-				// Nothing for now
+			final KeyedSoftReference<?, ?> evicted = owners[cursor];
+			if (evicted != null) {
+				evicted.hot = false;
 			}
+			owners[cursor] = owner;
+			values[cursor] = value;
+			owner.hot = true;
+			cursor = (cursor + 1) % values.length;
 		}
+
+		synchronized void clear() {
+			for (int i = 0; i < values.length; i++) {
+				if (owners[i] != null) {
+					owners[i].hot = false;
+				}
+				owners[i] = null;
+				values[i] = null;
+			}
+			cursor = 0;
+		}
+
 	}
+
 }
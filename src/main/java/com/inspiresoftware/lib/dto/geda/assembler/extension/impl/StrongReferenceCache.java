@@ -0,0 +1,69 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.inspiresoftware.lib.dto.geda.assembler.extension.Cache;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DisposableContainer;
+
+/**
+ * Cache that holds its values by strong references, so they are never collected under heap pressure. Suitable for
+ * caches whose size is naturally bounded (e.g. assemblers of an application with fixed number of DTO classes), since
+ * nothing is ever evicted until {@link #releaseResources()}.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ * @param <K>
+ *            key
+ * @param <V>
+ *            value
+ *
+ */
+public class StrongReferenceCache<K, V> implements Cache<K, V> {
+
+	private final ConcurrentMap<K, V> cache = new ConcurrentHashMap<K, V>();
+
+	/** {@inheritDoc} */
+	@Override
+	public V get(final K key) {
+		return cache.get(key);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void put(final K key, final V value) {
+		cache.put(key, value);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean configure(final String configuration, final Object value) {
+		return false;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void releaseResources() {
+		final Iterator<V> it = cache.values().iterator();
+		while (it.hasNext()) {
+			final V obj = it.next();
+			it.remove();
+			if (obj instanceof DisposableContainer) {
+				((DisposableContainer) obj).releaseResources();
+			}
+		}
+	}
+
+}
@@ -13,7 +13,7 @@ package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 
@@ -43,6 +43,8 @@ BaseDirectoryProvider {
 
 	private String baseDir = "";
 
+	private SynthesizedClassManifest manifest;
+
 	/**
 	 * Sun Java Tools method synthesizer constructor. Initializes a class loader able to define classes from auto
 	 * generated compiled temporary files.
@@ -75,8 +77,8 @@ BaseDirectoryProvider {
 
 	/** {@inheritDoc} */
 	@Override
-	protected SoftReference<ClassLoader> initialiseClassLoaderWeakReference(final ClassLoader classLoader) {
-		return new SoftReference<ClassLoader>(new FileClassLoader(classLoader, this));
+	protected WeakReference<ClassLoader> initialiseClassLoaderWeakReference(final ClassLoader classLoader) {
+		return new WeakReference<ClassLoader>(new FileClassLoader(classLoader, this, manifest));
 	}
 
 	/** {@inheritDoc} */
@@ -88,7 +90,9 @@ BaseDirectoryProvider {
 	/**
 	 * @param configuration
 	 *            configuration name baseDir - allows to set the directory where newly generated temp files for classes
-	 *            will reside until the system exits. readerCleanUpCycle - allows to set clean up cycle for soft cache
+	 *            will reside until the system exits. persistent - if true class files in baseDir are kept on exit and
+	 *            reused on next start (as long as declaring classes do not change, see
+	 *            {@link SynthesizedClassManifest}). readerCleanUpCycle - allows to set clean up cycle for soft cache
 	 *            of readers writerCleanUpCycle - allows to set clean up cycle for soft cache of writers
 	 * @param value
 	 *            value to set
@@ -107,6 +111,14 @@ BaseDirectoryProvider {
 			}
 			LOG.info("Setting class loader base dir to: {}", baseDir);
 			return true;
+		} else if ("persistent".equals(configuration)) {
+			if (manifest != null) {
+				manifest.flush();
+			}
+			manifest = Boolean.valueOf(String.valueOf(value)) ? new SynthesizedClassManifest(this) : null;
+			LOG.info("Setting persistent class files to: {}", manifest != null);
+			enhanceClassLoader();
+			return true;
 		}
 		return super.configure(configuration, value);
 	}
@@ -118,15 +130,13 @@ BaseDirectoryProvider {
 			final Type sourceClassGetterMethodReturnType, final MakeContext ctx) throws UnableToCreateInstanceException {
 
 		try {
-			final StringBuilder readMethodCode = new StringBuilder();
-			final StringBuilder getReturnTypeMethodCode = new StringBuilder();
-
-			generateReaderMethods(readMethodCode, getReturnTypeMethodCode, readerClassName, sourceClassNameFull,
+			final String source = generateReaderClassSource(readerClassName, sourceClassNameFull,
 					sourceClassGetterMethodName, sourceClassGetterMethodReturnType);
-
-			final String source = generateReaderSource(readerClassName, readMethodCode, getReturnTypeMethodCode);
 			final File clazz = createSourceFile(readerClassName, source);
 			if (compile(clazz) == 0) {
+				if (manifest != null) {
+					manifest.register(readerClassName, readMethod);
+				}
 				final Class<?> readerClass = getClassLoader().loadClass(readerClassName);
 				return (DataReader) readerClass.newInstance();
 			} else {
@@ -139,20 +149,6 @@ BaseDirectoryProvider {
 		return null;
 	}
 
-	private String generateReaderSource(final String fullClassName, final StringBuilder readMethodCode,
-			final StringBuilder getReturnTypeMethodCode) {
-		final int namePos = fullClassName.lastIndexOf('.');
-		final String packageName = fullClassName.substring(0, namePos);
-		final String className = fullClassName.substring(namePos + 1);
-
-		final StringBuilder source = new StringBuilder();
-		source.append("package ").append(packageName).append(";\n")
-		.append("import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;\n")
-		.append("public class ").append(className).append(" implements DataReader {\n")
-		.append(getReturnTypeMethodCode).append(readMethodCode).append("}\n");
-		return source.toString();
-	}
-
 	/** {@inheritDoc} */
 	@Override
 	protected DataWriter makeWriterClass(final ClassLoader loader, final Method writeMethod,
@@ -160,15 +156,13 @@ BaseDirectoryProvider {
 			final Class<?> sourceClassSetterMethodArgumentClass, final MakeContext ctx)
 					throws UnableToCreateInstanceException {
 		try {
-			final StringBuilder writeMethodCode = new StringBuilder();
-			final StringBuilder getParameterTypeMethodCode = new StringBuilder();
-
-			generateWriterMethods(writeMethodCode, getParameterTypeMethodCode, writerClassName, sourceClassNameFull,
+			final String source = generateWriterClassSource(writerClassName, sourceClassNameFull,
 					sourceClassSetterMethodName, sourceClassSetterMethodArgumentClass);
-
-			final String source = generateWriterSource(writerClassName, writeMethodCode, getParameterTypeMethodCode);
 			final File clazz = createSourceFile(writerClassName, source);
 			if (compile(clazz) == 0) {
+				if (manifest != null) {
+					manifest.register(writerClassName, writeMethod);
+				}
 				final Class<?> writerClass = getClassLoader().loadClass(writerClassName);
 				return (DataWriter) writerClass.newInstance();
 			} else {
@@ -181,20 +175,6 @@ BaseDirectoryProvider {
 		return null;
 	}
 
-	private String generateWriterSource(final String fullClassName, final StringBuilder writeMethodCode,
-			final StringBuilder getParameterTypeMethodCode) {
-		final int namePos = fullClassName.lastIndexOf('.');
-		final String packageName = fullClassName.substring(0, namePos);
-		final String className = fullClassName.substring(namePos + 1);
-
-		final StringBuilder source = new StringBuilder();
-		source.append("package ").append(packageName).append(";\n")
-		.append("import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;\n")
-		.append("public class ").append(className).append(" implements DataWriter {\n")
-		.append(getParameterTypeMethodCode).append(writeMethodCode).append("}\n");
-		return source.toString();
-	}
-
 	private File createSourceFile(final String className, final String source) throws UnableToCreateInstanceException {
 		final String readerSimpleName = className.substring(className.lastIndexOf('.') + 1);
 		final File clazz = new File(baseDir + readerSimpleName + ".java");
@@ -237,4 +217,21 @@ BaseDirectoryProvider {
 				source.getAbsolutePath() });
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	protected void beforeClassLookup(final String className, final Method method) {
+		if (manifest != null) {
+			manifest.expect(className, method);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void releaseResources() {
+		if (manifest != null) {
+			manifest.flush();
+		}
+		super.releaseResources();
+	}
+
 }
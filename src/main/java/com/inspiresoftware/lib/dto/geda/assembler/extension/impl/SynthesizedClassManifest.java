@@ -0,0 +1,333 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manifest of persistent synthesized classes. Each synthesized class file in the base directory has an entry with
+ * binary name of the declaring class, signature of the accessor method and CRC32 checksum of the declaring class
+ * bytes at the time of generation. The entries allow to reuse class files across JVM restarts and to detect class
+ * files that were generated for a different version of declaring class or for a different accessor method.
+ *
+ * Manifest is stored as properties file named {@link #MANIFEST_FILE} in the base directory. All instances that use
+ * the same (canonical) directory share its entries, and changes are written to disk in batches of
+ * {@link #FLUSH_BATCH}, on {@link #flush()} and on JVM shutdown. Manifest is written to a temporary file that then
+ * replaces the previous one, so readers never see partially written manifest.
+ *
+ * Manifest records the version of GeDA (and of the manifest format) it was written by. Manifest of a different
+ * version is discarded as a whole, so that class files generated by another version of the library are never reused.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class SynthesizedClassManifest {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SynthesizedClassManifest.class);
+
+	/** Manifest file name. */
+	public static final String MANIFEST_FILE = "geda-manifest.properties";
+
+	/** Number of changes after which manifest is written to disk. */
+	public static final int FLUSH_BATCH = 64;
+
+	/** Property that holds the version manifest was written by. */
+	static final String VERSION_KEY = "geda.manifest.version";
+
+	/* Bump whenever generated class layout or manifest entry format changes. */
+	private static final int FORMAT_VERSION = 2;
+
+	private static final String VERSION = FORMAT_VERSION + ";" + getLibraryVersion();
+
+	private static final char SEPARATOR = ';';
+
+	private static final AtomicBoolean SHUTDOWN_HOOK = new AtomicBoolean();
+
+	private static final ConcurrentMap<String, DirectoryManifest> DIRECTORIES =
+			new ConcurrentHashMap<String, DirectoryManifest>();
+
+	private final BaseDirectoryProvider directoryProvider;
+
+	private final ConcurrentMap<String, DirectoryManifest> manifests =
+			new ConcurrentHashMap<String, DirectoryManifest>();
+
+	/**
+	 * @param directoryProvider
+	 *            directory provider of the class files
+	 */
+	public SynthesizedClassManifest(final BaseDirectoryProvider directoryProvider) {
+		this.directoryProvider = directoryProvider;
+	}
+
+	/**
+	 * Record accessor method that class with given name is about to be looked up for, so that
+	 * {@link #isValid(String, ClassLoader)} only accepts class file generated for the same method signature.
+	 *
+	 * @param className
+	 *            full name of generated class
+	 * @param method
+	 *            accessor method that generated class should invoke
+	 */
+	public void expect(final String className, final Method method) {
+		getManifest(className).expect(className, method.toString());
+	}
+
+	/**
+	 * Register newly generated class.
+	 *
+	 * @param className
+	 *            full name of generated class
+	 * @param method
+	 *            accessor method that generated class invokes
+	 */
+	public void register(final String className, final Method method) {
+		final Class<?> declaring = AbstractMethodSynthesizer.getValidDeclaringClass(method);
+		final long crc = checksum(declaring.getName(), declaring.getClassLoader());
+		if (crc == -1L) {
+			LOG.debug("Unable to compute checksum of {}, class {} will not be reused", declaring.getName(), className);
+			return;
+		}
+		getManifest(className).register(className,
+				declaring.getName() + SEPARATOR + method.toString() + SEPARATOR + crc);
+	}
+
+	/**
+	 * Check whether persisted class file is still valid for current version of declaring class and for the accessor
+	 * method recorded by {@link #expect(String, Method)}. Invalid entries are removed from manifest.
+	 *
+	 * @param className
+	 *            full name of generated class
+	 * @param loader
+	 *            class loader that can load declaring class
+	 * @return true if class file was registered for expected method and declaring class did not change since
+	 */
+	public boolean isValid(final String className, final ClassLoader loader) {
+		return getManifest(className).isValid(className, loader);
+	}
+
+	/**
+	 * Write pending changes of all directories used by this manifest to disk.
+	 */
+	public void flush() {
+		for (final DirectoryManifest manifest : manifests.values()) {
+			manifest.flush();
+		}
+	}
+
+	private DirectoryManifest getManifest(final String className) {
+		final String dir = directoryProvider.getBaseDir(className);
+		DirectoryManifest manifest = manifests.get(dir);
+		if (manifest == null) {
+			String canonical;
+			try {
+				canonical = new File(dir).getCanonicalPath();
+			} catch (IOException ioe) {
+				canonical = new File(dir).getAbsolutePath();
+			}
+			manifest = DIRECTORIES.get(canonical);
+			if (manifest == null) {
+				final DirectoryManifest newManifest = new DirectoryManifest(new File(canonical, MANIFEST_FILE));
+				manifest = DIRECTORIES.putIfAbsent(canonical, newManifest);
+				if (manifest == null) {
+					manifest = newManifest;
+					registerShutdownHook();
+				}
+			}
+			manifests.put(dir, manifest);
+		}
+		return manifest;
+	}
+
+	/*
+	 * Classes registered since the last batch must not be lost on normal JVM exit, otherwise their class files are
+	 * deleted and regenerated on next start.
+	 */
+	private static void registerShutdownHook() {
+		if (SHUTDOWN_HOOK.compareAndSet(false, true)) {
+			try {
+				Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+					@Override
+					public void run() {
+						for (final DirectoryManifest manifest : DIRECTORIES.values()) {
+							manifest.flush();
+						}
+					}
+				}, "GeDA synthesized class manifest"));
+			} catch (IllegalStateException ise) {
+				// JVM is already shutting down
+			} catch (SecurityException se) {
+				LOG.warn("Unable to register manifest shutdown hook, call flush() explicitly: {}", se.getMessage());
+			}
+		}
+	}
+
+	private static String getLibraryVersion() {
+		final Package pkg = SynthesizedClassManifest.class.getPackage();
+		final String version = pkg != null ? pkg.getImplementationVersion() : null;
+		return version != null ? version : "unknown";
+	}
+
+	/*
+	 * Entries of single directory shared by all manifest instances.
+	 */
+	private static final class DirectoryManifest {
+
+		private final File file;
+		private final Properties entries = new Properties();
+		private final ConcurrentMap<String, String> expected = new ConcurrentHashMap<String, String>();
+		private int pending;
+
+		DirectoryManifest(final File file) {
+			this.file = file;
+			if (file.exists()) {
+				InputStream is = null;
+				try {
+					is = new FileInputStream(file);
+					entries.load(is);
+				} catch (IOException ioe) {
+					LOG.warn("Unable to read manifest {}, all classes will be regenerated", file.getAbsolutePath());
+					entries.clear();
+				} finally {
+					close(is);
+				}
+				if (!entries.isEmpty() && !VERSION.equals(entries.getProperty(VERSION_KEY))) {
+					LOG.info("Manifest {} was written by version {}, all classes will be regenerated",
+							file.getAbsolutePath(), entries.getProperty(VERSION_KEY));
+					entries.clear();
+				}
+			}
+			entries.setProperty(VERSION_KEY, VERSION);
+		}
+
+		void expect(final String className, final String signature) {
+			expected.put(className, signature);
+		}
+
+		synchronized void register(final String className, final String entry) {
+			entries.setProperty(className, entry);
+			changed();
+		}
+
+		synchronized boolean isValid(final String className, final ClassLoader loader) {
+			final String entry = entries.getProperty(className);
+			if (entry != null) {
+				final int declaringEnd = entry.indexOf(SEPARATOR);
+				final int signatureEnd = entry.lastIndexOf(SEPARATOR);
+				if (declaringEnd > 0 && signatureEnd > declaringEnd) {
+					final String declaring = entry.substring(0, declaringEnd);
+					final String signature = entry.substring(declaringEnd + 1, signatureEnd);
+					final String crc = entry.substring(signatureEnd + 1);
+					if (!signature.equals(expected.get(className))) {
+						LOG.info("Accessor method of {} has changed, discarding {}", declaring, className);
+					} else if (crc.equals(String.valueOf(checksum(declaring, loader)))) {
+						return true;
+					} else {
+						LOG.info("Declaring class {} has changed, discarding {}", declaring, className);
+					}
+				}
+				entries.remove(className);
+				changed();
+			}
+			return false;
+		}
+
+		synchronized void flush() {
+			if (pending > 0) {
+				store();
+			}
+		}
+
+		private void changed() {
+			if (++pending >= FLUSH_BATCH) {
+				store();
+			}
+		}
+
+		private void store() {
+			OutputStream os = null;
+			File temp = null;
+			try {
+				temp = File.createTempFile(MANIFEST_FILE, ".tmp", file.getParentFile());
+				os = new FileOutputStream(temp);
+				entries.store(os, "GeDA synthesized classes");
+				close(os);
+				os = null;
+				try {
+					Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException amnse) {
+					Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+				temp = null;
+				pending = 0;
+			} catch (IOException ioe) {
+				LOG.warn("Unable to write manifest {}: {}", file.getAbsolutePath(), ioe.getMessage());
+			} finally {
+				close(os);
+				if (temp != null && !temp.delete()) {
+					temp.deleteOnExit();
+				}
+			}
+		}
+
+	}
+
+	private static long checksum(final String className, final ClassLoader loader) {
+		final ClassLoader cl = loader == null ? ClassLoader.getSystemClassLoader() : loader;
+		final InputStream is = cl.getResourceAsStream(className.replace('.', '/') + ".class");
+		if (is == null) {
+			return -1L;
+		}
+		try {
+			final CRC32 crc = new CRC32();
+			final byte[] buffer = new byte[4096];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+			return crc.getValue();
+		} catch (IOException ioe) {
+			return -1L;
+		} finally {
+			close(is);
+		}
+	}
+
+	private static void close(final Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException ioe) {
+				// nothing we can do
+			}
+		}
+	}
+
+}
@@ -0,0 +1,388 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.extension.impl;
+
+import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataReader;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.DataWriter;
+import com.inspiresoftware.lib.dto.geda.assembler.extension.MethodSynthesizer;
+import com.inspiresoftware.lib.dto.geda.exception.GeDAException;
+import com.inspiresoftware.lib.dto.geda.exception.GeDARuntimeException;
+import com.inspiresoftware.lib.dto.geda.exception.InspectionPropertyNotFoundException;
+import com.inspiresoftware.lib.dto.geda.exception.UnableToCreateInstanceException;
+
+/**
+ * Tiered method synthesizer. Readers and writers are created by baseline synthesizer (method handles by default),
+ * which requires no compilation, so assemblers are ready quickly. Each reader/writer counts its invocations and once
+ * the count reaches threshold a compiled reader/writer is generated on a background thread by compiling synthesizer
+ * (javassist by default) and replaces baseline one. Rarely used properties therefore never pay for compilation,
+ * whereas hot properties get generated code.
+ *
+ * Configurations:
+ * <ul>
+ * <li>threshold - number of invocations after which property is compiled (default 1000)</li>
+ * <li>baseline - baseline synthesizer (methodhandle, reflection or full class name)</li>
+ * <li>compiler - compiling synthesizer (javassist, accessor, bcel, suntools, javaxtools or full class name)</li>
+ * </ul>
+ * Baseline and compiler may also be given as {@link MethodSynthesizer} instances. All other configurations are passed
+ * to compiling synthesizer.
+ *
+ * Readers and writers of this synthesizer do not implement primitive variants, so values are always boxed.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class TieredMethodSynthesizer implements MethodSynthesizer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TieredMethodSynthesizer.class);
+
+	private static final int DEFAULT_THRESHOLD = 1000;
+
+	private static final Map<String, String> SYNTHESIZERS = new HashMap<String, String>();
+	static {
+		SYNTHESIZERS.put("methodhandle", MethodHandleMethodSynthesizer.class.getName());
+		SYNTHESIZERS.put("reflection", ReflectionMethodSynthesizer.class.getName());
+		SYNTHESIZERS.put("javassist",
+				"com.inspiresoftware.lib.dto.geda.assembler.extension.impl.JavassistMethodSynthesizer");
+		SYNTHESIZERS.put("accessor",
+				"com.inspiresoftware.lib.dto.geda.assembler.extension.impl.JavassistAccessorMethodSynthesizer");
+		SYNTHESIZERS.put("bcel", "com.inspiresoftware.lib.dto.geda.assembler.extension.impl.BCELMethodSynthesizer");
+		SYNTHESIZERS.put("suntools",
+				"com.inspiresoftware.lib.dto.geda.assembler.extension.impl.SunJavaToolsMethodSynthesizer");
+		SYNTHESIZERS.put("javaxtools", JavaxToolsMethodSynthesizer.class.getName());
+	}
+
+	private final Reference<ClassLoader> loader;
+
+	private volatile int threshold = DEFAULT_THRESHOLD;
+	private volatile MethodSynthesizer baseline;
+	private volatile Object compilerConfig = "javassist";
+	private MethodSynthesizer compiler;
+	private ExecutorService executor;
+	private boolean released;
+
+	private final ConcurrentMap<Method, DataReader> readers = new ConcurrentHashMap<Method, DataReader>();
+	private final ConcurrentMap<Method, DataWriter> writers = new ConcurrentHashMap<Method, DataWriter>();
+
+	/**
+	 * @param classLoader
+	 *            class loader
+	 */
+	public TieredMethodSynthesizer(final ClassLoader classLoader) {
+		loader = new WeakReference<ClassLoader>(classLoader);
+		baseline = new MethodHandleMethodSynthesizer(classLoader);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public DataReader synthesizeReader(final PropertyDescriptor descriptor)
+			throws InspectionPropertyNotFoundException, UnableToCreateInstanceException, GeDARuntimeException {
+
+		final Method readMethod = descriptor.getReadMethod();
+		if (readMethod == null) {
+			throw new InspectionPropertyNotFoundException("No read method for: ", descriptor.getName());
+		}
+		DataReader reader = readers.get(readMethod);
+		if (reader == null) {
+			final DataReader tiered = new TieredDataReader(descriptor, baseline.synthesizeReader(descriptor));
+			reader = readers.putIfAbsent(readMethod, tiered);
+			if (reader == null) {
+				reader = tiered;
+			}
+		}
+		return reader;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public DataWriter synthesizeWriter(final PropertyDescriptor descriptor)
+			throws InspectionPropertyNotFoundException, UnableToCreateInstanceException, GeDARuntimeException {
+
+		final Method writeMethod = descriptor.getWriteMethod();
+		if (writeMethod == null) {
+			throw new InspectionPropertyNotFoundException("No write method for: ", descriptor.getName());
+		}
+		DataWriter writer = writers.get(writeMethod);
+		if (writer == null) {
+			final DataWriter tiered = new TieredDataWriter(descriptor, baseline.synthesizeWriter(descriptor));
+			writer = writers.putIfAbsent(writeMethod, tiered);
+			if (writer == null) {
+				writer = tiered;
+			}
+		}
+		return writer;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean configure(final String configuration, final Object value) throws GeDAException {
+		if ("threshold".equals(configuration)) {
+			threshold = Integer.valueOf(String.valueOf(value));
+			return true;
+		} else if ("baseline".equals(configuration)) {
+			baseline = createSynthesizer(value);
+			return true;
+		} else if ("compiler".equals(configuration)) {
+			final MethodSynthesizer previous;
+			synchronized (this) {
+				compilerConfig = value;
+				previous = compiler;
+				compiler = null;
+			}
+			if (previous != null && previous != value) {
+				previous.releaseResources(); // accessors compiled by it already are unaffected
+			}
+			return true;
+		}
+		return getCompiler().configure(configuration, value);
+	}
+
+	/*
+	 * Compiling synthesizer is created lazily, since many properties never become hot.
+	 */
+	private synchronized MethodSynthesizer getCompiler() {
+		if (compiler == null) {
+			compiler = createSynthesizer(compilerConfig);
+		}
+		return compiler;
+	}
+
+	private MethodSynthesizer createSynthesizer(final Object value) throws UnableToCreateInstanceException {
+		if (value instanceof MethodSynthesizer) {
+			return (MethodSynthesizer) value;
+		}
+		final ClassLoader cl = loader.get();
+		if (cl == null) {
+			throw new GeDARuntimeException("Class loader has been gc'ed");
+		}
+		final String name = String.valueOf(value);
+		final String className = SYNTHESIZERS.containsKey(name) ? SYNTHESIZERS.get(name) : name;
+		try {
+			return (MethodSynthesizer) Class.forName(className).getConstructor(ClassLoader.class).newInstance(cl);
+		} catch (Exception exp) {
+			throw new UnableToCreateInstanceException(className, "Unable to create synthesizer: " + className, exp);
+		}
+	}
+
+	private synchronized void submit(final Runnable compilation) {
+		if (released) {
+			throw new RejectedExecutionException("Synthesizer has been released");
+		}
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable runnable) {
+					final Thread thread = new Thread(runnable, "GeDA tiered compiler");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		executor.execute(compilation);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void releaseResources() {
+		synchronized (this) {
+			released = true; // accessors still in use must not start a new compiler thread
+			if (executor != null) {
+				executor.shutdownNow();
+				executor = null;
+			}
+			if (compiler != null) {
+				compiler.releaseResources();
+				compiler = null;
+			}
+		}
+		readers.clear();
+		writers.clear();
+		baseline.releaseResources();
+		loader.clear();
+	}
+
+	/*
+	 * Invocation counting and promotion to compiled tier. Delegate is counting accessor until threshold is reached,
+	 * then plain baseline accessor until compiled one is ready, so promoted accessors call compiled accessor directly
+	 * without any counting or checks.
+	 */
+	private abstract class TieredAccessor<T> implements Runnable {
+
+		protected final PropertyDescriptor descriptor;
+		protected final T baseline;
+		protected volatile T delegate;
+		private final AtomicBoolean promoted = new AtomicBoolean(false);
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		TieredAccessor(final PropertyDescriptor descriptor, final T baseline) {
+			this.descriptor = descriptor;
+			this.baseline = baseline;
+		}
+
+		/*
+		 * Invoked by counting accessor on every access.
+		 */
+		protected final void count() {
+			if (invocations.incrementAndGet() >= threshold && promoted.compareAndSet(false, true)) {
+				delegate = baseline; // stop counting, baseline is used until compiled accessor is ready
+				try {
+					submit(this);
+				} catch (RejectedExecutionException ree) {
+					LOG.debug("Synthesizer released, {} will not be compiled", descriptor.getName());
+				}
+			}
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public final void run() {
+			try {
+				delegate = compile(getCompiler());
+			} catch (Exception exp) {
+				LOG.warn("Unable to compile accessor for property {}, staying with baseline: {}",
+						descriptor.getName(), exp.getMessage());
+			}
+		}
+
+		/**
+		 * @param compiler
+		 *            compiling synthesizer
+		 * @return compiled accessor
+		 */
+		protected abstract T compile(MethodSynthesizer compiler);
+
+	}
+
+	/*
+	 * Tiered reader.
+	 */
+	private final class TieredDataReader extends TieredAccessor<DataReader> implements DataReader {
+
+		private final Class<?> returnType;
+
+		TieredDataReader(final PropertyDescriptor descriptor, final DataReader baseline) {
+			super(descriptor, baseline);
+			this.returnType = baseline.getReturnType();
+			this.delegate = new CountingDataReader();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Object read(final Object source) {
+			return delegate.read(source);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Class<?> getReturnType() {
+			return returnType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected DataReader compile(final MethodSynthesizer compiler) {
+			return compiler.synthesizeReader(descriptor);
+		}
+
+		/*
+		 * Baseline reader that counts invocations.
+		 */
+		private final class CountingDataReader implements DataReader {
+
+			/** {@inheritDoc} */
+			@Override
+			public Object read(final Object source) {
+				count();
+				return baseline.read(source);
+			}
+
+			/** {@inheritDoc} */
+			@Override
+			public Class<?> getReturnType() {
+				return returnType;
+			}
+
+		}
+
+	}
+
+	/*
+	 * Tiered writer.
+	 */
+	private final class TieredDataWriter extends TieredAccessor<DataWriter> implements DataWriter {
+
+		private final Class<?> parameterType;
+
+		TieredDataWriter(final PropertyDescriptor descriptor, final DataWriter baseline) {
+			super(descriptor, baseline);
+			this.parameterType = baseline.getParameterType();
+			this.delegate = new CountingDataWriter();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public void write(final Object source, final Object value) {
+			delegate.write(source, value);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public Class<?> getParameterType() {
+			return parameterType;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected DataWriter compile(final MethodSynthesizer compiler) {
+			return compiler.synthesizeWriter(descriptor);
+		}
+
+		/*
+		 * Baseline writer that counts invocations.
+		 */
+		private final class CountingDataWriter implements DataWriter {
+
+			/** {@inheritDoc} */
+			@Override
+			public void write(final Object source, final Object value) {
+				count();
+				baseline.write(source, value);
+			}
+
+			/** {@inheritDoc} */
+			@Override
+			public Class<?> getParameterType() {
+				return parameterType;
+			}
+
+		}
+
+	}
+
+}
@@ -77,7 +77,9 @@ public interface MapPipeMetadata extends PipeMetadata {
 	/**
 	 * @param converters
 	 *            converters passed during runtime
-	 * @return matcher instance that will help synchronize collections/maps.
+	 * @return matcher instance that will help synchronize collections/maps (or null if no matcher is specified, in
+	 *         which case DTO map keys are matched to Entity map keys or to entityCollectionMapKey property values of
+	 *         Entity collection items by equality; entityMapKey mappings always have a matcher).
 	 *
 	 * @throws DtoToEntityMatcherNotFoundException
 	 *             when matcher cannot be found in converters map
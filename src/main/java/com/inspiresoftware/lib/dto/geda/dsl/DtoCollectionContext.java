@@ -175,6 +175,31 @@ public interface DtoCollectionContext extends DtoEntityContextAppender {
 	 */
 	DtoCollectionContext dtoToEntityMatcherKey(String dtoToEntityMatcherKey);
 
+	/**
+	 * Names of DTO collection item properties that identify the item (several properties make a composite key). When
+	 * specified, DTO items are matched to Entity items by equal keys and collections are synchronized through hash
+	 * index of keys rather than by matching every DTO item with every Entity item.
+	 *
+	 * This setting has priority over the {@link #dtoToEntityMatcher(Class)} setting. The
+	 * {@link #dtoToEntityMatcherKey(String)} setting has priority over this setting.
+	 *
+	 * @param dtoItemKeyProperties
+	 *            key properties of DTO item
+	 * @return dto field context
+	 */
+	DtoCollectionContext dtoItemKeyProperties(String... dtoItemKeyProperties);
+
+	/**
+	 * Names of Entity collection item properties that identify the item, in the same order as
+	 * {@link #dtoItemKeyProperties(String...)}. If not specified, Entity item properties are assumed to have the same
+	 * names as DTO item properties.
+	 *
+	 * @param entityItemKeyProperties
+	 *            key properties of Entity item
+	 * @return dto field context
+	 */
+	DtoCollectionContext entityItemKeyProperties(String... entityItemKeyProperties);
+
 	/**
 	 * @return dto field name
 	 */
@@ -239,4 +264,14 @@ public interface DtoCollectionContext extends DtoEntityContextAppender {
 	 * @return dto to entity matcher key
 	 */
 	String getValueOfDtoToEntityMatcherKey();
+
+	/**
+	 * @return key properties of DTO item
+	 */
+	String[] getValueOfDtoItemKeyProperties();
+
+	/**
+	 * @return key properties of Entity item
+	 */
+	String[] getValueOfEntityItemKeyProperties();
 }
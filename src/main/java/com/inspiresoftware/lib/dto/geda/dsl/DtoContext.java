@@ -10,6 +10,8 @@
 
 package com.inspiresoftware.lib.dto.geda.dsl;
 
+import java.util.Collection;
+
 /**
  * DSL version of {@link com.inspiresoftware.lib.dto.geda.annotations.Dto}.
  *
@@ -104,4 +106,12 @@ public interface DtoContext {
 	 * @return ctx
 	 */
 	DtoEntityContext useContextFor(DtoEntityContext ctx, String beanKey);
+
+	/**
+	 * @return all DTO to Entity relation contexts of this DTO (each context is listed once, even if it is used for
+	 *         several entity classes)
+	 *
+	 * @since 3.1.0
+	 */
+	Collection<DtoEntityContext> getEntityContexts();
 }
@@ -189,8 +189,10 @@ public interface DtoMapContext extends DtoEntityContextAppender {
 	 * property is a collection or a map. The matcher is used for writing to entity, so read only map mapping do not
 	 * require this.
 	 *
-	 * There is no sensible default for this since we are matching incompatible (in theory) types therefore there are no
-	 * default implementations that can be used for this.
+	 * If no matcher is specified, DTO map keys are matched by equality (see {@link Object#equals(Object)}) to Entity map
+	 * keys or to values of {@link #entityCollectionMapKey(String)} property of Entity collection items, which allows
+	 * synchronizing through hash lookups rather than by matching every DTO key with every Entity item (matcher
+	 * is still required with {@link #useEntityMapKey()} since Entity map keys are then beans).
 	 *
 	 * @param dtoToEntityMatcher
 	 *            dto to entity matcher
@@ -10,6 +10,8 @@
 
 package com.inspiresoftware.lib.dto.geda.dsl;
 
+import java.util.Collection;
+
 import com.inspiresoftware.lib.dto.geda.assembler.extension.DisposableContainer;
 
 /**
@@ -57,4 +59,11 @@ public interface Registry extends DisposableContainer {
 	 */
 	DtoContext dto(String beanKey);
 
+	/**
+	 * @return all DTO mapping contexts registered so far
+	 *
+	 * @since 3.1.0
+	 */
+	Collection<DtoContext> getDtoContexts();
+
 }
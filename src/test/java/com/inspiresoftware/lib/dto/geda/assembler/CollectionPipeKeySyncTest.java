@@ -0,0 +1,105 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoCollection;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.IntKeyCollectionDto;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.IntKeyItemDto;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.KeyCollectionDto;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.KeyCollectionEntity;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.KeyItem;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.KeyItemDto;
+import com.inspiresoftware.lib.dto.geda.exception.AnnotationValidatingBindingException;
+
+/**
+ * Tests synchronization of {@link DtoCollection} mappings through {@link CollectionPipe} when items are matched by
+ * key properties.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class CollectionPipeKeySyncTest {
+
+	private final BeanFactory beanFactory = new BeanFactory() {
+
+		public Class getClazz(final String entityBeanKey) {
+			if ("keyItemDto".equals(entityBeanKey)) {
+				return KeyItemDto.class;
+			} else if ("intKeyItemDto".equals(entityBeanKey)) {
+				return IntKeyItemDto.class;
+			}
+			return KeyItem.class;
+		}
+
+		public Object get(final String entityBeanKey) {
+			if ("keyItemDto".equals(entityBeanKey)) {
+				return new KeyItemDto();
+			} else if ("intKeyItemDto".equals(entityBeanKey)) {
+				return new IntKeyItemDto();
+			}
+			return new KeyItem();
+		}
+	};
+
+	/**
+	 * Entity items with keys of DTO items are updated in place, other Entity items are removed and DTO items without
+	 * Entity item are added.
+	 */
+	@Test
+	public void testCollectionSyncByKeyProperties() {
+
+		final Assembler assembler = DTOAssembler.newCustomAssembler(KeyCollectionDto.class,
+				KeyCollectionEntity.class, CollectionPipeKeySyncTest.class.getClassLoader(), "reflection");
+
+		final KeyCollectionEntity entity = new KeyCollectionEntity();
+		entity.setItems(new ArrayList<KeyItem>());
+		entity.getItems().add(new KeyItem(1L, "n1"));
+		entity.getItems().add(new KeyItem(2L, "n2"));
+		final KeyItem kept = entity.getItems().get(1);
+
+		final KeyCollectionDto dto = new KeyCollectionDto();
+		assembler.assembleDto(dto, entity, null, beanFactory);
+		assertEquals(2, dto.getItems().size());
+		assertEquals(Long.valueOf(2L), dto.getItems().get(1).getId());
+
+		dto.getItems().remove(0);
+		dto.getItems().get(0).setName("changed");
+		dto.getItems().add(new KeyItemDto(3L, "n3"));
+
+		assembler.assembleEntity(dto, entity, null, beanFactory);
+
+		assertEquals(2, entity.getItems().size());
+		assertSame(kept, entity.getItems().get(0));
+		assertEquals("changed", kept.getName());
+		assertEquals(Long.valueOf(3L), entity.getItems().get(1).getId());
+		assertEquals("n3", entity.getItems().get(1).getName());
+	}
+
+	/**
+	 * Integer DTO item key never equals Long Entity item key, so such mapping fails when assembler is created.
+	 */
+	@Test(expected = AnnotationValidatingBindingException.class)
+	public void testKeyTypeMismatchFailsOnBuild() {
+
+		DTOAssembler.newCustomAssembler(IntKeyCollectionDto.class, KeyCollectionEntity.class,
+				CollectionPipeKeySyncTest.class.getClassLoader(), "reflection");
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.inspiresoftware.lib.dto.geda.adapter.BeanFactory;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoMap;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.CollectionMapDto;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.CollectionMapEntity;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.Item;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.ItemDto;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.MapDto;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.MapEntity;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.MapKeyDto;
+import com.inspiresoftware.lib.dto.geda.assembler.examples.sync.MapKeyEntity;
+
+/**
+ * Tests synchronization of {@link DtoMap} mappings through {@link MapPipe}: map to map by equal keys, map with
+ * Entity beans as keys and map backed by Entity collection.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class MapPipeSyncTest {
+
+	private final BeanFactory beanFactory = new BeanFactory() {
+
+		public Class getClazz(final String entityBeanKey) {
+			return "itemDto".equals(entityBeanKey) ? ItemDto.class : Item.class;
+		}
+
+		public Object get(final String entityBeanKey) {
+			return "itemDto".equals(entityBeanKey) ? new ItemDto() : new Item();
+		}
+	};
+
+	/**
+	 * Entity map entries are updated in place, removed and added by equal map keys.
+	 */
+	@Test
+	public void testMapToMapSyncByEqualKeys() {
+
+		final Assembler assembler = DTOAssembler.newCustomAssembler(MapDto.class, MapEntity.class,
+				MapPipeSyncTest.class.getClassLoader(), "reflection");
+
+		final MapEntity entity = new MapEntity();
+		entity.setItems(new LinkedHashMap<String, Item>());
+		entity.getItems().put("k0", new Item("n0"));
+		entity.getItems().put("k1", new Item("n1"));
+		final Item kept = entity.getItems().get("k1");
+
+		final MapDto dto = new MapDto();
+		assembler.assembleDto(dto, entity, null, beanFactory);
+		assertEquals(2, dto.getItems().size());
+		assertEquals("n1", dto.getItems().get("k1").getName());
+
+		dto.getItems().remove("k0");
+		dto.getItems().get("k1").setName("changed");
+		dto.getItems().put("k2", new ItemDto("n2"));
+
+		assembler.assembleEntity(dto, entity, null, beanFactory);
+
+		assertEquals(2, entity.getItems().size());
+		assertFalse(entity.getItems().containsKey("k0"));
+		assertSame(kept, entity.getItems().get("k1"));
+		assertEquals("changed", kept.getName());
+		assertEquals("n2", entity.getItems().get("k2").getName());
+	}
+
+	/**
+	 * Entity beans used as map keys are matched through keyed matcher, so existing keys are kept.
+	 */
+	@Test
+	public void testMapKeySyncByMatcher() {
+
+		final Assembler assembler = DTOAssembler.newCustomAssembler(MapKeyDto.class, MapKeyEntity.class,
+				MapPipeSyncTest.class.getClassLoader(), "reflection");
+
+		final MapKeyEntity entity = new MapKeyEntity();
+		entity.setItems(new LinkedHashMap<Item, String>());
+		final Item first = new Item("n0");
+		final Item second = new Item("n1");
+		entity.getItems().put(first, "v0");
+		entity.getItems().put(second, "v1");
+
+		final MapKeyDto dto = new MapKeyDto();
+		assembler.assembleDto(dto, entity, null, beanFactory);
+		assertEquals(2, dto.getItems().size());
+
+		ItemDto secondDto = null;
+		ItemDto firstDto = null;
+		for (final ItemDto key : dto.getItems().keySet()) {
+			if ("n1".equals(key.getName())) {
+				secondDto = key;
+			} else {
+				firstDto = key;
+			}
+		}
+		assertNotNull(firstDto);
+		assertNotNull(secondDto);
+		dto.getItems().remove(firstDto);
+		dto.getItems().put(secondDto, "changed");
+		dto.getItems().put(new ItemDto("n2"), "v2");
+
+		assembler.assembleEntity(dto, entity, null, beanFactory);
+
+		assertEquals(2, entity.getItems().size());
+		assertFalse(entity.getItems().containsKey(first));
+		assertTrue(entity.getItems().containsKey(second));
+		assertEquals("changed", entity.getItems().get(second));
+		boolean added = false;
+		for (final Map.Entry<Item, String> entry : entity.getItems().entrySet()) {
+			if ("n2".equals(entry.getKey().getName())) {
+				assertEquals("v2", entry.getValue());
+				added = true;
+			}
+		}
+		assertTrue(added);
+	}
+
+	/**
+	 * Entity collection items are matched by entityCollectionMapKey property value.
+	 */
+	@Test
+	public void testCollectionBackedMapSyncByEqualKeys() {
+
+		final Assembler assembler = DTOAssembler.newCustomAssembler(CollectionMapDto.class,
+				CollectionMapEntity.class, MapPipeSyncTest.class.getClassLoader(), "reflection");
+
+		final CollectionMapEntity entity = new CollectionMapEntity();
+		entity.setItems(new ArrayList<Item>());
+		entity.getItems().add(new Item("n0"));
+		entity.getItems().add(new Item("n1"));
+		final Item kept = entity.getItems().get(1);
+
+		final CollectionMapDto dto = new CollectionMapDto();
+		assembler.assembleDto(dto, entity, null, beanFactory);
+		assertEquals(2, dto.getItems().size());
+		assertTrue(dto.getItems().containsKey("n1"));
+
+		dto.getItems().remove("n0");
+		dto.getItems().put("n2", new ItemDto("n2"));
+
+		assembler.assembleEntity(dto, entity, null, beanFactory);
+
+		assertEquals(2, entity.getItems().size());
+		assertSame(kept, entity.getItems().get(0));
+		assertEquals("n2", entity.getItems().get(1).getName());
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.examples.sync;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.inspiresoftware.lib.dto.geda.annotations.Dto;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoMap;
+
+/**
+ * DTO with map of items keyed by item name.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+@Dto
+public class CollectionMapDto {
+
+	@DtoMap(value = "items", dtoBeanKey = "itemDto", entityBeanKeys = "item", entityGenericType = Item.class,
+			dtoMapClass = HashMap.class, entityMapOrCollectionClass = ArrayList.class,
+			entityCollectionMapKey = "name")
+	private Map<String, ItemDto> items;
+
+	/** @return items */
+	public Map<String, ItemDto> getItems() {
+		return items;
+	}
+
+	/** @param items items */
+	public void setItems(final Map<String, ItemDto> items) {
+		this.items = items;
+	}
+
+}
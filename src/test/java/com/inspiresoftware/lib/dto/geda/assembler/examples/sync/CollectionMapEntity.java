@@ -0,0 +1,36 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.examples.sync;
+
+import java.util.List;
+
+/**
+ * Entity with collection of items.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class CollectionMapEntity {
+
+	private List<Item> items;
+
+	/** @return items */
+	public List<Item> getItems() {
+		return items;
+	}
+
+	/** @param items items */
+	public void setItems(final List<Item> items) {
+		this.items = items;
+	}
+
+}
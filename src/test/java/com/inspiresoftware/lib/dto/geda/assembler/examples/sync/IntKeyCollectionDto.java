@@ -0,0 +1,41 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.examples.sync;
+
+import java.util.List;
+
+import com.inspiresoftware.lib.dto.geda.annotations.Dto;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoCollection;
+
+/**
+ * DTO with collection of items whose id type does not match Entity item id type.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+@Dto
+public class IntKeyCollectionDto {
+
+	@DtoCollection(value = "items", dtoBeanKey = "intKeyItemDto", entityBeanKeys = "keyItem", dtoItemKeyProperties = "id")
+	private List<IntKeyItemDto> items;
+
+	/** @return items */
+	public List<IntKeyItemDto> getItems() {
+		return items;
+	}
+
+	/** @param items items */
+	public void setItems(final List<IntKeyItemDto> items) {
+		this.items = items;
+	}
+
+}
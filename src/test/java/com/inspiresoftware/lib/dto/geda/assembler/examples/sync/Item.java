@@ -0,0 +1,44 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.examples.sync;
+
+/**
+ * Test entity item.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class Item {
+
+	private String name;
+
+	/** Default constructor. */
+	public Item() {
+		// bean
+	}
+
+	/** @param name name */
+	public Item(final String name) {
+		this.name = name;
+	}
+
+	/** @return name */
+	public String getName() {
+		return name;
+	}
+
+	/** @param name name */
+	public void setName(final String name) {
+		this.name = name;
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.examples.sync;
+
+import com.inspiresoftware.lib.dto.geda.annotations.Dto;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoField;
+
+/**
+ * Test DTO item.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+@Dto
+public class ItemDto {
+
+	@DtoField
+	private String name;
+
+	/** Default constructor. */
+	public ItemDto() {
+		// bean
+	}
+
+	/** @param name name */
+	public ItemDto(final String name) {
+		this.name = name;
+	}
+
+	/** @return name */
+	public String getName() {
+		return name;
+	}
+
+	/** @param name name */
+	public void setName(final String name) {
+		this.name = name;
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.examples.sync;
+
+import com.inspiresoftware.lib.dto.geda.adapter.KeyedDtoToEntityMatcher;
+
+/**
+ * Matches items by name.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class ItemNameMatcher implements KeyedDtoToEntityMatcher<ItemDto, Item> {
+
+	/** {@inheritDoc} */
+	public boolean match(final ItemDto dto, final Item entity) {
+		return dto.getName() != null && dto.getName().equals(entity.getName());
+	}
+
+	/** {@inheritDoc} */
+	public Object getDtoKey(final ItemDto dto) {
+		return dto.getName();
+	}
+
+	/** {@inheritDoc} */
+	public Object getEntityKey(final Item entity) {
+		return entity.getName();
+	}
+
+}
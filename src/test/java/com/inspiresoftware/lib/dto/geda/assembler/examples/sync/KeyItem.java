@@ -0,0 +1,59 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.examples.sync;
+
+/**
+ * Entity item identified by id.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+public class KeyItem {
+
+	private Long id;
+	private String name;
+
+	/** Default constructor. */
+	public KeyItem() {
+		// bean
+	}
+
+	/**
+	 * @param id id
+	 * @param name name
+	 */
+	public KeyItem(final Long id, final String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	/** @return id */
+	public Long getId() {
+		return id;
+	}
+
+	/** @param id id */
+	public void setId(final Long id) {
+		this.id = id;
+	}
+
+	/** @return name */
+	public String getName() {
+		return name;
+	}
+
+	/** @param name name */
+	public void setName(final String name) {
+		this.name = name;
+	}
+
+}
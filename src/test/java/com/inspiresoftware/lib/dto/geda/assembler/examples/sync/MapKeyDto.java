@@ -0,0 +1,43 @@
+/*
+ * This code is distributed under The GNU Lesser General Public License (LGPLv3)
+ * Please visit GNU site for LGPLv3 http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright Denis Pavlov 2009
+ * Web: http://www.genericdtoassembler.org
+ * SVN: https://svn.code.sf.net/p/geda-genericdto/code/trunk/
+ * SVN (mirror): http://geda-genericdto.googlecode.com/svn/trunk/
+ */
+
+package com.inspiresoftware.lib.dto.geda.assembler.examples.sync;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.inspiresoftware.lib.dto.geda.annotations.Dto;
+import com.inspiresoftware.lib.dto.geda.annotations.DtoMap;
+
+/**
+ * DTO with items as map keys.
+ *
+ * @author denispavlov
+ * @since 3.1.0
+ *
+ */
+@Dto
+public class MapKeyDto {
+
+	@DtoMap(value = "items", dtoBeanKey = "itemDto", entityBeanKeys = "item", entityGenericType = Item.class,
+			dtoMapClass = HashMap.class, useEntityMapKey = true, dtoToEntityMatcher = ItemNameMatcher.class)
+	private Map<ItemDto, String> items;
+
+	/** @return items */
+	public Map<ItemDto, String> getItems() {
+		return items;
+	}
+
+	/** @param items items */
+	public void setItems(final Map<ItemDto, String> items) {
+		this.items = items;
+	}
+
+}